@@ -16,7 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-@Aggregate
+@Aggregate(cache = "businessCache")
 @NoArgsConstructor
 @Getter
 public class BusinessAggregate {
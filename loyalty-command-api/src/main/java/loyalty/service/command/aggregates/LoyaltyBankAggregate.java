@@ -28,7 +28,7 @@ import static loyalty.service.core.constants.DomainConstants.*;
 import static loyalty.service.core.constants.LogMessages.INSUFFICIENT_AVAILABLE_POINTS_FOR_AUTHORIZATION;
 import static loyalty.service.core.constants.MetaDataKeys.SKIP_POINTS_CHECK;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "loyaltyBankSnapshotTrigger", cache = "loyaltyBankCache")
 @NoArgsConstructor
 @Getter
 public class LoyaltyBankAggregate {
@@ -197,6 +197,24 @@ public class LoyaltyBankAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    @CommandHandler
+    public void on(CreateBatchExpirePointsTransactionCommand command) {
+        if (this.captured + command.getPoints() < 0) {
+            throw new IllegalLoyaltyBankStateException(CAPTURED);
+        }
+
+        BatchExpiredTransactionCreatedEvent event = BatchExpiredTransactionCreatedEvent.builder()
+                .requestId(command.getRequestId())
+                .loyaltyBankId(command.getLoyaltyBankId())
+                .targetTransactions(command.getTargetTransactions())
+                .points(command.getPoints())
+                .build();
+
+        LogHelper.logCommandIssuingEvent(LOGGER, command, event);
+
+        AggregateLifecycle.apply(event);
+    }
+
     @CommandHandler
     public void on(ExpireAllPointsCommand command) {
         AllPointsExpiredEvent event = AllPointsExpiredEvent.builder()
@@ -312,6 +330,13 @@ public class LoyaltyBankAggregate {
         LogHelper.logEventProcessed(LOGGER, event);
     }
 
+    @EventSourcingHandler
+    public void on(BatchExpiredTransactionCreatedEvent event) {
+        this.captured += event.getPoints();
+
+        LogHelper.logEventProcessed(LOGGER, event);
+    }
+
     @EventSourcingHandler
     public void on(AllPointsExpiredEvent event) {
         this.pending -= event.getPendingPointsRemoved();
@@ -0,0 +1,40 @@
+package loyalty.service.command.commands.transactions;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+import static loyalty.service.core.constants.ExceptionMessages.*;
+import static loyalty.service.core.utils.Helper.*;
+
+/**
+ * Expires several transactions of one loyalty bank at once, so the aggregate is loaded a single time for all of them.
+ */
+@Getter
+@SuperBuilder
+public class CreateBatchExpirePointsTransactionCommand extends AbstractTransactionCommand {
+    // Points to expire per target transaction id, in the order the transactions were earned
+    private Map<String, Integer> targetTransactions;
+
+    @Override
+    public void validate() {
+        super.validate();
+
+        if (targetTransactions == null || targetTransactions.isEmpty()) {
+            throw new IllegalArgumentException(TARGET_TRANSACTIONS_CANNOT_BE_EMPTY);
+        }
+
+        long totalPoints = 0;
+        for (Map.Entry<String, Integer> targetTransaction : targetTransactions.entrySet()) {
+            throwExceptionIfParameterIsNullOrBlank(targetTransaction.getKey(), TARGET_TRANSACTION_ID_CANNOT_BE_EMPTY);
+            throwExceptionIfParameterIsNull(targetTransaction.getValue(), POINTS_CANNOT_BE_LTE_ZERO);
+            throwExceptionIfParameterIsNegativeOrZero(targetTransaction.getValue(), POINTS_CANNOT_BE_LTE_ZERO);
+            totalPoints += targetTransaction.getValue();
+        }
+
+        if (totalPoints != this.getPoints()) {
+            throw new IllegalArgumentException(POINTS_MUST_MATCH_TARGET_TRANSACTIONS);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package loyalty.service.command.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.JCacheAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded caches placed in front of the event sourcing repositories so frequently used aggregates are not
+ * reloaded from the event store on every command. Hit and miss counts are published through the JCache
+ * statistics MBean of each cache.
+ */
+@Configuration
+public class AggregateCacheConfig {
+
+    @Bean
+    public Cache loyaltyBankCache(
+            @Value("${loyalty.cache.aggregate.loyalty-bank.max-size:10000}") long maxSize,
+            @Value("${loyalty.cache.aggregate.loyalty-bank.ttl-seconds:600}") long ttlSeconds) {
+        return aggregateCache("loyaltyBankCache", maxSize, ttlSeconds);
+    }
+
+    @Bean
+    public Cache accountCache(
+            @Value("${loyalty.cache.aggregate.account.max-size:10000}") long maxSize,
+            @Value("${loyalty.cache.aggregate.account.ttl-seconds:600}") long ttlSeconds) {
+        return aggregateCache("accountCache", maxSize, ttlSeconds);
+    }
+
+    @Bean
+    public Cache businessCache(
+            @Value("${loyalty.cache.aggregate.business.max-size:1000}") long maxSize,
+            @Value("${loyalty.cache.aggregate.business.ttl-seconds:600}") long ttlSeconds) {
+        return aggregateCache("businessCache", maxSize, ttlSeconds);
+    }
+
+    private static Cache aggregateCache(String name, long maxSize, long ttlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        // Drop a cache left behind by a previous application context in the same JVM
+        cacheManager.destroyCache(name);
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterAccess(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setStatisticsEnabled(true);
+
+        return new JCacheAdapter(cacheManager.createCache(name, configuration));
+    }
+}
@@ -2,16 +2,35 @@ package loyalty.service.command.config;
 
 import loyalty.service.command.interceptors.*;
 import loyalty.service.core.errorhandling.LoyaltyServiceEventsErrorHandler;
+import org.axonframework.commandhandling.AsynchronousCommandBus;
 import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.DuplicateCommandHandlerResolver;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
+import org.axonframework.commandhandling.gateway.IntervalRetryScheduler;
+import org.axonframework.common.ExceptionUtils;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
 import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
 import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
 import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.messaging.interceptors.CorrelationDataInterceptor;
+import org.axonframework.modelling.command.ConcurrencyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 import static loyalty.service.core.constants.DomainConstants.*;
 
 @Configuration
@@ -22,6 +41,77 @@ public class AxonConfig {
         return new EventCountSnapshotTriggerDefinition(snapshotter, 10);
     }
 
+    /**
+     * Loyalty banks accumulate a transaction event per earn, award and redemption, so they are snapshotted either
+     * after a number of events or once replaying the stream takes longer than the configured load time.
+     */
+    @Bean
+    public SnapshotTriggerDefinition loyaltyBankSnapshotTrigger(
+            Snapshotter snapshotter,
+            @Value("${loyalty.snapshot.loyalty-bank.trigger:event-count}") String trigger,
+            @Value("${loyalty.snapshot.loyalty-bank.event-count-threshold:50}") int eventCountThreshold,
+            @Value("${loyalty.snapshot.loyalty-bank.load-time-threshold-millis:100}") long loadTimeThresholdMillis) {
+        if ("load-time".equals(trigger)) {
+            return new AggregateLoadTimeSnapshotTriggerDefinition(snapshotter, loadTimeThresholdMillis);
+        }
+        return new EventCountSnapshotTriggerDefinition(snapshotter, eventCountThreshold);
+    }
+
+    /**
+     * Replaces the default SimpleCommandBus when async mode is enabled so command handlers run on a dedicated pool
+     * and the futures returned by the command controllers release the servlet thread while the event store works.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier("localSegment")
+    @ConditionalOnProperty(name = "loyalty.command.async.enabled", havingValue = "true")
+    public AsynchronousCommandBus commandBus(TransactionManager transactionManager,
+                                             org.axonframework.config.Configuration axonConfiguration,
+                                             DuplicateCommandHandlerResolver duplicateCommandHandlerResolver,
+                                             @Value("${loyalty.command.async.threads:32}") int threads) {
+        AsynchronousCommandBus commandBus = AsynchronousCommandBus.builder()
+                .executor(Executors.newFixedThreadPool(threads))
+                .transactionManager(transactionManager)
+                .duplicateCommandHandlerResolver(duplicateCommandHandlerResolver)
+                .messageMonitor(axonConfiguration.messageMonitor(CommandBus.class, "commandBus"))
+                .build();
+        commandBus.registerHandlerInterceptor(
+                new CorrelationDataInterceptor<>(axonConfiguration.correlationDataProviders())
+        );
+        return commandBus;
+    }
+
+    /**
+     * Aggregates are cached per instance, and commands are not routed to the instance holding an aggregate, so a
+     * command may be handled against state another instance has since changed. A failed command evicts the cached
+     * aggregate, and is retried here against the events in the store instead of failing to the client: a conflicting
+     * append up to the configured count, and a rejection by the aggregate, e.g. insufficient points, once. Other
+     * failures, e.g. the interceptors' validation errors, are not retried.
+     */
+    @Bean
+    public CommandGateway commandGateway(CommandBus commandBus,
+                                         @Value("${loyalty.command.retry.max-count:3}") int maxRetryCount,
+                                         @Value("${loyalty.command.retry.interval-millis:50}") int retryInterval) {
+        return DefaultCommandGateway.builder()
+                .commandBus(commandBus)
+                .retryScheduler(new CachedAggregateRetryScheduler(
+                        IntervalRetryScheduler.builder()
+                                .retryExecutor(commandRetryExecutor())
+                                .maxRetryCount(maxRetryCount)
+                                .retryInterval(retryInterval)
+                                .nonTransientFailurePredicate(
+                                        failure -> ExceptionUtils.findException(failure, ConcurrencyException.class).isEmpty()
+                                )
+                                .build(),
+                        commandRetryExecutor()
+                ))
+                .build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService commandRetryExecutor() {
+        return Executors.newSingleThreadScheduledExecutor();
+    }
+
     @Autowired
     public void registerAccountCommandInterceptors(ApplicationContext context, CommandBus commandBus) {
         commandBus.registerDispatchInterceptor(
@@ -42,7 +132,19 @@ public class AxonConfig {
     }
 
     @Autowired
-    public void configure(EventProcessingConfigurer configurer) {
+    public void configure(EventProcessingConfigurer configurer,
+                          @Value("${loyalty.account.email-filter.catch-up-seconds:300}") long emailFilterCatchUpSeconds) {
+        // Runs on every instance from just before startup, the emails appended earlier are read from the lookup table
+        configurer.registerTrackingEventProcessor(
+                ACCOUNT_EMAIL_FILTER_GROUP,
+                org.axonframework.config.Configuration::eventStore,
+                configuration -> TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                        .andInitialTrackingToken(source -> source.createTokenAt(
+                                Instant.now().minusSeconds(emailFilterCatchUpSeconds)
+                        ))
+        );
+        configurer.registerTokenStore(ACCOUNT_EMAIL_FILTER_GROUP, configuration -> new InMemoryTokenStore());
+
         configurer.registerListenerInvocationErrorHandler(COMMAND_PROJECTION_GROUP,
                 configuration -> new LoyaltyServiceEventsErrorHandler());
         configurer.registerListenerInvocationErrorHandler(REDEMPTION_TRACKER_GROUP,
@@ -0,0 +1,55 @@
+package loyalty.service.command.config;
+
+import loyalty.service.core.exceptions.FailedToExpireLoyaltyPointsException;
+import loyalty.service.core.exceptions.IllegalLoyaltyBankStateException;
+import loyalty.service.core.exceptions.InsufficientPointsException;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.gateway.RetryScheduler;
+import org.axonframework.common.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Re-runs a command rejected by an aggregate once before the rejection reaches the client. Aggregates are cached per
+ * instance, so the rejection may come from state another instance has since changed; the rolled back command evicts
+ * the cached aggregate, and the re-run is handled against the events in the store. Other failures are left to the
+ * delegate.
+ */
+public class CachedAggregateRetryScheduler implements RetryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedAggregateRetryScheduler.class);
+    private static final List<Class<? extends Throwable>> AGGREGATE_REJECTIONS = List.of(
+            IllegalLoyaltyBankStateException.class,
+            InsufficientPointsException.class,
+            FailedToExpireLoyaltyPointsException.class
+    );
+
+    private final RetryScheduler delegate;
+    private final Executor retryExecutor;
+
+    public CachedAggregateRetryScheduler(RetryScheduler delegate, Executor retryExecutor) {
+        this.delegate = delegate;
+        this.retryExecutor = retryExecutor;
+    }
+
+    @Override
+    public boolean scheduleRetry(CommandMessage commandMessage, RuntimeException lastFailure,
+                                 List<Class<? extends Throwable>[]> failures, Runnable dispatchTask) {
+        // Only the first failure can come from a cached aggregate, a later one was handled against the event store
+        if (failures.size() == 1 && isAggregateRejection(lastFailure)) {
+            LOGGER.debug("Re-running {} rejected by a possibly stale aggregate: {}",
+                    commandMessage.getPayloadType().getSimpleName(), lastFailure.getLocalizedMessage());
+            retryExecutor.execute(dispatchTask);
+            return true;
+        }
+        return delegate.scheduleRetry(commandMessage, lastFailure, failures, dispatchTask);
+    }
+
+    private static boolean isAggregateRejection(Throwable failure) {
+        return AGGREGATE_REJECTIONS.stream()
+                .anyMatch(rejection -> ExceptionUtils.findException(failure, rejection).isPresent());
+    }
+}
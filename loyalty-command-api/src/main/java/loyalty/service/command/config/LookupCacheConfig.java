@@ -0,0 +1,49 @@
+package loyalty.service.command.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read-through caches for the lookup repositories queried by the command interceptors. Entries are only read by the
+ * interceptors, and are evicted by the repository save and delete calls made from the lookup projections once the
+ * projection's transaction commits. The projections load the entities they change with the uncached findById, so a
+ * cached instance is never modified.
+ * <p>
+ * Only the instance projecting an entity evicts it, so other instances may read it stale until it expires. Redemption
+ * trackers are therefore not cached, since the capture and void checks they answer guard against spending a payment's
+ * points twice.
+ */
+@Configuration
+@EnableCaching
+public class LookupCacheConfig {
+
+    public static final String ACCOUNT_LOOKUP_CACHE = "accountLookup";
+    public static final String BUSINESS_LOOKUP_CACHE = "businessLookup";
+    public static final String LOYALTY_BANK_LOOKUP_CACHE = "loyaltyBankLookup";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${loyalty.cache.lookup.max-size:100000}") long maxSize,
+            @Value("${loyalty.cache.lookup.ttl-seconds:60}") long ttlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                ACCOUNT_LOOKUP_CACHE,
+                BUSINESS_LOOKUP_CACHE,
+                LOYALTY_BANK_LOOKUP_CACHE
+        );
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,62 @@
+package loyalty.service.command.data.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "expiration_checkpoint")
+public class ExpirationCheckpointEntity {
+
+    @Id
+    @NotNull(message = "CheckpointId cannot be null")
+    @Column(name = "checkpoint_id", unique = true)
+    private String checkpointId;
+
+    // Cutoff of the run the checkpoint belongs to
+    @Column(name = "expiration_date")
+    private Instant expirationDate;
+
+    // Position in (loyaltyBankId, timestamp, transactionId) order of the last transaction of the last loyalty bank dispatched
+    @Column(name = "last_loyalty_bank_id")
+    private String lastLoyaltyBankId;
+
+    @Column(name = "last_timestamp")
+    private Instant lastTimestamp;
+
+    @Column(name = "last_transaction_id")
+    private String lastTransactionId;
+
+    @Column(name = "transactions_expired")
+    private long transactionsExpired;
+
+    @Column(name = "transactions_failed")
+    private long transactionsFailed;
+
+    @Column(name = "points_expired")
+    private long pointsExpired;
+
+    @Column(name = "completed")
+    private boolean completed;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public ExpirationCheckpointEntity(String checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    public boolean hasPosition() {
+        return lastLoyaltyBankId != null && lastTimestamp != null && lastTransactionId != null;
+    }
+}
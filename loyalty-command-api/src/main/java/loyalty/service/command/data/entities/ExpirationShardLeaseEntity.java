@@ -0,0 +1,39 @@
+package loyalty.service.command.data.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "expiration_shard_lease")
+public class ExpirationShardLeaseEntity {
+
+    @Id
+    @NotNull(message = "ShardId cannot be null")
+    @Column(name = "shard_id", unique = true)
+    private String shardId;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @NotNull(message = "LeaseUntil cannot be null")
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    // Null until persisted, so creating a lease row always inserts and never merges over another node's lease
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    public ExpirationShardLeaseEntity(String shardId) {
+        this.shardId = shardId;
+        this.leaseUntil = Instant.EPOCH;
+    }
+}
@@ -6,9 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import loyalty.service.core.validation.ProjectionId;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Marks that a loyalty bank has an expiration ledger. The ledger itself is the set of {@link TransactionEntity} rows
+ * for the loyalty bank, read oldest first through the (loyalty_bank_id, timestamp) index.
+ */
 @Data
 @NoArgsConstructor
 @Entity
@@ -21,21 +22,7 @@ public class ExpirationTrackerEntity {
     @Column(name = "loyalty_bank_id", unique = true)
     private String loyaltyBankId;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name="loyalty_bank_id")
-    private List<TransactionEntity> transactionList = new ArrayList<>(); // TODO: maybe convert this to an ordered hash map to simplify addTransaction() method
-
     public ExpirationTrackerEntity(String loyaltyBankId) {
         this.loyaltyBankId = loyaltyBankId;
     }
-
-    public void addTransaction(TransactionEntity transactionEntity) {
-        // TODO: check that the loyalty bankId on the transaction entity matches the expiration tracker entity
-        // TODO: check that transaction doesn't already exist in list
-        transactionList.add(transactionEntity);
-    }
-
-    public void removeTransaction(TransactionEntity transactionEntity) {
-        transactionList.remove(transactionEntity);
-    }
 }
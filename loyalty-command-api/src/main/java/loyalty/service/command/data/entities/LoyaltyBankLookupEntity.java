@@ -3,6 +3,7 @@ package loyalty.service.command.data.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -14,7 +15,10 @@ import loyalty.service.core.validation.ProjectionId;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "loyalty_bank_lookup")
+@Table(name = "loyalty_bank_lookup", indexes = {
+        @Index(name = "idx_loyalty_bank_lookup_business_id_account_id", columnList = "business_id, account_id"),
+        @Index(name = "idx_loyalty_bank_lookup_account_id", columnList = "account_id")
+})
 public class LoyaltyBankLookupEntity {
 
     @Id
@@ -3,6 +3,7 @@ package loyalty.service.command.data.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -17,7 +18,9 @@ import static loyalty.service.core.constants.ExceptionMessages.CANNOT_VOID_MORE_
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "redemption_tracker")
+@Table(name = "redemption_tracker", indexes = {
+        @Index(name = "idx_redemption_tracker_loyalty_bank_id", columnList = "loyalty_bank_id")
+})
 public class RedemptionTrackerEntity {
 
     @Id
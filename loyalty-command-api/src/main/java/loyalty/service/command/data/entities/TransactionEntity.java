@@ -11,7 +11,10 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "idx_transaction_loyalty_bank_id_timestamp", columnList = "loyalty_bank_id, timestamp"),
+        @Index(name = "idx_transaction_timestamp", columnList = "timestamp")
+})
 public class TransactionEntity {
 
     @Id
@@ -30,7 +33,7 @@ public class TransactionEntity {
 
     @ProjectionId(message = "LoyaltyBankId should be valid")
     @NotNull(message = "LoyaltyBankId cannot be null")
-    @Column(name = "expiration_tracker_id")
+    @Column(name = "loyalty_bank_id")
     private String loyaltyBankId;
 
     public void addPoints(int points) {
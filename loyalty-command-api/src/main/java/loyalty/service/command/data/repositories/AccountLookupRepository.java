@@ -1,10 +1,27 @@
 package loyalty.service.command.data.repositories;
 
 import loyalty.service.command.data.entities.AccountLookupEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
+import static loyalty.service.command.config.LookupCacheConfig.ACCOUNT_LOOKUP_CACHE;
+
 public interface AccountLookupRepository extends JpaRepository<AccountLookupEntity, String> {
 
+    @Cacheable(cacheNames = ACCOUNT_LOOKUP_CACHE, unless = "#result == null")
     AccountLookupEntity findByAccountId(String accountId);
     AccountLookupEntity findByEmail(String email);
+    List<AccountLookupEntity> findByAccountIdGreaterThanOrderByAccountIdAsc(String accountId, Limit limit);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_LOOKUP_CACHE, key = "#p0.accountId")
+    <S extends AccountLookupEntity> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_LOOKUP_CACHE, key = "#p0.accountId")
+    void delete(AccountLookupEntity entity);
 }
@@ -1,9 +1,22 @@
 package loyalty.service.command.data.repositories;
 
 import loyalty.service.command.data.entities.BusinessLookupEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import static loyalty.service.command.config.LookupCacheConfig.BUSINESS_LOOKUP_CACHE;
+
 public interface BusinessLookupRepository extends JpaRepository<BusinessLookupEntity, String> {
 
+    @Cacheable(cacheNames = BUSINESS_LOOKUP_CACHE, unless = "#result == null")
     BusinessLookupEntity findByBusinessId(String businessId);
+
+    @Override
+    @CacheEvict(cacheNames = BUSINESS_LOOKUP_CACHE, key = "#p0.businessId")
+    <S extends BusinessLookupEntity> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = BUSINESS_LOOKUP_CACHE, key = "#p0.businessId")
+    void delete(BusinessLookupEntity entity);
 }
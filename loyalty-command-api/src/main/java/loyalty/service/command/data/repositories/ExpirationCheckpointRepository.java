@@ -0,0 +1,9 @@
+package loyalty.service.command.data.repositories;
+
+import loyalty.service.command.data.entities.ExpirationCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExpirationCheckpointRepository extends JpaRepository<ExpirationCheckpointEntity, String> {
+
+    ExpirationCheckpointEntity findByCheckpointId(String checkpointId);
+}
@@ -0,0 +1,25 @@
+package loyalty.service.command.data.repositories;
+
+import loyalty.service.command.data.entities.ExpirationShardLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ExpirationShardLeaseRepository extends JpaRepository<ExpirationShardLeaseEntity, String> {
+
+    // Takes the lease when it has expired or is already held by the owner, returning the number of rows updated
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExpirationShardLeaseEntity l SET l.owner = :owner, l.leaseUntil = :leaseUntil " +
+            "WHERE l.shardId = :shardId AND (l.leaseUntil < :now OR l.owner = :owner)")
+    int acquire(String shardId, String owner, Instant now, Instant leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExpirationShardLeaseEntity l SET l.owner = null, l.leaseUntil = :now " +
+            "WHERE l.shardId = :shardId AND l.owner = :owner")
+    int release(String shardId, String owner, Instant now);
+}
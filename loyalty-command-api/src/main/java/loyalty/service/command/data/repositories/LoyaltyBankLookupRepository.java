@@ -1,14 +1,28 @@
 package loyalty.service.command.data.repositories;
 
 import loyalty.service.command.data.entities.LoyaltyBankLookupEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
+import static loyalty.service.command.config.LookupCacheConfig.LOYALTY_BANK_LOOKUP_CACHE;
+
 public interface LoyaltyBankLookupRepository extends JpaRepository<LoyaltyBankLookupEntity, String> {
 
     LoyaltyBankLookupEntity findByLoyaltyBankId(String loyaltyBankId);
     List<LoyaltyBankLookupEntity> findByAccountId(String accountId);
     List<LoyaltyBankLookupEntity> findByBusinessId(String businessId);
+
+    @Cacheable(cacheNames = LOYALTY_BANK_LOOKUP_CACHE, key = "#p0 + ':' + #p1", unless = "#result == null")
     LoyaltyBankLookupEntity findByBusinessIdAndAccountId(String businessId, String accountId);
+
+    @Override
+    @CacheEvict(cacheNames = LOYALTY_BANK_LOOKUP_CACHE, key = "#p0.businessId + ':' + #p0.accountId")
+    <S extends LoyaltyBankLookupEntity> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = LOYALTY_BANK_LOOKUP_CACHE, key = "#p0.businessId + ':' + #p0.accountId")
+    void delete(LoyaltyBankLookupEntity entity);
 }
@@ -1,10 +1,12 @@
 package loyalty.service.command.data.repositories;
 
-import loyalty.service.command.data.entities.ExpirationTrackerEntity;
 import loyalty.service.command.data.entities.TransactionEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -14,8 +16,37 @@ public interface TransactionRepository extends JpaRepository<TransactionEntity,
 
     TransactionEntity findByTransactionId(String transactionId);
 
-    // Custom query to find transactions before a specific date
-    @Query("SELECT t FROM TransactionEntity t WHERE t.timestamp < :expirationDate")
-    List<TransactionEntity> findAllByTimestampBefore(Instant expirationDate);
-}
+    // Keyset pages of transactions before a specific date for a range of loyalty banks, ordered by
+    // (loyaltyBankId, timestamp, transactionId) so each bank's transactions are contiguous and oldest first
+    @Query("SELECT t FROM TransactionEntity t WHERE t.timestamp < :expirationDate " +
+            "AND t.loyaltyBankId >= :lowerBound AND t.loyaltyBankId < :upperBound " +
+            "ORDER BY t.loyaltyBankId, t.timestamp, t.transactionId")
+    List<TransactionEntity> findExpiredTransactions(Instant expirationDate, String lowerBound, String upperBound,
+                                                    Limit limit);
+
+    @Query("SELECT t FROM TransactionEntity t WHERE t.timestamp < :expirationDate " +
+            "AND t.loyaltyBankId >= :lowerBound AND t.loyaltyBankId < :upperBound " +
+            "AND (t.loyaltyBankId > :lastLoyaltyBankId OR (t.loyaltyBankId = :lastLoyaltyBankId " +
+            "AND (t.timestamp > :lastTimestamp OR (t.timestamp = :lastTimestamp AND t.transactionId > :lastTransactionId)))) " +
+            "ORDER BY t.loyaltyBankId, t.timestamp, t.transactionId")
+    List<TransactionEntity> findExpiredTransactionsAfter(Instant expirationDate, String lowerBound, String upperBound,
+                                                         String lastLoyaltyBankId, Instant lastTimestamp,
+                                                         String lastTransactionId, Limit limit);
+
+    // Oldest unconsumed transactions of a loyalty bank, read in order from the (loyalty_bank_id, timestamp) index.
+    // Consumed transactions are deleted, so the head of the index is the consumption cursor of the ledger
+    @Query("SELECT t FROM TransactionEntity t WHERE t.loyaltyBankId = :loyaltyBankId " +
+            "ORDER BY t.timestamp, t.transactionId")
+    List<TransactionEntity> findOldestTransactions(String loyaltyBankId, Limit limit);
 
+    @Query("SELECT t FROM TransactionEntity t WHERE t.loyaltyBankId = :loyaltyBankId " +
+            "AND (t.timestamp > :lastTimestamp OR (t.timestamp = :lastTimestamp AND t.transactionId > :lastTransactionId)) " +
+            "ORDER BY t.timestamp, t.transactionId")
+    List<TransactionEntity> findOldestTransactionsAfter(String loyaltyBankId, Instant lastTimestamp,
+                                                        String lastTransactionId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TransactionEntity t WHERE t.loyaltyBankId = :loyaltyBankId")
+    int deleteAllByLoyaltyBankId(String loyaltyBankId);
+}
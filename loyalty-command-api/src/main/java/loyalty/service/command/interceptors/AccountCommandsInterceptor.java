@@ -6,6 +6,7 @@ import loyalty.service.command.commands.DeleteAccountCommand;
 import loyalty.service.command.commands.UpdateAccountCommand;
 import loyalty.service.command.data.entities.AccountLookupEntity;
 import loyalty.service.command.data.repositories.AccountLookupRepository;
+import loyalty.service.command.service.AccountEmailFilter;
 import loyalty.service.core.exceptions.AccountNotFoundException;
 import loyalty.service.core.exceptions.EmailExistsForAccountException;
 import loyalty.service.core.utils.MarkerGenerator;
@@ -14,6 +15,7 @@ import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.slf4j.Marker;
 import org.springframework.stereotype.Component;
 
@@ -31,6 +33,7 @@ public class AccountCommandsInterceptor implements MessageDispatchInterceptor<Co
     private static final Logger LOGGER = LoggerFactory.getLogger(AccountCommandsInterceptor.class);
 
     private final AccountLookupRepository accountLookupRepository;
+    private final AccountEmailFilter accountEmailFilter;
 
     @Nonnull
     @Override
@@ -38,7 +41,7 @@ public class AccountCommandsInterceptor implements MessageDispatchInterceptor<Co
             @Nonnull List<? extends CommandMessage<?>> messages) {
         return (index, genericCommand) -> {
             String commandName = genericCommand.getPayloadType().getSimpleName();
-            LOGGER.debug(MarkerGenerator.generateMarker(genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
+            LOGGER.debug(MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
 
             if (CreateAccountCommand.class.equals(genericCommand.getPayloadType())) {
                 handleCreateAccountCommand((CreateAccountCommand) genericCommand.getPayload(), commandName);
@@ -68,6 +71,10 @@ public class AccountCommandsInterceptor implements MessageDispatchInterceptor<Co
     }
 
     private void throwExceptionIfEmailExists(String email, String requestId, String commandName) {
+        if (!accountEmailFilter.mightContain(email)) {
+            return;
+        }
+
         AccountLookupEntity accountLookupEntity = accountLookupRepository.findByEmail(email);
 
         if (accountLookupEntity != null) {
@@ -76,6 +83,10 @@ public class AccountCommandsInterceptor implements MessageDispatchInterceptor<Co
     }
 
     private void throwExceptionIfEmailExistsForAnotherAccount(String email, String accountId, String requestId, String commandName) {
+        if (!accountEmailFilter.mightContain(email)) {
+            return;
+        }
+
         AccountLookupEntity accountLookupEntity = accountLookupRepository.findByEmail(email);
         if (accountLookupEntity != null && !accountLookupEntity.getAccountId().equals(accountId)) {
             logAndThrowEmailExistsForAccountException(accountLookupEntity, requestId, commandName);
@@ -12,6 +12,7 @@ import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
@@ -35,7 +36,7 @@ public class BusinessCommandsInterceptor implements MessageDispatchInterceptor<C
             @Nonnull List<? extends CommandMessage<?>> messages) {
         return (index, genericCommand) -> {
             String commandName = genericCommand.getPayloadType().getSimpleName();
-            LOGGER.debug(MarkerGenerator.generateMarker(genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
+            LOGGER.debug(MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
 
             if (UpdateBusinessCommand.class.equals(genericCommand.getPayloadType())) {
                 handleUpdateBusinessCommand((UpdateBusinessCommand) genericCommand.getPayload(), commandName);
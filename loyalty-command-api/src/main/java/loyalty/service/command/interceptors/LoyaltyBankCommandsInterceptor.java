@@ -17,6 +17,7 @@ import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
@@ -42,7 +43,7 @@ public class LoyaltyBankCommandsInterceptor implements MessageDispatchIntercepto
             @Nonnull List<? extends CommandMessage<?>> messages) {
         return (index, genericCommand) -> {
             String commandName = genericCommand.getPayloadType().getSimpleName();
-            LOGGER.debug(MarkerGenerator.generateMarker(genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
+            LOGGER.debug(MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
 
             if (CreateLoyaltyBankCommand.class.equals(genericCommand.getPayloadType())) {
                 handleCreateLoyaltyBankCommand((CreateLoyaltyBankCommand) genericCommand.getPayload(), commandName);
@@ -14,6 +14,7 @@ import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.slf4j.Marker;
 import org.springframework.stereotype.Component;
 
@@ -38,7 +39,7 @@ public class TransactionCommandsInterceptor implements MessageDispatchIntercepto
             @Nonnull List<? extends CommandMessage<?>> messages) {
         return (index, genericCommand) -> {
             String commandName = genericCommand.getPayloadType().getSimpleName();
-            LOGGER.debug(MarkerGenerator.generateMarker(genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
+            LOGGER.debug(MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, genericCommand.getPayload()), INTERCEPTED_COMMAND, commandName);
 
             if (CreateVoidTransactionCommand.class.equals(genericCommand.getPayloadType())) {
                 handleCreateVoidTransactionCommand((CreateVoidTransactionCommand) genericCommand.getPayload(), commandName);
@@ -6,6 +6,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Component
@@ -14,10 +15,12 @@ public class ExpirePointsJob {
     @Autowired
     PointExpirationService pointExpirationService;
 
+    // Runs on every instance; shard leases make sure each shard is expired by only one of them. The cutoff is
+    // truncated to the day so every instance computes the same one and skips shards another instance completed.
     @Scheduled(cron = "0 0 0 * * ?")
     public void checkExpiredTransactions() {
         pointExpirationService.expireTransactionsBeforeDate(
-                Instant.now().minus(30, java.time.temporal.ChronoUnit.DAYS),
+                Instant.now().truncatedTo(ChronoUnit.DAYS).minus(30, ChronoUnit.DAYS),
                 UUID.randomUUID().toString()
         );
     }
@@ -0,0 +1,35 @@
+package loyalty.service.command.projections;
+
+import loyalty.service.command.service.AccountEmailFilter;
+import loyalty.service.core.events.account.AccountCreatedEvent;
+import loyalty.service.core.events.account.AccountEmailChangedEvent;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.springframework.stereotype.Component;
+
+import static loyalty.service.core.constants.DomainConstants.ACCOUNT_EMAIL_FILTER_GROUP;
+
+/**
+ * Adds new emails to the account email filter. The processing group tracks the event store on every instance with an
+ * in-memory token, so each instance's filter sees every email and not only those of the lookup segments it owns.
+ */
+@Component
+@ProcessingGroup(ACCOUNT_EMAIL_FILTER_GROUP)
+public class AccountEmailFilterEventsHandler {
+
+    private final AccountEmailFilter accountEmailFilter;
+
+    public AccountEmailFilterEventsHandler(AccountEmailFilter accountEmailFilter) {
+        this.accountEmailFilter = accountEmailFilter;
+    }
+
+    @EventHandler
+    public void on(AccountCreatedEvent event) {
+        accountEmailFilter.put(event.getEmail());
+    }
+
+    @EventHandler
+    public void on(AccountEmailChangedEvent event) {
+        accountEmailFilter.put(event.getNewEmail());
+    }
+}
@@ -72,7 +72,7 @@ public class AccountLookupEventsHandler {
     public void on(AccountEmailChangedEvent event) {
         marker = Markers.append(REQUEST_ID, event.getRequestId());
 
-        AccountLookupEntity accountLookupEntity = accountLookupRepository.findByAccountId(event.getAccountId());
+        AccountLookupEntity accountLookupEntity = accountLookupRepository.findById(event.getAccountId()).orElse(null);
         throwExceptionIfEntityDoesNotExist(accountLookupEntity, String.format(ACCOUNT_WITH_ID_DOES_NOT_EXIST, event.getAccountId()));
 
         accountLookupEntity.setEmail(event.getNewEmail());
@@ -89,7 +89,7 @@ public class AccountLookupEventsHandler {
     public void on(AccountDeletedEvent event) {
         marker = Markers.append(REQUEST_ID, event.getRequestId());
 
-        AccountLookupEntity accountLookupEntity = accountLookupRepository.findByAccountId(event.getAccountId());
+        AccountLookupEntity accountLookupEntity = accountLookupRepository.findById(event.getAccountId()).orElse(null);
         throwExceptionIfEntityDoesNotExist(accountLookupEntity, String.format(ACCOUNT_WITH_ID_DOES_NOT_EXIST, event.getAccountId()));
 
         marker.add(MarkerGenerator.generateMarker(accountLookupEntity));
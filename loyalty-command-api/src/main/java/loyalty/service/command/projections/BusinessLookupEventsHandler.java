@@ -73,7 +73,7 @@ public class BusinessLookupEventsHandler {
     public void on(BusinessNameChangedEvent event) {
         marker = Markers.append(REQUEST_ID, event.getRequestId());
 
-        BusinessLookupEntity businessLookupEntity = businessLookupRepository.findByBusinessId(event.getBusinessId());
+        BusinessLookupEntity businessLookupEntity = businessLookupRepository.findById(event.getBusinessId()).orElse(null);
         throwExceptionIfEntityDoesNotExist(businessLookupEntity, String.format(BUSINESS_WITH_ID_DOES_NOT_EXIST, event.getBusinessId()));
         BeanUtils.copyProperties(event, businessLookupEntity);
 
@@ -89,7 +89,7 @@ public class BusinessLookupEventsHandler {
     public void on(BusinessDeletedEvent event) {
         marker = Markers.append(REQUEST_ID, event.getRequestId());
 
-        BusinessLookupEntity businessLookupEntity = businessLookupRepository.findByBusinessId(event.getBusinessId());
+        BusinessLookupEntity businessLookupEntity = businessLookupRepository.findById(event.getBusinessId()).orElse(null);
         throwExceptionIfEntityDoesNotExist(businessLookupEntity, String.format(BUSINESS_WITH_ID_DOES_NOT_EXIST, event.getBusinessId()));
 
         marker.add(MarkerGenerator.generateMarker(businessLookupEntity));
@@ -19,13 +19,16 @@ import org.axonframework.messaging.interceptors.ExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.SmartValidator;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static loyalty.service.core.constants.DomainConstants.*;
 import static loyalty.service.core.constants.ExceptionMessages.*;
@@ -43,6 +46,9 @@ public class ExpirationTrackerEventsHandler {
     private final SmartValidator validator;
     private Marker marker = null;
 
+    // Number of ledger transactions read at a time while applying authorized points, oldest first
+    private static final int CONSUMPTION_PAGE_SIZE = 20;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpirationTrackerEventsHandler.class);
 
     public ExpirationTrackerEventsHandler(ExpirationTrackerRepository expirationTrackerRepository, TransactionRepository transactionRepository, SmartValidator validator) {
@@ -95,9 +101,7 @@ public class ExpirationTrackerEventsHandler {
         ExpirationTrackerEntity expirationTrackerEntity = expirationTrackerRepository.findByLoyaltyBankId(loyaltyBankId);
         throwExceptionIfExpirationTrackerDoesNotExist(expirationTrackerEntity, loyaltyBankId);
 
-        applyPointsToTransactions(event.getPoints(), expirationTrackerEntity);
-        validateEntity(expirationTrackerEntity);
-        expirationTrackerRepository.save(expirationTrackerEntity);
+        applyPointsToTransactions(event.getPoints(), loyaltyBankId);
 
         marker = generateMarker(event);
 
@@ -112,7 +116,9 @@ public class ExpirationTrackerEventsHandler {
         ExpirationTrackerEntity expirationTrackerEntity = expirationTrackerRepository.findByLoyaltyBankId(loyaltyBankId);
         throwExceptionIfExpirationTrackerDoesNotExist(expirationTrackerEntity, loyaltyBankId);
 
-        if (expirationTrackerEntity.getTransactionList().isEmpty()) {
+        List<TransactionEntity> oldestTransactions = transactionRepository.findOldestTransactions(loyaltyBankId, Limit.of(1));
+
+        if (oldestTransactions.isEmpty()) {
             String transactionId = event.getRequestId();
             TransactionEntity transactionEntity = new TransactionEntity(transactionId, event.getPoints(), eventTimeStamp, loyaltyBankId);
 
@@ -122,19 +128,18 @@ public class ExpirationTrackerEventsHandler {
             transactionMarker.add(generateMarker(transactionEntity));
             LOGGER.info(transactionMarker, CREATING_NEW_TRANSACTION_FOR_EXPIRATION_TRACKER, transactionId, loyaltyBankId);
 
-            expirationTrackerEntity.getTransactionList().add(transactionEntity);
+            transactionRepository.save(transactionEntity);
         } else {
-            TransactionEntity transactionEntity = expirationTrackerEntity.getTransactionList().get(0);
+            TransactionEntity transactionEntity = oldestTransactions.get(0);
             transactionEntity.addPoints(event.getPoints());
             validateEntity(transactionEntity);
 
             Marker transactionMarker = Markers.append(REQUEST_ID, event.getRequestId());
             transactionMarker.add(generateMarker(transactionEntity));
             LOGGER.info(transactionMarker, ADDING_POINTS_TO_OLDEST_TRANSACTION, transactionEntity.getTransactionId(), loyaltyBankId);
-        }
 
-        validateEntity(expirationTrackerEntity);
-        expirationTrackerRepository.save(expirationTrackerEntity);
+            transactionRepository.save(transactionEntity);
+        }
 
         marker.add(generateMarker(expirationTrackerEntity));
 
@@ -163,26 +168,56 @@ public class ExpirationTrackerEventsHandler {
         LOGGER.info(marker, "Removed transaction for loyalty bank {} due to expiration", loyaltyBankId);
     }
 
+    @EventHandler
+    public void on(BatchExpiredTransactionCreatedEvent event) {
+        marker = Markers.append(REQUEST_ID, event.getRequestId());
+
+        String loyaltyBankId = event.getLoyaltyBankId();
+        Map<String, Integer> targetTransactions = event.getTargetTransactions();
+
+        List<TransactionEntity> transactionEntities = transactionRepository.findAllById(targetTransactions.keySet());
+
+        if (transactionEntities.size() != targetTransactions.size()) {
+            LOGGER.error(
+                    marker,
+                    "Only {} of {} expired transactions found for loyalty bank {}",
+                    transactionEntities.size(), targetTransactions.size(), loyaltyBankId
+            );
+        }
+
+        for (TransactionEntity transactionEntity : transactionEntities) {
+            if (transactionEntity.getPoints() != targetTransactions.get(transactionEntity.getTransactionId())) {
+                Marker transactionMarker = Markers.append(REQUEST_ID, event.getRequestId());
+                transactionMarker.add(generateMarker(transactionEntity));
+                LOGGER.error(transactionMarker, "Points expired do not match transaction");
+            }
+        }
+
+        transactionRepository.deleteAllInBatch(transactionEntities);
+
+        LOGGER.info(marker, "Removed {} transactions for loyalty bank {} due to expiration", transactionEntities.size(), loyaltyBankId);
+    }
+
     @EventHandler
     public void on(AllPointsExpiredEvent event) {
         marker = Markers.append(REQUEST_ID,event.getRequestId());
 
         String loyaltyBankId = event.getLoyaltyBankId();
         ExpirationTrackerEntity expirationTrackerEntity = expirationTrackerRepository.findByLoyaltyBankId(loyaltyBankId);
-        // TODO: BUG clearing transaction list doesn't remove transactions from table in db
-        expirationTrackerEntity.getTransactionList().clear();
-        validateEntity(expirationTrackerEntity);
-        expirationTrackerRepository.save(expirationTrackerEntity);
+        throwExceptionIfExpirationTrackerDoesNotExist(expirationTrackerEntity, loyaltyBankId);
+
+        int transactionsCleared = transactionRepository.deleteAllByLoyaltyBankId(loyaltyBankId);
 
         marker.add(generateMarker(expirationTrackerEntity));
 
-        LOGGER.info(marker, "Transactions cleared for loyalty bank {}", loyaltyBankId);
+        LOGGER.info(marker, "{} transactions cleared for loyalty bank {}", transactionsCleared, loyaltyBankId);
     }
 
     @EventHandler
     public void on(LoyaltyBankDeletedEvent event) {
         ExpirationTrackerEntity expirationTrackerEntity = expirationTrackerRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
         throwExceptionIfEntityDoesNotExist(expirationTrackerEntity, String.format(EXPIRATION_TRACKER_FOR_LOYALTY_BANK_WITH_ID_DOES_NOT_EXIST, event.getLoyaltyBankId()));
+        transactionRepository.deleteAllByLoyaltyBankId(expirationTrackerEntity.getLoyaltyBankId());
         expirationTrackerRepository.delete(expirationTrackerEntity);
 
         LOGGER.info(
@@ -200,28 +235,35 @@ public class ExpirationTrackerEventsHandler {
 
         TransactionEntity transactionEntity = new TransactionEntity(event.getRequestId(), event.getPoints(), eventTimestamp, loyaltyBankId);
         validateEntity(transactionEntity);
-        expirationTrackerEntity.addTransaction(transactionEntity);
-        validateEntity(expirationTrackerEntity);
-        expirationTrackerRepository.save(expirationTrackerEntity);
+        transactionRepository.save(transactionEntity);
 
         marker.add(generateMarker(transactionEntity));
 
         LOGGER.info(marker, TRANSACTION_ENTITY_CREATED_FOR_LOYALTY_BANK, loyaltyBankId);
     }
 
-    private void applyPointsToTransactions(int points, ExpirationTrackerEntity expirationTrackerEntity) {
+    // Consumes the loyalty bank's oldest transactions a page at a time, deleting the ones fully used and updating the
+    // one left partially used, so only the transactions actually consumed are read and written
+    private void applyPointsToTransactions(int points, String loyaltyBankId) {
+        List<TransactionEntity> usedTransactions = new ArrayList<>();
+        List<TransactionEntity> page = transactionRepository.findOldestTransactions(loyaltyBankId, Limit.of(CONSUMPTION_PAGE_SIZE));
+        int index = 0;
+
         while (points > 0) {
-            List<TransactionEntity> transactions = expirationTrackerEntity.getTransactionList();
+            if (index == page.size()) {
+                page = page.size() < CONSUMPTION_PAGE_SIZE ? List.of() : findNextPage(loyaltyBankId, page);
+                index = 0;
+            }
 
-            if (transactions.isEmpty()) {
+            if (page.isEmpty()) {
                 String exceptionMessage = String.format(
                         AUTHORIZED_MORE_POINTS_THAN_EARNED_CANNOT_PROCESS_AUTHORIZATION_EVENT_FOR_EXPIRATION_TRACKER,
-                        expirationTrackerEntity.getLoyaltyBankId()
+                        loyaltyBankId
                 );
                 throw new IllegalProjectionStateException(exceptionMessage);
             }
 
-            TransactionEntity oldestTransaction = expirationTrackerEntity.getTransactionList().get(0);
+            TransactionEntity oldestTransaction = page.get(index++);
             String transactionId = oldestTransaction.getTransactionId();
             int transactionPoints = oldestTransaction.getPoints();
 
@@ -236,9 +278,21 @@ public class ExpirationTrackerEventsHandler {
 
             if (transactionPoints <= 0) {
                 LOGGER.info(marker, ALL_POINTS_USED_FOR_TRANSACTION_REMOVING_TRANSACTION_FROM_EXPIRATION_TRACKER, transactionId);
-                expirationTrackerEntity.removeTransaction(oldestTransaction);
+                usedTransactions.add(oldestTransaction);
+            } else {
+                validateEntity(oldestTransaction);
+                transactionRepository.save(oldestTransaction);
             }
         }
+
+        transactionRepository.deleteAllInBatch(usedTransactions);
+    }
+
+    private List<TransactionEntity> findNextPage(String loyaltyBankId, List<TransactionEntity> page) {
+        TransactionEntity last = page.get(page.size() - 1);
+        return transactionRepository.findOldestTransactionsAfter(
+                loyaltyBankId, last.getTimestamp(), last.getTransactionId(), Limit.of(CONSUMPTION_PAGE_SIZE)
+        );
     }
 
     private void validateEntity(ExpirationTrackerEntity entity) {
@@ -12,6 +12,7 @@ import loyalty.service.command.rest.requests.DeleteAccountRequestModel;
 import loyalty.service.command.rest.requests.UpdateAccountRequestModel;
 import loyalty.service.command.rest.responses.AccountAndLoyaltyBankCreatedResponseModel;
 import loyalty.service.command.rest.responses.AccountCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
 import loyalty.service.core.events.AccountAndLoyaltyBankCreationStartedEvent;
 import loyalty.service.core.utils.MarkerGenerator;
 import org.axonframework.commandhandling.gateway.CommandGateway;
@@ -23,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static loyalty.service.core.constants.LogMessages.PUBLISHING_EVENT_FOR_ACCOUNT;
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_ACCOUNT;
@@ -35,6 +37,9 @@ public class AccountCommandController {
     @Autowired
     private CommandGateway commandGateway;
 
+    @Autowired
+    private ConsistencyTokens consistencyTokens;
+
     @Autowired
     private EventGateway eventGateway;
 
@@ -64,7 +69,9 @@ public class AccountCommandController {
 
         // TODO: figure out how to make sure the account and bank are actually created before sending the response
         //  - Idea: create a service/validation class that will check the lookup tables to make sure the event is valid before publishing
+        //  - The consistency token only covers the started event, the saga creates the account and bank afterwards
         eventGateway.publish(event);
+        consistencyTokens.addToResponse();
 
         return AccountAndLoyaltyBankCreatedResponseModel.builder()
                 .accountId(accountId)
@@ -76,7 +83,7 @@ public class AccountCommandController {
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create account")
-    public AccountCreatedResponseModel createAccount(@Valid @RequestBody CreateAccountRequestModel request) {
+    public CompletableFuture<AccountCreatedResponseModel> createAccount(@Valid @RequestBody CreateAccountRequestModel request) {
         String requestId = UUID.randomUUID().toString();
         CreateAccountCommand command = CreateAccountCommand.builder()
                 .requestId(requestId)
@@ -91,19 +98,18 @@ public class AccountCommandController {
                 SENDING_COMMAND_FOR_ACCOUNT, command.getClass().getSimpleName(), command.getAccountId()
         );
 
-        String accountId = commandGateway.sendAndWait(command);
-
-        return AccountCreatedResponseModel.builder()
-                .requestId(requestId)
-                .accountId(accountId)
-                .build();
+        return consistencyTokens.afterCommand(commandGateway.<String>send(command))
+                .thenApply(accountId -> AccountCreatedResponseModel.builder()
+                        .requestId(requestId)
+                        .accountId(accountId)
+                        .build());
     }
 
     @PutMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Update account")
-    public void updateAccount(@Valid @RequestBody UpdateAccountRequestModel request) {
+    public CompletableFuture<Void> updateAccount(@Valid @RequestBody UpdateAccountRequestModel request) {
         UpdateAccountCommand command = UpdateAccountCommand.builder()
                 .requestId(UUID.randomUUID().toString())
                 .accountId(request.getAccountId())
@@ -117,14 +123,14 @@ public class AccountCommandController {
                 SENDING_COMMAND_FOR_ACCOUNT, command.getClass().getSimpleName(), command.getAccountId()
         );
 
-        commandGateway.sendAndWait(command);
+        return consistencyTokens.afterCommand(commandGateway.send(command));
     }
 
     @DeleteMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete account")
-    public void deleteAccount(@Valid @RequestBody DeleteAccountRequestModel request) {
+    public CompletableFuture<Void> deleteAccount(@Valid @RequestBody DeleteAccountRequestModel request) {
         DeleteAccountCommand command = DeleteAccountCommand.builder()
                 .requestId(UUID.randomUUID().toString())
                 .accountId(request.getAccountId())
@@ -135,6 +141,6 @@ public class AccountCommandController {
                 SENDING_COMMAND_FOR_ACCOUNT, command.getClass().getSimpleName(), command.getAccountId()
         );
 
-        commandGateway.sendAndWait(command);
+        return consistencyTokens.afterCommand(commandGateway.send(command));
     }
 }
\ No newline at end of file
@@ -18,6 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 import static loyalty.service.core.constants.LogMessages.PUBLISHING_EVENT_FOR_REQUEST;
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_REQUEST;
 
@@ -56,7 +58,7 @@ public class AdminController {
     @ResponseBody
     @ResponseStatus(HttpStatus.ACCEPTED)
     @Operation(summary = "Issues RollbackAccountCreationCommand")
-    public void sendRollbackAccountCreationCommand(
+    public CompletableFuture<Void> sendRollbackAccountCreationCommand(
             @Valid @RequestBody RollbackAccountCreationCommandRequestModel request) {
         RollbackAccountCreationCommand command = RollbackAccountCreationCommand.builder()
                 .requestId(request.getRequestId())
@@ -68,14 +70,14 @@ public class AdminController {
                 SENDING_COMMAND_FOR_REQUEST, command.getClass().getSimpleName(), command.getRequestId()
         );
 
-        commandGateway.sendAndWait(command);
+        return commandGateway.send(command);
     }
 
     @PostMapping(path = "/RollbackLoyaltyBankCreationCommand")
     @ResponseBody
     @ResponseStatus(HttpStatus.ACCEPTED)
     @Operation(summary = "Issues RollbackLoyaltyBankCreationCommand")
-    public void sendRollbackLoyaltyBankCreationCommand(
+    public CompletableFuture<Void> sendRollbackLoyaltyBankCreationCommand(
             @Valid @RequestBody RollbackLoyaltyBankCreationCommandRequestModel request) {
         RollbackLoyaltyBankCreationCommand command = RollbackLoyaltyBankCreationCommand.builder()
                 .requestId(request.getRequestId())
@@ -87,6 +89,6 @@ public class AdminController {
                 SENDING_COMMAND_FOR_REQUEST, command.getClass().getSimpleName(), command.getRequestId()
         );
 
-        commandGateway.sendAndWait(command);
+        return commandGateway.send(command);
     }
 }
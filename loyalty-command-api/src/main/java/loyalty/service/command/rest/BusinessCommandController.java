@@ -10,6 +10,7 @@ import loyalty.service.command.rest.requests.DeleteBusinessRequestModel;
 import loyalty.service.command.rest.requests.CreateBusinessRequestModel;
 import loyalty.service.command.rest.requests.UpdateBusinessRequestModel;
 import loyalty.service.command.rest.responses.BusinessCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
 import loyalty.service.core.utils.MarkerGenerator;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.slf4j.Logger;
@@ -19,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_BUSINESS;
 
@@ -30,13 +32,16 @@ public class BusinessCommandController {
     @Autowired
     private CommandGateway commandGateway;
 
+    @Autowired
+    private ConsistencyTokens consistencyTokens;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(BusinessCommandController.class);
 
     @PostMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create business")
-    public BusinessCreatedResponseModel createBusiness(@Valid @RequestBody CreateBusinessRequestModel request) {
+    public CompletableFuture<BusinessCreatedResponseModel> createBusiness(@Valid @RequestBody CreateBusinessRequestModel request) {
         CreateBusinessCommand command = CreateBusinessCommand.builder()
                 .requestId(UUID.randomUUID().toString())
                 .businessId(UUID.randomUUID().toString())
@@ -48,16 +53,15 @@ public class BusinessCommandController {
                 SENDING_COMMAND_FOR_BUSINESS, command.getClass().getSimpleName(), command.getBusinessId()
         );
 
-        String businessId = commandGateway.sendAndWait(command);
-
-        return BusinessCreatedResponseModel.builder().businessId(businessId).build();
+        return consistencyTokens.afterCommand(commandGateway.<String>send(command))
+                .thenApply(businessId -> BusinessCreatedResponseModel.builder().businessId(businessId).build());
     }
 
     @PutMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Update business")
-    public void updateBusiness(@Valid @RequestBody UpdateBusinessRequestModel request) {
+    public CompletableFuture<Void> updateBusiness(@Valid @RequestBody UpdateBusinessRequestModel request) {
         UpdateBusinessCommand command = UpdateBusinessCommand.builder()
                 .requestId(UUID.randomUUID().toString())
                 .businessId(request.getBusinessId())
@@ -69,14 +73,14 @@ public class BusinessCommandController {
                 SENDING_COMMAND_FOR_BUSINESS, command.getClass().getSimpleName(), command.getBusinessId()
         );
 
-        commandGateway.sendAndWait(command);
+        return consistencyTokens.afterCommand(commandGateway.send(command));
     }
 
     @DeleteMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete business")
-    public void deleteBusiness(@Valid @RequestBody DeleteBusinessRequestModel request) {
+    public CompletableFuture<Void> deleteBusiness(@Valid @RequestBody DeleteBusinessRequestModel request) {
         DeleteBusinessCommand command = DeleteBusinessCommand.builder()
                 .requestId(UUID.randomUUID().toString())
                 .businessId(request.getBusinessId())
@@ -87,6 +91,6 @@ public class BusinessCommandController {
                 SENDING_COMMAND_FOR_BUSINESS, command.getClass().getSimpleName(), command.getBusinessId()
         );
 
-        commandGateway.sendAndWait(command);
+        return consistencyTokens.afterCommand(commandGateway.send(command));
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import loyalty.service.command.commands.transactions.CreatePendingTransactionCommand;
 import loyalty.service.command.rest.requests.CreateLoyaltyTransactionRequestModel;
+import loyalty.service.command.rest.responses.PointExpirationStartedResponseModel;
 import loyalty.service.command.rest.responses.TransactionCreatedResponseModel;
 import loyalty.service.command.service.PointExpirationService;
 import net.logstash.logback.marker.Markers;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,9 +33,13 @@ public class ExpirationController {
     @Autowired
     private PointExpirationService pointExpirationService;
 
+    /**
+     * Starts the expiration in the background and answers with its request id, since a run over every shard outlasts
+     * any request timeout. The summary of the run is logged with the request id once it completes.
+     */
     @PostMapping()
     @Operation(summary = "Expire transactions before the passed date")
-    public ResponseEntity<String> expireTransactions(
+    public ResponseEntity<Object> expireTransactions(
             @RequestParam("date")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
@@ -44,8 +50,13 @@ public class ExpirationController {
 
         LOGGER.info(Markers.append(REQUEST_ID, requestId), "Expiring transactions before {}", expirationDate);
 
-        pointExpirationService.expireTransactionsBeforeDate(expirationDate, requestId);
+        if (!pointExpirationService.startExpiration(expirationDate, requestId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Point expiration already in progress");
+        }
 
-        return ResponseEntity.ok("Request to expire transactions before " + expirationDate + " sent");
+        return ResponseEntity.accepted().body(PointExpirationStartedResponseModel.builder()
+                .requestId(requestId)
+                .expirationDate(expirationDate)
+                .build());
     }
 }
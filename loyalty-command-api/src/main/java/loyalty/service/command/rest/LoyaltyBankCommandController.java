@@ -8,6 +8,7 @@ import loyalty.service.command.commands.DeleteLoyaltyBankCommand;
 import loyalty.service.command.rest.requests.CreateLoyaltyBankRequestModel;
 import loyalty.service.command.rest.requests.DeleteLoyaltyBankRequestModel;
 import loyalty.service.command.rest.responses.LoyaltyBankCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
 import loyalty.service.core.events.LoyaltyBankDeletionStartedEvent;
 import loyalty.service.core.utils.MarkerGenerator;
 import org.axonframework.commandhandling.gateway.CommandGateway;
@@ -20,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static loyalty.service.core.constants.LogMessages.PUBLISHING_EVENT_FOR_LOYALTY_BANK;
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_LOYALTY_BANK;
@@ -33,6 +35,8 @@ public class LoyaltyBankCommandController {
     @Autowired
     private CommandGateway commandGateway;
     @Autowired
+    private ConsistencyTokens consistencyTokens;
+    @Autowired
     private EventGateway eventGateway;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyBankCommandController.class);
@@ -41,7 +45,7 @@ public class LoyaltyBankCommandController {
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create loyalty bank")
-    public LoyaltyBankCreatedResponseModel createLoyaltyBank(@Valid @RequestBody CreateLoyaltyBankRequestModel request) {
+    public CompletableFuture<LoyaltyBankCreatedResponseModel> createLoyaltyBank(@Valid @RequestBody CreateLoyaltyBankRequestModel request) {
 
         CreateLoyaltyBankCommand command = CreateLoyaltyBankCommand.builder()
                 .requestId(UUID.randomUUID().toString())
@@ -55,9 +59,8 @@ public class LoyaltyBankCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        String loyaltyBankId = commandGateway.sendAndWait(command);
-
-        return LoyaltyBankCreatedResponseModel.builder().loyaltyBankId(loyaltyBankId).build();
+        return consistencyTokens.afterCommand(commandGateway.<String>send(command))
+                .thenApply(loyaltyBankId -> LoyaltyBankCreatedResponseModel.builder().loyaltyBankId(loyaltyBankId).build());
     }
 
     @DeleteMapping
@@ -77,5 +80,6 @@ public class LoyaltyBankCommandController {
         );
 
         eventGateway.publish(event);
+        consistencyTokens.addToResponse();
     }
 }
@@ -5,9 +5,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import loyalty.service.command.commands.transactions.*;
 import loyalty.service.command.rest.requests.CreateLoyaltyRedemptionTransactionRequestModel;
+import loyalty.service.command.rest.requests.CreateLoyaltyTransactionBatchRequestModel;
 import loyalty.service.command.rest.requests.CreateLoyaltyTransactionRequestModel;
 import loyalty.service.command.rest.responses.RedemptionTransactionCreatedResponseModel;
+import loyalty.service.command.rest.responses.TransactionBatchCreatedResponseModel;
 import loyalty.service.command.rest.responses.TransactionCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
+import loyalty.service.command.service.TransactionBatchService;
 import loyalty.service.core.utils.MarkerGenerator;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.slf4j.Logger;
@@ -17,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_LOYALTY_BANK;
 
@@ -28,13 +33,19 @@ public class LoyaltyTransactionsCommandController {
     @Autowired
     private CommandGateway commandGateway;
 
+    @Autowired
+    private ConsistencyTokens consistencyTokens;
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyTransactionsCommandController.class);
 
     @PostMapping("/pending")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create pending transaction")
-    public TransactionCreatedResponseModel createPendingTransaction(
+    public CompletableFuture<TransactionCreatedResponseModel> createPendingTransaction(
             @Valid @RequestBody CreateLoyaltyTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
 
@@ -49,16 +60,15 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
-
-        return TransactionCreatedResponseModel.builder().requestId(requestId).build();
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> TransactionCreatedResponseModel.builder().requestId(requestId).build());
     }
 
     @PostMapping("/earn")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create earned transaction")
-    public TransactionCreatedResponseModel createEarnedTransaction(
+    public CompletableFuture<TransactionCreatedResponseModel> createEarnedTransaction(
             @Valid @RequestBody CreateLoyaltyTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
 
@@ -73,16 +83,15 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
-
-        return TransactionCreatedResponseModel.builder().requestId(requestId).build();
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> TransactionCreatedResponseModel.builder().requestId(requestId).build());
     }
 
     @PostMapping("/award")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create awarded transaction")
-    public TransactionCreatedResponseModel createAwardedTransaction(
+    public CompletableFuture<TransactionCreatedResponseModel> createAwardedTransaction(
             @Valid @RequestBody CreateLoyaltyTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
 
@@ -97,16 +106,15 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
-
-        return TransactionCreatedResponseModel.builder().requestId(requestId).build();
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> TransactionCreatedResponseModel.builder().requestId(requestId).build());
     }
 
     @PostMapping("/authorize")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create authorize transaction")
-    public RedemptionTransactionCreatedResponseModel createAuthorizeTransaction(
+    public CompletableFuture<RedemptionTransactionCreatedResponseModel> createAuthorizeTransaction(
             @Valid @RequestBody CreateLoyaltyTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
         String paymentId = UUID.randomUUID().toString();
@@ -123,16 +131,15 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
-
-        return RedemptionTransactionCreatedResponseModel.builder().requestId(requestId).paymentId(paymentId).build();
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> RedemptionTransactionCreatedResponseModel.builder().requestId(requestId).paymentId(paymentId).build());
     }
 
     @PostMapping("/void")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create void transaction")
-    public TransactionCreatedResponseModel createVoidTransaction(
+    public CompletableFuture<TransactionCreatedResponseModel> createVoidTransaction(
             @Valid @RequestBody CreateLoyaltyRedemptionTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
 
@@ -148,16 +155,15 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
-
-        return TransactionCreatedResponseModel.builder().requestId(requestId).build();
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> TransactionCreatedResponseModel.builder().requestId(requestId).build());
     }
 
     @PostMapping("/capture")
     @ResponseBody
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create capture transaction")
-    public TransactionCreatedResponseModel createCaptureTransaction(
+    public CompletableFuture<TransactionCreatedResponseModel> createCaptureTransaction(
             @Valid @RequestBody CreateLoyaltyRedemptionTransactionRequestModel request) {
         String requestId = UUID.randomUUID().toString();
 
@@ -173,8 +179,16 @@ public class LoyaltyTransactionsCommandController {
                 SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
         );
 
-        commandGateway.sendAndWait(command);
+        return consistencyTokens.afterCommand(commandGateway.send(command))
+                .thenApply(result -> TransactionCreatedResponseModel.builder().requestId(requestId).build());
+    }
 
-        return TransactionCreatedResponseModel.builder().requestId(requestId).build();
+    @PostMapping("/batch")
+    @ResponseBody
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Create a batch of pending, earned and awarded transactions")
+    public CompletableFuture<TransactionBatchCreatedResponseModel> createTransactionBatch(
+            @Valid @RequestBody CreateLoyaltyTransactionBatchRequestModel request) {
+        return consistencyTokens.afterCommand(transactionBatchService.createTransactions(request.getTransactions()));
     }
-}
\ No newline at end of file
+}
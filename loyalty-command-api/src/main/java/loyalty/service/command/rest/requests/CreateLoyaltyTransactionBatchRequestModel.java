@@ -0,0 +1,20 @@
+package loyalty.service.command.rest.requests;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateLoyaltyTransactionBatchRequestModel {
+
+    @NotEmpty(message = "transactions is a required field")
+    @Size(max = 10000, message = "transactions cannot contain more than 10000 entries")
+    private List<@Valid LoyaltyTransactionBatchItemRequestModel> transactions;
+}
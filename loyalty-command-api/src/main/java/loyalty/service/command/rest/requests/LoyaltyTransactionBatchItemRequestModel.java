@@ -0,0 +1,24 @@
+package loyalty.service.command.rest.requests;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import loyalty.service.command.rest.requests.enums.BatchTransactionType;
+import loyalty.service.core.validation.NonZeroPoints;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyTransactionBatchItemRequestModel {
+
+    @NotNull(message = "type is a required field")
+    private BatchTransactionType type;
+
+    @NotBlank(message = "loyaltyBankId is a required field")
+    private String loyaltyBankId;
+
+    @NonZeroPoints
+    private int points;
+}
@@ -0,0 +1,7 @@
+package loyalty.service.command.rest.requests.enums;
+
+public enum BatchTransactionType {
+    PENDING,
+    EARN,
+    AWARD
+}
@@ -0,0 +1,13 @@
+package loyalty.service.command.rest.responses;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+@Getter
+@SuperBuilder
+public class PointExpirationStartedResponseModel extends AbstractResponseModel {
+
+    private Instant expirationDate;
+}
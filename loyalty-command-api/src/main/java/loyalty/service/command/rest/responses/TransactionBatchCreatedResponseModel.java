@@ -0,0 +1,16 @@
+package loyalty.service.command.rest.responses;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class TransactionBatchCreatedResponseModel {
+
+    private String batchId;
+    private int succeeded;
+    private int failed;
+    private List<TransactionBatchItemResponseModel> results;
+}
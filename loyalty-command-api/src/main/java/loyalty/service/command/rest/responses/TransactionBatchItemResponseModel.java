@@ -0,0 +1,15 @@
+package loyalty.service.command.rest.responses;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TransactionBatchItemResponseModel {
+
+    private int index;
+    private String loyaltyBankId;
+    private String requestId;
+    private Integer status; // Http status the transaction would have failed with on its own
+    private String error;
+}
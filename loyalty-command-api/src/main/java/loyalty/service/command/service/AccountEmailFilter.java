@@ -0,0 +1,144 @@
+package loyalty.service.command.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import loyalty.service.command.data.entities.AccountLookupEntity;
+import loyalty.service.command.data.repositories.AccountLookupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Probabilistic set of the emails in the account lookup table. A negative answer means the email is definitely not
+ * taken, so the command interceptor can skip the lookup query. Until the first build completes every email is
+ * reported as possibly taken.
+ * <p>
+ * New emails are added on every instance by {@link loyalty.service.command.projections.AccountEmailFilterEventsHandler}.
+ * Removed and replaced emails cannot be dropped from a bloom filter, so the filter is rebuilt from the table
+ * periodically. The emails added since the previous rebuild started are carried into each new filter, since their
+ * lookup rows may not be written yet when the table is read. This includes the emails added before the first build.
+ */
+@Component
+public class AccountEmailFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccountEmailFilter.class);
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    private final AccountLookupRepository accountLookupRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter<String> filter;
+    private volatile BloomFilter<String> rebuilding;
+    private Set<String> addedSinceRebuild = new HashSet<>();
+
+    public AccountEmailFilter(AccountLookupRepository accountLookupRepository,
+                              @Value("${loyalty.account.email-filter.enabled:true}") boolean enabled,
+                              @Value("${loyalty.account.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                              @Value("${loyalty.account.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.accountLookupRepository = accountLookupRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(String email) {
+        BloomFilter<String> current = filter;
+        return current == null || current.mightContain(nullSafe(email));
+    }
+
+    public void put(String email) {
+        if (!enabled) {
+            return;
+        }
+
+        String normalized = nullSafe(email);
+
+        synchronized (this) {
+            addedSinceRebuild.add(normalized);
+            if (filter != null) {
+                filter.put(normalized);
+            }
+            if (rebuilding != null) {
+                rebuilding.put(normalized);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${loyalty.account.email-filter.rebuild-interval-millis:300000}",
+            fixedDelayString = "${loyalty.account.email-filter.rebuild-interval-millis:300000}"
+    )
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        BloomFilter<String> next = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedInsertions, accountLookupRepository.count() * 2),
+                falsePositiveRate
+        );
+
+        // Emails projected while the table is being read are added to both filters by put
+        Set<String> carried;
+        synchronized (this) {
+            carried = addedSinceRebuild;
+            addedSinceRebuild = new HashSet<>();
+            carried.forEach(next::put);
+            rebuilding = next;
+        }
+
+        try {
+            long loaded = 0;
+            String lastAccountId = "";
+            List<AccountLookupEntity> page;
+            do {
+                page = accountLookupRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(
+                        lastAccountId, Limit.of(LOAD_PAGE_SIZE)
+                );
+                for (AccountLookupEntity accountLookupEntity : page) {
+                    next.put(nullSafe(accountLookupEntity.getEmail()));
+                    lastAccountId = accountLookupEntity.getAccountId();
+                }
+                loaded += page.size();
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            synchronized (this) {
+                filter = next;
+            }
+
+            LOGGER.info("Account email filter built with {} emails in {} ms", loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                addedSinceRebuild.addAll(carried);
+            }
+            LOGGER.error("Failed to build account email filter, keeping previous filter. Reason: {}", e.getLocalizedMessage());
+        } finally {
+            synchronized (this) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    private static String nullSafe(String email) {
+        return email == null ? "" : email;
+    }
+}
@@ -0,0 +1,58 @@
+package loyalty.service.command.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
+
+/**
+ * Adds a consistency token to the responses of the command endpoints. The token is the global index of the newest
+ * event in the event store once the request's events are appended, so the query api can wait until its processing
+ * groups have passed it instead of clients polling until their write shows up.
+ */
+@Component
+public class ConsistencyTokens {
+
+    private final EventStore eventStore;
+
+    public ConsistencyTokens(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * Adds the token to the current response once the command completed, which is after its events were committed.
+     */
+    public <T> CompletableFuture<T> afterCommand(CompletableFuture<T> result) {
+        HttpServletResponse response = currentResponse();
+
+        return result.thenApply(value -> {
+            addTo(response);
+            return value;
+        });
+    }
+
+    /**
+     * Adds the token to the current response, for requests whose events were already appended.
+     */
+    public void addToResponse() {
+        addTo(currentResponse());
+    }
+
+    private void addTo(HttpServletResponse response) {
+        TrackingToken headToken = eventStore.createHeadToken();
+
+        if (headToken != null) {
+            headToken.position().ifPresent(position -> response.setHeader(CONSISTENCY_TOKEN_HEADER, String.valueOf(position)));
+        }
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse();
+    }
+}
@@ -0,0 +1,36 @@
+package loyalty.service.command.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range of loyalty bank ids expired together. Loyalty bank ids are random UUIDs, so splitting the space of their
+ * first four hex digits evenly gives shards of roughly equal size that map to plain range predicates in queries.
+ */
+public record ExpirationShard(int index, String lowerBound, String upperBound) {
+
+    private static final int PREFIX_SPACE = 0x10000;
+
+    // Sorts after every hex digit in both byte-wise and linguistic collations
+    private static final String UPPER_SENTINEL = "g";
+
+    public String id() {
+        return "shard-" + index;
+    }
+
+    public static List<ExpirationShard> split(int count) {
+        List<ExpirationShard> shards = new ArrayList<>(count);
+
+        for (int index = 0; index < count; index++) {
+            String lowerBound = index == 0 ? "" : prefix((long) index * PREFIX_SPACE / count);
+            String upperBound = index == count - 1 ? UPPER_SENTINEL : prefix((long) (index + 1) * PREFIX_SPACE / count);
+            shards.add(new ExpirationShard(index, lowerBound, upperBound));
+        }
+
+        return shards;
+    }
+
+    private static String prefix(long value) {
+        return String.format("%04x", value);
+    }
+}
@@ -0,0 +1,119 @@
+package loyalty.service.command.service;
+
+import loyalty.service.command.data.entities.ExpirationShardLeaseEntity;
+import loyalty.service.command.data.repositories.ExpirationShardLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Database leases that let exactly one command-api instance expire a shard at a time, and the order in which an
+ * instance should try the shards so that live instances start on disjoint shards.
+ */
+@Component
+public class ExpirationShardLeaseService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpirationShardLeaseService.class);
+
+    private final ExpirationShardLeaseRepository expirationShardLeaseRepository;
+    private final DiscoveryClient discoveryClient;
+    private final String applicationName;
+    private final String owner;
+    private final Duration leaseDuration;
+
+    public ExpirationShardLeaseService(ExpirationShardLeaseRepository expirationShardLeaseRepository,
+                                       ObjectProvider<DiscoveryClient> discoveryClient,
+                                       ObjectProvider<Registration> registration,
+                                       @Value("${spring.application.name}") String applicationName,
+                                       @Value("${loyalty.expiration.lease-seconds:600}") long leaseSeconds) {
+        this.expirationShardLeaseRepository = expirationShardLeaseRepository;
+        this.discoveryClient = discoveryClient.getIfAvailable();
+        this.applicationName = applicationName;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+
+        Registration self = registration.getIfAvailable();
+        this.owner = self != null ? self.getInstanceId() : UUID.randomUUID().toString();
+    }
+
+    public boolean tryAcquire(ExpirationShard shard) {
+        createLeaseIfMissing(shard.id());
+
+        Instant now = Instant.now();
+        return expirationShardLeaseRepository.acquire(shard.id(), owner, now, now.plus(leaseDuration)) == 1;
+    }
+
+    // Extends a held lease, returning false when it has been lost to another instance
+    public boolean renew(ExpirationShard shard) {
+        return tryAcquire(shard);
+    }
+
+    public void release(ExpirationShard shard) {
+        expirationShardLeaseRepository.release(shard.id(), owner, Instant.now());
+    }
+
+    /**
+     * Orders the shards so this instance first tries the ones assigned to it by its position among the live
+     * instances, then the rest, picking up shards left over by slower or missing instances.
+     */
+    public List<ExpirationShard> preferredOrder(List<ExpirationShard> shards) {
+        List<String> instanceIds = liveInstanceIds();
+        int instanceCount = Math.max(instanceIds.size(), 1);
+        int position = Math.max(instanceIds.indexOf(owner), 0);
+
+        List<ExpirationShard> assigned = new ArrayList<>();
+        List<ExpirationShard> remaining = new ArrayList<>();
+        for (ExpirationShard shard : shards) {
+            if (shard.index() % instanceCount == position) {
+                assigned.add(shard);
+            } else {
+                remaining.add(shard);
+            }
+        }
+
+        LOGGER.info("Instance {} is {} of {} live instances, assigned {} of {} expiration shards",
+                owner, position + 1, instanceCount, assigned.size(), shards.size());
+
+        assigned.addAll(remaining);
+        return assigned;
+    }
+
+    private List<String> liveInstanceIds() {
+        if (discoveryClient == null) {
+            return List.of();
+        }
+
+        try {
+            return discoveryClient.getInstances(applicationName).stream()
+                    .map(ServiceInstance::getInstanceId)
+                    .sorted()
+                    .toList();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to list live instances, trying all expiration shards. Reason: {}", e.getLocalizedMessage());
+            return List.of();
+        }
+    }
+
+    private void createLeaseIfMissing(String shardId) {
+        if (expirationShardLeaseRepository.existsById(shardId)) {
+            return;
+        }
+
+        try {
+            expirationShardLeaseRepository.saveAndFlush(new ExpirationShardLeaseEntity(shardId));
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.debug("Lease for {} created by another instance", shardId);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package loyalty.service.command.service;
 
-import loyalty.service.command.commands.transactions.CreateExpirePointsTransactionCommand;
+import jakarta.annotation.PreDestroy;
+import loyalty.service.command.commands.transactions.CreateBatchExpirePointsTransactionCommand;
+import loyalty.service.command.data.entities.ExpirationCheckpointEntity;
 import loyalty.service.command.data.entities.TransactionEntity;
+import loyalty.service.command.data.repositories.ExpirationCheckpointRepository;
 import loyalty.service.command.data.repositories.TransactionRepository;
 import loyalty.service.core.utils.MarkerGenerator;
 import net.logstash.logback.marker.Markers;
@@ -9,51 +12,370 @@ import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
 import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_LOYALTY_BANK;
 
+/**
+ * Expires transactions older than a cutoff by streaming them in keyset pages of (loyaltyBankId, timestamp,
+ * transactionId) and dispatching one batch expire command per loyalty bank in the page, with at most a fixed number of
+ * commands in flight.
+ * <p>
+ * Loyalty banks are split into shards, and a shard is only expired while holding its database lease, so each shard
+ * runs on exactly one instance. The lease is renewed every third of its duration while commands are dispatched and
+ * awaited, and dispatching stops at the next loyalty bank once it is lost. The position of the last dispatched loyalty
+ * bank is checkpointed per shard, so a run interrupted by a restart or a lost lease resumes after it, and a shard
+ * already completed for the cutoff is skipped.
+ */
 @Component
 public class PointExpirationService {
     public static final Logger LOGGER = LoggerFactory.getLogger(PointExpirationService.class);
+    public static final String CHECKPOINT_PREFIX = "point-expiration-";
+
     private final TransactionRepository transactionRepository;
+    private final ExpirationCheckpointRepository expirationCheckpointRepository;
+    private final ExpirationShardLeaseService expirationShardLeaseService;
     private final CommandGateway commandGateway;
+    private final List<ExpirationShard> shards;
+    private final int pageSize;
+    private final int maxInFlight;
+    private final Duration renewInterval;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService expirationExecutor = Executors.newSingleThreadExecutor();
 
-    public PointExpirationService(TransactionRepository transactionRepository, CommandGateway commandGateway) {
+    public PointExpirationService(TransactionRepository transactionRepository,
+                                  ExpirationCheckpointRepository expirationCheckpointRepository,
+                                  ExpirationShardLeaseService expirationShardLeaseService,
+                                  CommandGateway commandGateway,
+                                  @Value("${loyalty.expiration.shards:16}") int shardCount,
+                                  @Value("${loyalty.expiration.page-size:1000}") int pageSize,
+                                  @Value("${loyalty.expiration.max-in-flight:100}") int maxInFlight,
+                                  @Value("${loyalty.expiration.lease-seconds:600}") long leaseSeconds) {
         this.transactionRepository = transactionRepository;
+        this.expirationCheckpointRepository = expirationCheckpointRepository;
+        this.expirationShardLeaseService = expirationShardLeaseService;
         this.commandGateway = commandGateway;
+        this.shards = ExpirationShard.split(shardCount);
+        this.pageSize = pageSize;
+        this.maxInFlight = maxInFlight;
+        this.renewInterval = Duration.ofSeconds(leaseSeconds).dividedBy(3);
     }
 
-    public void expireTransactionsBeforeDate(Instant expirationDate, String requestId) {
-        List<TransactionEntity> transactions = transactionRepository.findAllByTimestampBefore(expirationDate);
+    /**
+     * Starts expiring the transactions before the expiration date in the background, returning false when a run is
+     * already in progress on this instance. The summary of the run is logged with its request id once it completes.
+     */
+    public boolean startExpiration(Instant expirationDate, String requestId) {
+        Marker marker = Markers.append(REQUEST_ID, requestId);
 
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.warn(marker, "Point expiration already in progress, ignoring request");
+            return false;
+        }
+
+        expirationExecutor.execute(() -> {
+            try {
+                expire(expirationDate, requestId, marker);
+            } catch (RuntimeException e) {
+                LOGGER.error(marker, "Point expiration failed. Reason: {}", e.getLocalizedMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Expires every transaction before the expiration date in the shards this instance manages to lease, returning a
+     * summary of the work done here, or null when a run is already in progress on this instance.
+     */
+    public PointExpirationSummary expireTransactionsBeforeDate(Instant expirationDate, String requestId) {
         Marker marker = Markers.append(REQUEST_ID, requestId);
 
-        if (transactions.isEmpty()) {
-            LOGGER.info(marker, "0 transactions found, no expiration required");
-            return;
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.warn(marker, "Point expiration already in progress, ignoring request");
+            return null;
+        }
+
+        try {
+            return expire(expirationDate, requestId, marker);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PointExpirationSummary expire(Instant expirationDate, String requestId, Marker marker) {
+        long start = System.currentTimeMillis();
+        ExpirationTotals totals = new ExpirationTotals();
+        int shardsExpired = 0;
+
+        for (ExpirationShard shard : expirationShardLeaseService.preferredOrder(shards)) {
+            if (!expirationShardLeaseService.tryAcquire(shard)) {
+                LOGGER.info(marker, "Expiration {} leased by another instance, skipping", shard.id());
+                continue;
+            }
+
+            try {
+                if (expireShard(shard, expirationDate, requestId, marker, totals)) {
+                    shardsExpired++;
+                }
+            } finally {
+                expirationShardLeaseService.release(shard);
+            }
+        }
+
+        PointExpirationSummary summary = PointExpirationSummary.builder()
+                .requestId(requestId)
+                .shardsExpired(shardsExpired)
+                .transactionsExpired(totals.transactionsExpired)
+                .transactionsFailed(totals.transactionsFailed)
+                .pointsExpired(totals.pointsExpired)
+                .durationMillis(System.currentTimeMillis() - start)
+                .build();
+
+        LOGGER.info(
+                marker,
+                "Point expiration completed: {} points expired across {} transactions in {} shards, {} failed, in {} ms",
+                summary.getPointsExpired(), summary.getTransactionsExpired(), summary.getShardsExpired(),
+                summary.getTransactionsFailed(), summary.getDurationMillis()
+        );
+
+        return summary;
+    }
+
+    // Returns whether the shard was expired here, adding the work done in this run to the totals
+    private boolean expireShard(ExpirationShard shard, Instant expirationDate, String requestId, Marker marker,
+                                ExpirationTotals totals) {
+        ExpirationCheckpointEntity checkpoint = expirationCheckpointRepository.findByCheckpointId(CHECKPOINT_PREFIX + shard.id());
+
+        if (checkpoint != null && checkpoint.isCompleted()
+                && checkpoint.getExpirationDate() != null && !checkpoint.getExpirationDate().isBefore(expirationDate)) {
+            LOGGER.info(marker, "Expiration {} already completed for {}, skipping", shard.id(), expirationDate);
+            return false;
         }
 
-        LOGGER.info(marker, "{} transactions found, beginning expiration process", transactions.size());
+        if (checkpoint != null && !checkpoint.isCompleted()) {
+            LOGGER.info(
+                    marker,
+                    "Resuming expiration {} after transaction {} at {}",
+                    shard.id(), checkpoint.getLastTransactionId(), checkpoint.getLastTimestamp()
+            );
+        } else {
+            checkpoint = new ExpirationCheckpointEntity(CHECKPOINT_PREFIX + shard.id());
+        }
+
+        // A resumed run keeps its position under a later cutoff; transactions before the position that only became
+        // due under the later cutoff are picked up by the next run
+        checkpoint.setExpirationDate(expirationDate);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ShardLease lease = new ShardLease(shard);
+
+        LOGGER.info(marker, "Expiring transactions before {} for {} in pages of {}", expirationDate, shard.id(), pageSize);
+
+        List<TransactionEntity> page;
+        do {
+            page = checkpoint.hasPosition()
+                    ? transactionRepository.findExpiredTransactionsAfter(
+                            expirationDate, shard.lowerBound(), shard.upperBound(), checkpoint.getLastLoyaltyBankId(),
+                            checkpoint.getLastTimestamp(), checkpoint.getLastTransactionId(), Limit.of(pageSize))
+                    : transactionRepository.findExpiredTransactions(
+                            expirationDate, shard.lowerBound(), shard.upperBound(), Limit.of(pageSize));
+
+            if (!page.isEmpty()) {
+                DispatchedPage dispatched = dispatchPage(page, requestId, inFlight, lease);
+                ExpirationTotals pageTotals = dispatched.totals;
+                totals.add(pageTotals);
+
+                checkpoint.setTransactionsExpired(checkpoint.getTransactionsExpired() + pageTotals.transactionsExpired);
+                checkpoint.setTransactionsFailed(checkpoint.getTransactionsFailed() + pageTotals.transactionsFailed);
+                checkpoint.setPointsExpired(checkpoint.getPointsExpired() + pageTotals.pointsExpired);
+
+                TransactionEntity last = dispatched.last;
+                if (last != null) {
+                    checkpoint.setLastLoyaltyBankId(last.getLoyaltyBankId());
+                    checkpoint.setLastTimestamp(last.getTimestamp());
+                    checkpoint.setLastTransactionId(last.getTransactionId());
+                    saveCheckpoint(checkpoint);
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    LOGGER.warn(marker, "Expiration {} interrupted, stopping after transaction {}",
+                            shard.id(), checkpoint.getLastTransactionId());
+                    return false;
+                }
+
+                if (!lease.renewIfDue()) {
+                    LOGGER.warn(marker, "Lost lease on expiration {}, stopping after transaction {}",
+                            shard.id(), last != null ? last.getTransactionId() : checkpoint.getLastTransactionId());
+                    return false;
+                }
+            }
+        } while (page.size() == pageSize);
+
+        checkpoint.setCompleted(true);
+        saveCheckpoint(checkpoint);
+
+        LOGGER.info(
+                marker,
+                "Expiration {} completed: {} points expired across {} transactions, {} failed",
+                shard.id(), checkpoint.getPointsExpired(), checkpoint.getTransactionsExpired(), checkpoint.getTransactionsFailed()
+        );
 
-        transactions.forEach(transaction -> {
-            CreateExpirePointsTransactionCommand command = CreateExpirePointsTransactionCommand.builder()
+        return true;
+    }
+
+    // Returns once every dispatched command has completed, so the checkpoint never skips an in-flight transaction. When
+    // the lease is lost the remaining loyalty banks are left undispatched and the checkpoint stops before them.
+    private DispatchedPage dispatchPage(List<TransactionEntity> page, String requestId, Semaphore inFlight,
+                                        ShardLease lease) {
+        AtomicLong expired = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong points = new AtomicLong();
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+        // Pages are ordered by loyalty bank, so each bank's transactions are adjacent and oldest first
+        Map<String, Map<String, Integer>> targetTransactionsByLoyaltyBank = new LinkedHashMap<>();
+        Map<String, TransactionEntity> lastByLoyaltyBank = new LinkedHashMap<>();
+        for (TransactionEntity transaction : page) {
+            targetTransactionsByLoyaltyBank
+                    .computeIfAbsent(transaction.getLoyaltyBankId(), loyaltyBankId -> new LinkedHashMap<>())
+                    .put(transaction.getTransactionId(), transaction.getPoints());
+            lastByLoyaltyBank.put(transaction.getLoyaltyBankId(), transaction);
+        }
+
+        TransactionEntity lastDispatched = null;
+        for (Map.Entry<String, Map<String, Integer>> entry : targetTransactionsByLoyaltyBank.entrySet()) {
+            String loyaltyBankId = entry.getKey();
+            Map<String, Integer> targetTransactions = entry.getValue();
+
+            if (!lease.renewIfDue()) {
+                break;
+            }
+
+
+            CreateBatchExpirePointsTransactionCommand command = CreateBatchExpirePointsTransactionCommand.builder()
                     .requestId(requestId)
-                    .loyaltyBankId(transaction.getLoyaltyBankId())
-                    .targetTransactionId(transaction.getTransactionId())
-                    .points(transaction.getPoints())
+                    .loyaltyBankId(loyaltyBankId)
+                    .targetTransactions(targetTransactions)
+                    .points(targetTransactions.values().stream().mapToInt(Integer::intValue).sum())
                     .build();
 
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(command),
+            LOGGER.debug(
+                    MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, command),
                     SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
             );
 
-            commandGateway.send(command);
-        });
+            inFlight.acquireUninterruptibly();
+            futures.add(commandGateway.send(command).whenComplete((result, throwable) -> {
+                inFlight.release();
+
+                if (throwable == null) {
+                    expired.addAndGet(targetTransactions.size());
+                    points.addAndGet(command.getPoints());
+                } else {
+                    failed.addAndGet(targetTransactions.size());
+                    LOGGER.error(
+                            Markers.append(REQUEST_ID, requestId),
+                            "Failed to expire {} transactions for loyalty bank {}. Reason: {}",
+                            targetTransactions.size(), loyaltyBankId, throwable.getLocalizedMessage()
+                    );
+                }
+            }));
+            lastDispatched = lastByLoyaltyBank.get(loyaltyBankId);
+        }
+
+        awaitAll(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])), lease);
+
+        DispatchedPage dispatched = new DispatchedPage();
+        dispatched.totals.transactionsExpired = expired.get();
+        dispatched.totals.transactionsFailed = failed.get();
+        dispatched.totals.pointsExpired = points.get();
+        dispatched.last = lastDispatched;
+        return dispatched;
+    }
+
+    // Waits for the commands in flight, renewing the lease while they take longer than the renew interval
+    private void awaitAll(CompletableFuture<Void> commands, ShardLease lease) {
+        while (true) {
+            try {
+                commands.get(renewInterval.toMillis(), TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                lease.renewIfDue();
+            } catch (ExecutionException e) {
+                // Failures are counted per command
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                commands.handle((result, throwable) -> null).join();
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expirationExecutor.shutdownNow();
+    }
+
+    private void saveCheckpoint(ExpirationCheckpointEntity checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        expirationCheckpointRepository.save(checkpoint);
+    }
+
+    private final class ShardLease {
+        private final ExpirationShard shard;
+        private Instant renewedAt = Instant.now();
+        private boolean lost;
+
+        private ShardLease(ExpirationShard shard) {
+            this.shard = shard;
+        }
+
+        // Returns false once the lease is lost; only renews when a third of the lease has passed since the last renewal
+        private boolean renewIfDue() {
+            if (!lost && !Instant.now().isBefore(renewedAt.plus(renewInterval))) {
+                lost = !expirationShardLeaseService.renew(shard);
+                renewedAt = Instant.now();
+            }
+            return !lost;
+        }
+    }
+
+    private static final class DispatchedPage {
+        private final ExpirationTotals totals = new ExpirationTotals();
+        private TransactionEntity last;
+    }
+
+    private static final class ExpirationTotals {
+        private long transactionsExpired;
+        private long transactionsFailed;
+        private long pointsExpired;
+
+        private void add(ExpirationTotals other) {
+            transactionsExpired += other.transactionsExpired;
+            transactionsFailed += other.transactionsFailed;
+            pointsExpired += other.pointsExpired;
+        }
     }
 }
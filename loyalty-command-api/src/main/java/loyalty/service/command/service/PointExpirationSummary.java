@@ -0,0 +1,15 @@
+package loyalty.service.command.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PointExpirationSummary {
+    private String requestId;
+    private int shardsExpired;
+    private long transactionsExpired;
+    private long transactionsFailed;
+    private long pointsExpired;
+    private long durationMillis;
+}
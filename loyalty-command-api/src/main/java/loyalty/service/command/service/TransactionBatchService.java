@@ -0,0 +1,196 @@
+package loyalty.service.command.service;
+
+import jakarta.annotation.PreDestroy;
+import loyalty.service.command.commands.transactions.AbstractTransactionCommand;
+import loyalty.service.command.commands.transactions.CreateAwardedTransactionCommand;
+import loyalty.service.command.commands.transactions.CreateEarnedTransactionCommand;
+import loyalty.service.command.commands.transactions.CreatePendingTransactionCommand;
+import loyalty.service.command.rest.requests.LoyaltyTransactionBatchItemRequestModel;
+import loyalty.service.command.rest.responses.TransactionBatchCreatedResponseModel;
+import loyalty.service.command.rest.responses.TransactionBatchItemResponseModel;
+import loyalty.service.core.exceptions.*;
+import loyalty.service.core.utils.MarkerGenerator;
+import net.logstash.logback.marker.Markers;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.modelling.command.AggregateNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
+import static loyalty.service.core.constants.ExceptionMessages.FAILED_TO_PROCESS_TRANSACTION;
+import static loyalty.service.core.constants.ExceptionMessages.LOYALTY_BANK_WITH_ID_DOES_NOT_EXIST;
+import static loyalty.service.core.constants.LogMessages.SENDING_COMMAND_FOR_LOYALTY_BANK;
+
+/**
+ * Dispatches batches of transactions with at most a fixed number of commands in flight across all batches on this
+ * instance. Each batch is dispatched by one of a fixed number of threads, which waits for a permit before sending each
+ * command, so a large batch or many concurrent batches cannot flood the command bus.
+ */
+@Component
+public class TransactionBatchService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionBatchService.class);
+    private final CommandGateway commandGateway;
+    private final ExecutorService dispatchExecutor;
+    private final Semaphore inFlight;
+
+    public TransactionBatchService(CommandGateway commandGateway,
+                                   @Value("${loyalty.transaction.batch.parallelism:16}") int parallelism,
+                                   @Value("${loyalty.transaction.batch.max-in-flight:64}") int maxInFlight) {
+        this.commandGateway = commandGateway;
+        this.dispatchExecutor = Executors.newFixedThreadPool(parallelism);
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Dispatches every transaction of the batch and completes once all of them did, without holding the caller's
+     * thread. Failed transactions are reported per item instead of failing the batch.
+     */
+    public CompletableFuture<TransactionBatchCreatedResponseModel> createTransactions(
+            List<LoyaltyTransactionBatchItemRequestModel> transactions) {
+        String batchId = UUID.randomUUID().toString();
+
+        LOGGER.info(Markers.append(REQUEST_ID, batchId), "Dispatching batch of {} transactions", transactions.size());
+
+        // Every item future handles its own failure, so joining them once all completed never blocks
+        return CompletableFuture.supplyAsync(() -> dispatchAll(batchId, transactions), dispatchExecutor)
+                .thenCompose(futures -> CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                        .thenApply(ignored -> summarize(batchId, futures.stream().map(CompletableFuture::join).toList())));
+    }
+
+    private List<CompletableFuture<TransactionBatchItemResponseModel>> dispatchAll(
+            String batchId, List<LoyaltyTransactionBatchItemRequestModel> transactions) {
+        List<CompletableFuture<TransactionBatchItemResponseModel>> futures = new ArrayList<>(transactions.size());
+        for (int index = 0; index < transactions.size(); index++) {
+            inFlight.acquireUninterruptibly();
+            futures.add(dispatch(batchId, index, transactions.get(index)));
+        }
+        return futures;
+    }
+
+    private TransactionBatchCreatedResponseModel summarize(String batchId, List<TransactionBatchItemResponseModel> results) {
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+
+        LOGGER.info(
+                Markers.append(REQUEST_ID, batchId),
+                "Batch of {} transactions completed, {} failed", results.size(), failed
+        );
+
+        return TransactionBatchCreatedResponseModel.builder()
+                .batchId(batchId)
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    // Called holding a permit, which is released once the command completed
+    private CompletableFuture<TransactionBatchItemResponseModel> dispatch(String batchId, int index,
+                                                                          LoyaltyTransactionBatchItemRequestModel transaction) {
+        AbstractTransactionCommand command = buildCommand(transaction);
+
+        LOGGER.debug(
+                MarkerGenerator.generateMarker(LOGGER, Level.DEBUG, command),
+                SENDING_COMMAND_FOR_LOYALTY_BANK, command.getClass().getSimpleName(), command.getLoyaltyBankId()
+        );
+
+        CompletableFuture<Object> result;
+        try {
+            result = commandGateway.send(command);
+        } catch (RuntimeException exception) {
+            result = CompletableFuture.failedFuture(exception);
+        }
+
+        return result
+                .whenComplete((ignored, throwable) -> inFlight.release())
+                .handle((ignored, throwable) -> throwable == null
+                        ? TransactionBatchItemResponseModel.builder()
+                                .index(index)
+                                .loyaltyBankId(command.getLoyaltyBankId())
+                                .requestId(command.getRequestId())
+                                .build()
+                        : failed(batchId, index, command, unwrap(throwable)));
+    }
+
+    /**
+     * Reports a failed transaction with the status and message {@link loyalty.service.core.errorhandling.LoyaltyServiceErrorHandler}
+     * would answer it with on its own. Unexpected failures are only logged, so their details are not returned.
+     */
+    private static TransactionBatchItemResponseModel failed(String batchId, int index, AbstractTransactionCommand command,
+                                                            Throwable failure) {
+        HttpStatus status;
+        String error;
+
+        if (failure instanceof LoyaltyBankNotFoundException || failure instanceof AggregateNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            error = String.format(LOYALTY_BANK_WITH_ID_DOES_NOT_EXIST, command.getLoyaltyBankId());
+        } else if (failure instanceof IllegalLoyaltyBankStateException || failure instanceof InsufficientPointsException
+                || failure instanceof ExcessiveVoidPointsException || failure instanceof ExcessiveCapturePointsException) {
+            status = HttpStatus.UNPROCESSABLE_ENTITY;
+            error = failure.getLocalizedMessage();
+        } else if (failure instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = failure.getLocalizedMessage();
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = String.format(FAILED_TO_PROCESS_TRANSACTION, command.getLoyaltyBankId());
+            LOGGER.error(
+                    Markers.append(REQUEST_ID, batchId),
+                    "Transaction {} of batch failed for loyalty bank {}. Reason: {}",
+                    index, command.getLoyaltyBankId(), failure.getLocalizedMessage()
+            );
+        }
+
+        return TransactionBatchItemResponseModel.builder()
+                .index(index)
+                .loyaltyBankId(command.getLoyaltyBankId())
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    private AbstractTransactionCommand buildCommand(LoyaltyTransactionBatchItemRequestModel transaction) {
+        String requestId = UUID.randomUUID().toString();
+
+        return switch (transaction.getType()) {
+            case PENDING -> CreatePendingTransactionCommand.builder()
+                    .requestId(requestId)
+                    .loyaltyBankId(transaction.getLoyaltyBankId())
+                    .points(transaction.getPoints())
+                    .build();
+            case EARN -> CreateEarnedTransactionCommand.builder()
+                    .requestId(requestId)
+                    .loyaltyBankId(transaction.getLoyaltyBankId())
+                    .points(transaction.getPoints())
+                    .build();
+            case AWARD -> CreateAwardedTransactionCommand.builder()
+                    .requestId(requestId)
+                    .loyaltyBankId(transaction.getLoyaltyBankId())
+                    .points(transaction.getPoints())
+                    .build();
+        };
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdown();
+    }
+}
@@ -6,6 +6,7 @@ import loyalty.service.core.utils.MarkerGenerator;
 import net.logstash.logback.marker.Markers;
 import org.slf4j.Logger;
 import org.slf4j.Marker;
+import org.slf4j.event.Level;
 
 import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
 
@@ -28,7 +29,7 @@ public class LogHelper {
     }
 
     public static void logEventProcessed(Logger logger, AbstractEvent event) {
-        Marker marker = MarkerGenerator.generateMarker(event);
+        Marker marker = MarkerGenerator.generateMarker(logger, Level.DEBUG, event);
         logger.debug(marker, "{} processed", event.getClass().getSimpleName());
     }
 }
@@ -0,0 +1,100 @@
+-- Axon event store, token store, saga store and dead-letter queue, matching the JPA entities shipped with Axon 4.10.
+-- Statements are idempotent so databases previously created by hibernate ddl-auto can be baselined onto them.
+
+CREATE SEQUENCE IF NOT EXISTS domain_event_entry_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS domain_event_entry (
+    global_index         BIGINT       NOT NULL,
+    event_identifier     VARCHAR(255) NOT NULL,
+    meta_data            OID,
+    payload              OID          NOT NULL,
+    payload_revision     VARCHAR(255),
+    payload_type         VARCHAR(255) NOT NULL,
+    time_stamp           VARCHAR(255) NOT NULL,
+    aggregate_identifier VARCHAR(255) NOT NULL,
+    sequence_number      BIGINT       NOT NULL,
+    type                 VARCHAR(255),
+    PRIMARY KEY (global_index),
+    CONSTRAINT uk_domain_event_entry_aggregate_sequence UNIQUE (aggregate_identifier, sequence_number),
+    CONSTRAINT uk_domain_event_entry_event_identifier UNIQUE (event_identifier)
+);
+
+CREATE TABLE IF NOT EXISTS snapshot_event_entry (
+    aggregate_identifier VARCHAR(255) NOT NULL,
+    sequence_number      BIGINT       NOT NULL,
+    type                 VARCHAR(255) NOT NULL,
+    event_identifier     VARCHAR(255) NOT NULL,
+    meta_data            OID,
+    payload              OID          NOT NULL,
+    payload_revision     VARCHAR(255),
+    payload_type         VARCHAR(255) NOT NULL,
+    time_stamp           VARCHAR(255) NOT NULL,
+    PRIMARY KEY (aggregate_identifier, sequence_number, type),
+    CONSTRAINT uk_snapshot_event_entry_event_identifier UNIQUE (event_identifier)
+);
+
+CREATE TABLE IF NOT EXISTS token_entry (
+    processor_name VARCHAR(255) NOT NULL,
+    segment        INTEGER      NOT NULL,
+    owner          VARCHAR(255),
+    timestamp      VARCHAR(255) NOT NULL,
+    token          OID,
+    token_type     VARCHAR(255),
+    PRIMARY KEY (processor_name, segment)
+);
+
+CREATE TABLE IF NOT EXISTS saga_entry (
+    saga_id         VARCHAR(255) NOT NULL,
+    revision        VARCHAR(255),
+    saga_type       VARCHAR(255),
+    serialized_saga OID,
+    PRIMARY KEY (saga_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS association_value_entry_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS association_value_entry (
+    id                BIGINT       NOT NULL,
+    association_key   VARCHAR(255) NOT NULL,
+    association_value VARCHAR(255),
+    saga_id           VARCHAR(255) NOT NULL,
+    saga_type         VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_association_value_entry_saga_type_key_value
+    ON association_value_entry (saga_type, association_key, association_value);
+CREATE INDEX IF NOT EXISTS idx_association_value_entry_saga_id_type
+    ON association_value_entry (saga_id, saga_type);
+
+CREATE TABLE IF NOT EXISTS dead_letter_entry (
+    dead_letter_id       VARCHAR(255)             NOT NULL,
+    processing_group     VARCHAR(255)             NOT NULL,
+    sequence_identifier  VARCHAR(255)             NOT NULL,
+    sequence_index       BIGINT                   NOT NULL,
+    message_type         VARCHAR(255)             NOT NULL,
+    event_identifier     VARCHAR(255)             NOT NULL,
+    time_stamp           VARCHAR(255)             NOT NULL,
+    payload_type         VARCHAR(255)             NOT NULL,
+    payload_revision     VARCHAR(255),
+    payload              OID                      NOT NULL,
+    meta_data            OID,
+    type                 VARCHAR(255),
+    aggregate_identifier VARCHAR(255),
+    sequence_number      BIGINT,
+    token_type           VARCHAR(255),
+    token                OID,
+    enqueued_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_touched         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    processing_started   TIMESTAMP(6) WITH TIME ZONE,
+    cause_type           VARCHAR(255),
+    cause_message        VARCHAR(1023),
+    diagnostics          OID,
+    PRIMARY KEY (dead_letter_id),
+    CONSTRAINT uk_dead_letter_entry_group_sequence_index UNIQUE (processing_group, sequence_identifier, sequence_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_dead_letter_entry_processing_group
+    ON dead_letter_entry (processing_group);
+CREATE INDEX IF NOT EXISTS idx_dead_letter_entry_processing_group_sequence
+    ON dead_letter_entry (processing_group, sequence_identifier);
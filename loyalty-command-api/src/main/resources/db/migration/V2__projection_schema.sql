@@ -0,0 +1,67 @@
+-- Command-side projections: lookups used by the command interceptors, the redemption and expiration trackers,
+-- and the state of the sharded point expiration job.
+
+CREATE TABLE IF NOT EXISTS account_lookup (
+    account_id VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (account_id),
+    CONSTRAINT uk_account_lookup_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS business_lookup (
+    business_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (business_id)
+);
+
+CREATE TABLE IF NOT EXISTS loyalty_bank_lookup (
+    loyalty_bank_id VARCHAR(255) NOT NULL,
+    account_id      VARCHAR(255) NOT NULL,
+    business_id     VARCHAR(255) NOT NULL,
+    PRIMARY KEY (loyalty_bank_id)
+);
+
+CREATE TABLE IF NOT EXISTS redemption_tracker (
+    payment_id        VARCHAR(255) NOT NULL,
+    loyalty_bank_id   VARCHAR(255) NOT NULL,
+    authorized_points INTEGER      NOT NULL,
+    captured_points   INTEGER      NOT NULL,
+    PRIMARY KEY (payment_id)
+);
+
+CREATE TABLE IF NOT EXISTS expiration_tracker (
+    loyalty_bank_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (loyalty_bank_id)
+);
+
+CREATE TABLE IF NOT EXISTS transaction (
+    transaction_id  VARCHAR(255)                NOT NULL,
+    points          INTEGER                     NOT NULL,
+    timestamp       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    loyalty_bank_id VARCHAR(255)                NOT NULL,
+    PRIMARY KEY (transaction_id)
+);
+
+-- Transactions used to be owned by an expiration tracker collection that wrote the loyalty bank id twice
+ALTER TABLE transaction DROP COLUMN IF EXISTS expiration_tracker_id;
+
+CREATE TABLE IF NOT EXISTS expiration_checkpoint (
+    checkpoint_id        VARCHAR(255)                NOT NULL,
+    expiration_date      TIMESTAMP(6) WITH TIME ZONE,
+    last_loyalty_bank_id VARCHAR(255),
+    last_timestamp       TIMESTAMP(6) WITH TIME ZONE,
+    last_transaction_id  VARCHAR(255),
+    transactions_expired BIGINT                      NOT NULL,
+    transactions_failed  BIGINT                      NOT NULL,
+    points_expired       BIGINT                      NOT NULL,
+    completed            BOOLEAN                     NOT NULL,
+    updated_at           TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (checkpoint_id)
+);
+
+CREATE TABLE IF NOT EXISTS expiration_shard_lease (
+    shard_id    VARCHAR(255)                NOT NULL,
+    owner       VARCHAR(255),
+    lease_until TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version     BIGINT,
+    PRIMARY KEY (shard_id)
+);
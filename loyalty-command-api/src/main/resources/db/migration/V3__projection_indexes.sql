@@ -0,0 +1,12 @@
+-- Indexes backing the projection repository queries
+
+-- Expiration ledger, read oldest first per loyalty bank, and expiration sweeps by cutoff
+CREATE INDEX IF NOT EXISTS idx_transaction_loyalty_bank_id_timestamp ON transaction (loyalty_bank_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_transaction_timestamp ON transaction (timestamp);
+
+-- LoyaltyBankLookupRepository.findByBusinessIdAndAccountId / findByBusinessId and findByAccountId
+CREATE INDEX IF NOT EXISTS idx_loyalty_bank_lookup_business_id_account_id ON loyalty_bank_lookup (business_id, account_id);
+CREATE INDEX IF NOT EXISTS idx_loyalty_bank_lookup_account_id ON loyalty_bank_lookup (account_id);
+
+-- RedemptionTrackerRepository.findByLoyaltyBankId
+CREATE INDEX IF NOT EXISTS idx_redemption_tracker_loyalty_bank_id ON redemption_tracker (loyalty_bank_id);
@@ -22,6 +22,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Map;
+
 import static loyalty.service.core.constants.DomainConstants.*;
 import static loyalty.service.core.constants.ExceptionMessages.LOYALTY_BANK_PROPERTY_BALANCE_CANNOT_BE_NEGATIVE;
 import static org.junit.jupiter.api.Assertions.*;
@@ -189,6 +191,20 @@ class LoyaltyBankAggregateTest {
             .points(createExpirePointsTransactionCommand.getPoints())
             .build();
 
+    private static final CreateBatchExpirePointsTransactionCommand createBatchExpirePointsTransactionCommand = CreateBatchExpirePointsTransactionCommand.builder()
+            .requestId(TEST_REQUEST_ID)
+            .loyaltyBankId(TEST_LOYALTY_BANK_ID)
+            .targetTransactions(Map.of(TEST_REQUEST_ID, TEST_EXPIRE_POINTS))
+            .points(TEST_EXPIRE_POINTS)
+            .build();
+
+    private static final BatchExpiredTransactionCreatedEvent batchExpiredTransactionCreatedEvent = BatchExpiredTransactionCreatedEvent.builder()
+            .requestId(createBatchExpirePointsTransactionCommand.getRequestId())
+            .loyaltyBankId(createBatchExpirePointsTransactionCommand.getLoyaltyBankId())
+            .targetTransactions(createBatchExpirePointsTransactionCommand.getTargetTransactions())
+            .points(createBatchExpirePointsTransactionCommand.getPoints())
+            .build();
+
     private static final ExpireAllPointsCommand expireAllPointsCommand = ExpireAllPointsCommand.builder()
             .requestId(TEST_REQUEST_ID)
             .loyaltyBankId(TEST_LOYALTY_BANK_ID)
@@ -547,6 +563,22 @@ class LoyaltyBankAggregateTest {
                 .expectException(AggregateNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("CreateBatchExpirePointsTransactionCommand results in BatchExpiredTransactionCreatedEvent")
+    void testCreateBatchExpirePointsTransaction_whenCreateBatchExpirePointsTransactionCommandHandled_shouldIssueBatchExpiredTransactionCreatedEvent() {
+        int expectedEarnedPoints = awardedTransactionCreatedEvent.getPoints();
+        int expectedCapturedPoints = batchExpiredTransactionCreatedEvent.getPoints();
+
+        fixture.given(loyaltyBankCreatedEvent, awardedTransactionCreatedEvent)
+                .when(createBatchExpirePointsTransactionCommand)
+                .expectEvents(batchExpiredTransactionCreatedEvent)
+                .expectState(state -> {
+                    assertEquals(expectedEarnedPoints, state.getEarned(), "Earned points were not what was expected");
+                    assertEquals(expectedCapturedPoints, state.getCaptured(), "Captured points were not what was expected");
+                    assertEquals(expectedEarnedPoints - expectedCapturedPoints, state.getAvailablePoints(), "Available points were not what was expected");
+                });
+    }
+
     @Test
     @DisplayName("ExpireAllPointsCommand results in ExpiredTransactionCreatedEvent")
     void testExpireAllPoints_whenExpireAllPointsCommandHandled_shouldIssueAllPointsExpiredEvent() {
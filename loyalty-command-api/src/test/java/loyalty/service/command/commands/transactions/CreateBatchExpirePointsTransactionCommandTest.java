@@ -0,0 +1,133 @@
+package loyalty.service.command.commands.transactions;
+
+import loyalty.service.command.test.utils.TestParameters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static loyalty.service.core.constants.ExceptionMessages.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreateBatchExpirePointsTransactionCommandTest {
+
+    private CreateBatchExpirePointsTransactionCommand.CreateBatchExpirePointsTransactionCommandBuilder<?, ?> createBatchExpirePointsTransactionCommandBuilder;
+
+    @BeforeEach
+    void setup() {
+        Map<String, Integer> targetTransactions = new HashMap<>();
+        targetTransactions.put("test-target-transaction-id-1", 60);
+        targetTransactions.put("test-target-transaction-id-2", 40);
+
+        createBatchExpirePointsTransactionCommandBuilder = CreateBatchExpirePointsTransactionCommand.builder()
+                .requestId("test-request-id")
+                .loyaltyBankId("test-loyalty-bank-id")
+                .points(100)
+                .targetTransactions(targetTransactions);
+    }
+
+    @Test
+    @DisplayName("Can create valid CreateBatchExpirePointsTransactionCommand")
+    void testCreateBatchExpirePointsTransactionCommand_whenParametersAreValid_shouldPassValidation() {
+        // Arrange
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder.build();
+
+        // Act & Assert
+        assertDoesNotThrow(command::validate);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "invalidPointsParams")
+    @DisplayName("Cannot create batch expire points transaction with invalid points")
+    void testCreateBatchExpirePointsTransactionCommand_whenPointsAreInvalid_shouldThrowException(int points) {
+        // Arrange
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder
+                .points(points)
+                .build();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, command::validate);
+
+        // Assert
+        assertEquals(POINTS_CANNOT_BE_LTE_ZERO, exception.getLocalizedMessage());
+    }
+
+    @Test
+    @DisplayName("Cannot create batch expire points transaction without target transactions")
+    void testCreateBatchExpirePointsTransactionCommand_whenTargetTransactionsAreEmpty_shouldThrowException() {
+        // Arrange
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder
+                .targetTransactions(Map.of())
+                .build();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, command::validate);
+
+        // Assert
+        assertEquals(TARGET_TRANSACTIONS_CANNOT_BE_EMPTY, exception.getLocalizedMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "invalidStringParams")
+    @DisplayName("Cannot create batch expire points transaction with invalid targetTransactionId")
+    void testCreateBatchExpirePointsTransactionCommand_whenTargetTransactionIdIsInvalid_shouldThrowException(String targetTransactionId) {
+        // Arrange
+        Map<String, Integer> targetTransactions = new HashMap<>();
+        targetTransactions.put(targetTransactionId, 100);
+
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder
+                .targetTransactions(targetTransactions)
+                .build();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, command::validate);
+
+        // Assert
+        assertEquals(TARGET_TRANSACTION_ID_CANNOT_BE_EMPTY, exception.getLocalizedMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "invalidPointsParams")
+    @DisplayName("Cannot create batch expire points transaction with invalid target transaction points")
+    void testCreateBatchExpirePointsTransactionCommand_whenTargetTransactionPointsAreInvalid_shouldThrowException(int points) {
+        // Arrange
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder
+                .targetTransactions(Map.of("test-target-transaction-id", points))
+                .build();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, command::validate);
+
+        // Assert
+        assertEquals(POINTS_CANNOT_BE_LTE_ZERO, exception.getLocalizedMessage());
+    }
+
+    @Test
+    @DisplayName("Cannot create batch expire points transaction when points do not match target transactions")
+    void testCreateBatchExpirePointsTransactionCommand_whenPointsDoNotMatchTargetTransactions_shouldThrowException() {
+        // Arrange
+        CreateBatchExpirePointsTransactionCommand command = createBatchExpirePointsTransactionCommandBuilder
+                .points(99)
+                .build();
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, command::validate);
+
+        // Assert
+        assertEquals(POINTS_MUST_MATCH_TARGET_TRANSACTIONS, exception.getLocalizedMessage());
+    }
+
+    private static Stream<Arguments> invalidStringParams() {
+        return TestParameters.invalidStringParams();
+    }
+
+    private static Stream<Arguments> invalidPointsParams() {
+        return TestParameters.invalidPointsParams();
+    }
+}
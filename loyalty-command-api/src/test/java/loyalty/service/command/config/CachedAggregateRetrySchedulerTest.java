@@ -0,0 +1,95 @@
+package loyalty.service.command.config;
+
+import loyalty.service.core.exceptions.InsufficientPointsException;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.gateway.RetryScheduler;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedAggregateRetrySchedulerTest {
+
+    @Mock
+    private RetryScheduler delegate;
+
+    @Mock
+    private Runnable dispatchTask;
+
+    private CachedAggregateRetryScheduler cachedAggregateRetryScheduler;
+
+    private static final CommandMessage<?> TEST_COMMAND = new GenericCommandMessage<>("command");
+
+    @BeforeEach
+    void setup() {
+        cachedAggregateRetryScheduler = new CachedAggregateRetryScheduler(delegate, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Re-runs a command on its first rejection by an aggregate")
+    void testScheduleRetry_whenFirstFailureIsAggregateRejection_shouldDispatchAgain() {
+        // Arrange
+        InsufficientPointsException failure = new InsufficientPointsException();
+
+        // Act
+        boolean scheduled = cachedAggregateRetryScheduler.scheduleRetry(TEST_COMMAND, failure, failures(failure), dispatchTask);
+
+        // Assert
+        assertTrue(scheduled);
+        verify(dispatchTask, times(1)).run();
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Leaves a repeated aggregate rejection to the delegate")
+    void testScheduleRetry_whenAggregateRejectionRepeated_shouldDelegate() {
+        // Arrange
+        InsufficientPointsException failure = new InsufficientPointsException();
+        List<Class<? extends Throwable>[]> failures = failures(new ConcurrencyException("conflict"), failure);
+
+        // Act
+        boolean scheduled = cachedAggregateRetryScheduler.scheduleRetry(TEST_COMMAND, failure, failures, dispatchTask);
+
+        // Assert
+        assertFalse(scheduled);
+        verify(delegate, times(1)).scheduleRetry(TEST_COMMAND, failure, failures, dispatchTask);
+        verifyNoInteractions(dispatchTask);
+    }
+
+    @Test
+    @DisplayName("Leaves other failures to the delegate")
+    void testScheduleRetry_whenFailureIsNotAggregateRejection_shouldDelegate() {
+        // Arrange
+        ConcurrencyException failure = new ConcurrencyException("conflict");
+        List<Class<? extends Throwable>[]> failures = failures(failure);
+        when(delegate.scheduleRetry(TEST_COMMAND, failure, failures, dispatchTask)).thenReturn(true);
+
+        // Act
+        boolean scheduled = cachedAggregateRetryScheduler.scheduleRetry(TEST_COMMAND, failure, failures, dispatchTask);
+
+        // Assert
+        assertTrue(scheduled);
+        verifyNoInteractions(dispatchTask);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends Throwable>[]> failures(Throwable... failures) {
+        List<Class<? extends Throwable>[]> chains = new ArrayList<>();
+        for (Throwable failure : failures) {
+            chains.add(new Class[]{failure.getClass()});
+        }
+        return chains;
+    }
+}
@@ -2,12 +2,14 @@ package loyalty.service.command.data.repositories;
 
 import loyalty.service.command.config.AxonConfig;
 import loyalty.service.command.data.entities.TransactionEntity;
+import loyalty.service.command.service.ExpirationShard;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
@@ -34,43 +36,86 @@ class TransactionRepositoryTest {
     private static final int TEST_POINTS = 100;
     private static final Instant TEST_TIMESTAMP_BEFORE = LocalDate.of(2000,1,1).atStartOfDay(ZoneId.of("UTC")).toInstant();
     private static final Instant TEST_TIMESTAMP_REQUEST = LocalDate.of(2000,1,2).atStartOfDay(ZoneId.of("UTC")).toInstant();
+    private static final ExpirationShard ALL_BANKS = ExpirationShard.split(1).get(0);
     private static final Instant TEST_TIMESTAMP_AFTER = LocalDate.of(2000,2,1).atStartOfDay(ZoneId.of("UTC")).toInstant();
 ;
 
     @Test
-    @DisplayName("Should get all. transactions with timestamp less than date requested")
-    void testFindAllByTimestampBefore_whenTimestampProvided_shouldReturnTransactions() {
+    @DisplayName("Should page transactions before date requested in loyalty bank and timestamp order after the last transaction seen")
+    void testFindExpiredTransactionsAfter_whenLastTransactionProvided_shouldReturnNextPage() {
         // Arrange
-        TransactionEntity transaction1 = new TransactionEntity();
-        transaction1.setTransactionId(UUID.randomUUID().toString());
-        transaction1.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        transaction1.setPoints(TEST_POINTS);
-        transaction1.setTimestamp(TEST_TIMESTAMP_BEFORE);
-        testEntityManager.persistAndFlush(transaction1);
-
-        TransactionEntity transaction2 = new TransactionEntity();
-        transaction2.setTransactionId(UUID.randomUUID().toString());
-        transaction2.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        transaction2.setPoints(TEST_POINTS);
-        transaction2.setTimestamp(TEST_TIMESTAMP_REQUEST);
-        testEntityManager.persistAndFlush(transaction2);
-
-        TransactionEntity transaction3 = new TransactionEntity();
-        transaction3.setTransactionId(UUID.randomUUID().toString());
-        transaction3.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        transaction3.setPoints(TEST_POINTS);
-        transaction3.setTimestamp(TEST_TIMESTAMP_AFTER);
-        testEntityManager.persistAndFlush(transaction3);
+        TransactionEntity transaction1 = persistTransaction(TEST_TIMESTAMP_BEFORE.minusSeconds(60));
+        TransactionEntity transaction2 = persistTransaction(TEST_TIMESTAMP_BEFORE);
+        TransactionEntity transaction3 = persistTransaction(TEST_TIMESTAMP_BEFORE.plusSeconds(60));
+        persistTransaction(TEST_TIMESTAMP_AFTER);
 
         // Act
-        List<TransactionEntity> transactions = transactionRepository.findAllByTimestampBefore(TEST_TIMESTAMP_REQUEST);
+        List<TransactionEntity> firstPage = transactionRepository.findExpiredTransactions(
+                TEST_TIMESTAMP_REQUEST, ALL_BANKS.lowerBound(), ALL_BANKS.upperBound(), Limit.of(2)
+        );
+        TransactionEntity last = firstPage.get(firstPage.size() - 1);
+        List<TransactionEntity> secondPage = transactionRepository.findExpiredTransactionsAfter(
+                TEST_TIMESTAMP_REQUEST, ALL_BANKS.lowerBound(), ALL_BANKS.upperBound(),
+                last.getLoyaltyBankId(), last.getTimestamp(), last.getTransactionId(), Limit.of(2)
+        );
 
         // Assert
-        assertEquals(1, transactions.size(), "Should only get one transaction");
-        TransactionEntity storedTransaction = transactions.get(0);
-        assertEquals(transaction1.getTransactionId(), storedTransaction.getTransactionId(), "TransactionIds should match");
-        assertEquals(transaction1.getLoyaltyBankId(), storedTransaction.getLoyaltyBankId(), "LoyaltyBankIds should match");
-        assertEquals(transaction1.getPoints(), storedTransaction.getPoints(), "Pointss should match");
-        assertEquals(transaction1.getTimestamp(), storedTransaction.getTimestamp(), "Timestamps should match");
+        assertEquals(2, firstPage.size(), "First page should be full");
+        assertEquals(transaction1.getTransactionId(), firstPage.get(0).getTransactionId(), "Oldest transaction should be first");
+        assertEquals(transaction2.getTransactionId(), firstPage.get(1).getTransactionId(), "TransactionIds should match");
+        assertEquals(1, secondPage.size(), "Second page should only contain the remaining expired transaction");
+        assertEquals(transaction3.getTransactionId(), secondPage.get(0).getTransactionId(), "TransactionIds should match");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should page transactions of a loyalty bank oldest first after the last transaction seen")
+    void testFindOldestTransactionsAfter_whenLastTransactionProvided_shouldReturnNextPage() {
+        // Arrange
+        TransactionEntity transaction3 = persistTransaction(TEST_TIMESTAMP_AFTER);
+        TransactionEntity transaction1 = persistTransaction(TEST_TIMESTAMP_BEFORE);
+        TransactionEntity transaction2 = persistTransaction(TEST_TIMESTAMP_REQUEST);
+
+        // Act
+        List<TransactionEntity> firstPage = transactionRepository.findOldestTransactions(TEST_LOYALTY_BANK_ID, Limit.of(2));
+        TransactionEntity last = firstPage.get(firstPage.size() - 1);
+        List<TransactionEntity> secondPage = transactionRepository.findOldestTransactionsAfter(
+                TEST_LOYALTY_BANK_ID, last.getTimestamp(), last.getTransactionId(), Limit.of(2)
+        );
+
+        // Assert
+        assertEquals(2, firstPage.size(), "First page should be full");
+        assertEquals(transaction1.getTransactionId(), firstPage.get(0).getTransactionId(), "Oldest transaction should be first");
+        assertEquals(transaction2.getTransactionId(), firstPage.get(1).getTransactionId(), "TransactionIds should match");
+        assertEquals(1, secondPage.size(), "Second page should only contain the newest transaction");
+        assertEquals(transaction3.getTransactionId(), secondPage.get(0).getTransactionId(), "TransactionIds should match");
+    }
+
+    @Test
+    @DisplayName("Should delete every transaction of a loyalty bank")
+    void testDeleteAllByLoyaltyBankId_whenLoyaltyBankIdProvided_shouldDeleteTransactions() {
+        // Arrange
+        persistTransaction(TEST_TIMESTAMP_BEFORE);
+        persistTransaction(TEST_TIMESTAMP_AFTER);
+
+        TransactionEntity otherTransaction = new TransactionEntity(
+                UUID.randomUUID().toString(), TEST_POINTS, TEST_TIMESTAMP_BEFORE, UUID.randomUUID().toString());
+        testEntityManager.persistAndFlush(otherTransaction);
+
+        // Act
+        int deleted = transactionRepository.deleteAllByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
+
+        // Assert
+        assertEquals(2, deleted, "Should delete both transactions of the loyalty bank");
+        assertTrue(transactionRepository.findOldestTransactions(TEST_LOYALTY_BANK_ID, Limit.of(1)).isEmpty(), "No transactions should remain");
+        assertTrue(transactionRepository.existsById(otherTransaction.getTransactionId()), "Other loyalty banks should be untouched");
+    }
+
+    private TransactionEntity persistTransaction(Instant timestamp) {
+        TransactionEntity transaction = new TransactionEntity();
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
+        transaction.setPoints(TEST_POINTS);
+        transaction.setTimestamp(timestamp);
+        return testEntityManager.persistAndFlush(transaction);
+    }
+}
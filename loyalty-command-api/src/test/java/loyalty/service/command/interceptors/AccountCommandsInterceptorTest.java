@@ -9,6 +9,7 @@ import loyalty.service.command.commands.DeleteAccountCommand;
 import loyalty.service.command.commands.UpdateAccountCommand;
 import loyalty.service.command.data.entities.AccountLookupEntity;
 import loyalty.service.command.data.repositories.AccountLookupRepository;
+import loyalty.service.command.service.AccountEmailFilter;
 import loyalty.service.core.exceptions.AccountNotFoundException;
 import loyalty.service.core.exceptions.EmailExistsForAccountException;
 import net.logstash.logback.marker.Markers;
@@ -45,6 +46,9 @@ class AccountCommandsInterceptorTest {
     @Mock
     private AccountLookupRepository accountLookupRepository;
 
+    @Mock
+    private AccountEmailFilter accountEmailFilter;
+
     @InjectMocks
     private AccountCommandsInterceptor accountCommandsInterceptor;
 
@@ -80,6 +84,7 @@ class AccountCommandsInterceptorTest {
                 .email(TEST_EMAIL)
                 .build();
 
+        when(accountEmailFilter.mightContain(any(String.class))).thenReturn(true);
         when(accountLookupRepository.findByEmail(any(String.class))).thenReturn(null);
 
         // Act
@@ -95,6 +100,33 @@ class AccountCommandsInterceptorTest {
         assertEquals(0, loggedEvents.size());
     }
 
+    @Test
+    @DisplayName("Skips email lookup for CreateAccountCommand when email is not in filter")
+    void testHandle_whenCreateAccountCommandHandledAndEmailNotInFilter_shouldNotQueryLookupRepository() {
+        // Arrange
+        CreateAccountCommand command = CreateAccountCommand.builder()
+                .requestId(TEST_REQUEST_ID)
+                .accountId(TEST_ACCOUNT_ID)
+                .firstName(TEST_FIRST_NAME)
+                .lastName(TEST_LAST_NAME)
+                .email(TEST_EMAIL)
+                .build();
+
+        when(accountEmailFilter.mightContain(TEST_EMAIL)).thenReturn(false);
+
+        // Act
+        CommandMessage<?> result = accountCommandsInterceptor.handle(
+                List.of(new GenericCommandMessage<>(command))).apply(0, new GenericCommandMessage<>(command)
+        );
+
+        // Assert
+        assertEquals(command, result.getPayload(), "Command should not be changed by interceptor");
+        verify(accountLookupRepository, never()).findByEmail(any(String.class));
+
+        List<ILoggingEvent> loggedEvents = listAppender.list;
+        assertEquals(0, loggedEvents.size());
+    }
+
     @Test
     @DisplayName("Can handle invalid CreateAccountCommand for already existing email")
     void testHandle_whenCreateAccountCommandHandledAndEmailAlreadyExists_shouldThrowException() {
@@ -110,6 +142,7 @@ class AccountCommandsInterceptorTest {
         String existingAccountId = UUID.randomUUID().toString();
         AccountLookupEntity existingAccount = new AccountLookupEntity(existingAccountId, TEST_EMAIL);
 
+        when(accountEmailFilter.mightContain(any(String.class))).thenReturn(true);
         when(accountLookupRepository.findByEmail(any(String.class))).thenReturn(existingAccount);
 
         // Act & Assert
@@ -155,6 +188,7 @@ class AccountCommandsInterceptorTest {
         AccountLookupEntity existingAccount = new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL);
 
         when(accountLookupRepository.findByAccountId(any(String.class))).thenReturn(existingAccount);
+        when(accountEmailFilter.mightContain(any(String.class))).thenReturn(true);
         when(accountLookupRepository.findByEmail(any(String.class))).thenReturn(null);
 
         // Act
@@ -226,6 +260,7 @@ class AccountCommandsInterceptorTest {
         AccountLookupEntity existingEmailAccount = new AccountLookupEntity(existingAccountId, updatedEmail);
 
         when(accountLookupRepository.findByAccountId(any(String.class))).thenReturn(existingAccount);
+        when(accountEmailFilter.mightContain(any(String.class))).thenReturn(true);
         when(accountLookupRepository.findByEmail(any(String.class))).thenReturn(existingEmailAccount);
 
         // Act & Assert
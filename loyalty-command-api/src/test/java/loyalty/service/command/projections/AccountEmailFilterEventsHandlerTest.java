@@ -0,0 +1,67 @@
+package loyalty.service.command.projections;
+
+import loyalty.service.command.service.AccountEmailFilter;
+import loyalty.service.core.events.account.AccountCreatedEvent;
+import loyalty.service.core.events.account.AccountEmailChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountEmailFilterEventsHandlerTest {
+
+    @Mock
+    private AccountEmailFilter accountEmailFilter;
+
+    @InjectMocks
+    AccountEmailFilterEventsHandler accountEmailFilterEventsHandler;
+
+    private static final String TEST_REQUEST_ID = UUID.randomUUID().toString();
+    private static final String TEST_ACCOUNT_ID = UUID.randomUUID().toString();
+    private static final String TEST_EMAIL = "test@test.com";
+
+    @Test
+    @DisplayName("Adds the email of a created account to the filter")
+    void testOn_whenAccountCreatedEventReceived_shouldPutEmail() {
+        // Arrange
+        AccountCreatedEvent event = AccountCreatedEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .accountId(TEST_ACCOUNT_ID)
+                .firstName("John")
+                .lastName("Doe")
+                .email(TEST_EMAIL)
+                .build();
+
+        // Act
+        accountEmailFilterEventsHandler.on(event);
+
+        // Assert
+        verify(accountEmailFilter, times(1)).put(TEST_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Adds the new email of an account to the filter")
+    void testOn_whenAccountEmailChangedEventReceived_shouldPutNewEmail() {
+        // Arrange
+        String newEmail = "new@test.com";
+        AccountEmailChangedEvent event = AccountEmailChangedEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .accountId(TEST_ACCOUNT_ID)
+                .oldEmail(TEST_EMAIL)
+                .newEmail(newEmail)
+                .build();
+
+        // Act
+        accountEmailFilterEventsHandler.on(event);
+
+        // Assert
+        verify(accountEmailFilter, times(1)).put(newEmail);
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.SmartValidator;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static loyalty.service.command.test.utils.LogTestHelper.assertLogMessage;
@@ -178,13 +179,13 @@ class AccountLookupEventsHandlerTest {
                 .newEmail(newEmail)
                 .build();
 
-        when(accountLookupRepository.findByAccountId(TEST_ACCOUNT_ID)).thenReturn(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL));
+        when(accountLookupRepository.findById(TEST_ACCOUNT_ID)).thenReturn(Optional.of(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL)));
 
         // Act
         accountLookupEventsHandler.on(event);
 
         // Assert
-        verify(accountLookupRepository, times(1)).findByAccountId(TEST_ACCOUNT_ID);
+        verify(accountLookupRepository, times(1)).findById(TEST_ACCOUNT_ID);
         verify(accountLookupRepository, times(1)).save(new AccountLookupEntity(TEST_ACCOUNT_ID, newEmail));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -211,7 +212,7 @@ class AccountLookupEventsHandlerTest {
                 .newEmail(TEST_EMAIL) // Doesn't actually matter as the mock invocation is what triggers the exception
                 .build();
 
-        when(accountLookupRepository.findByAccountId(TEST_ACCOUNT_ID)).thenReturn(null);
+        when(accountLookupRepository.findById(TEST_ACCOUNT_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -220,7 +221,7 @@ class AccountLookupEventsHandlerTest {
 
         // Assert
         assertEquals(String.format(ACCOUNT_WITH_ID_DOES_NOT_EXIST, event.getAccountId()), exception.getLocalizedMessage());
-        verify(accountLookupRepository, times(1)).findByAccountId(TEST_ACCOUNT_ID);
+        verify(accountLookupRepository, times(1)).findById(TEST_ACCOUNT_ID);
         verify(accountLookupRepository, times(0)).save(any(AccountLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -240,7 +241,7 @@ class AccountLookupEventsHandlerTest {
 
         String exceptionMessage = "Invalid email format";
 
-        when(accountLookupRepository.findByAccountId(TEST_ACCOUNT_ID)).thenReturn(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL));
+        when(accountLookupRepository.findById(TEST_ACCOUNT_ID)).thenReturn(Optional.of(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL)));
 
         doAnswer(invocation -> {
             BindingResult bindingResult = invocation.getArgument(1);
@@ -255,7 +256,7 @@ class AccountLookupEventsHandlerTest {
 
         // Assert
         assertEquals(exceptionMessage, exception.getLocalizedMessage());
-        verify(accountLookupRepository, times(1)).findByAccountId(TEST_ACCOUNT_ID);
+        verify(accountLookupRepository, times(1)).findById(TEST_ACCOUNT_ID);
         verify(accountLookupRepository, times(0)).save(any(AccountLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -271,13 +272,13 @@ class AccountLookupEventsHandlerTest {
                 .accountId(TEST_ACCOUNT_ID)
                 .build();
 
-        when(accountLookupRepository.findByAccountId(TEST_ACCOUNT_ID)).thenReturn(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL));
+        when(accountLookupRepository.findById(TEST_ACCOUNT_ID)).thenReturn(Optional.of(new AccountLookupEntity(TEST_ACCOUNT_ID, TEST_EMAIL)));
 
         // Act
         accountLookupEventsHandler.on(event);
 
         // Assert
-        verify(accountLookupRepository, times(1)).findByAccountId(TEST_ACCOUNT_ID);
+        verify(accountLookupRepository, times(1)).findById(TEST_ACCOUNT_ID);
         verify(accountLookupRepository, times(1)).delete(any(AccountLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -302,7 +303,7 @@ class AccountLookupEventsHandlerTest {
                 .accountId(TEST_ACCOUNT_ID)
                 .build();
 
-        when(accountLookupRepository.findByAccountId(TEST_ACCOUNT_ID)).thenReturn(null);
+        when(accountLookupRepository.findById(TEST_ACCOUNT_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -311,7 +312,7 @@ class AccountLookupEventsHandlerTest {
 
         // Assert
         assertEquals(String.format(ACCOUNT_WITH_ID_DOES_NOT_EXIST, event.getAccountId()), exception.getLocalizedMessage());
-        verify(accountLookupRepository, times(1)).findByAccountId(TEST_ACCOUNT_ID);
+        verify(accountLookupRepository, times(1)).findById(TEST_ACCOUNT_ID);
         verify(accountLookupRepository, times(0)).delete(any(AccountLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -26,6 +26,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.SmartValidator;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static loyalty.service.command.test.utils.LogTestHelper.logContainsMarkers;
@@ -174,13 +175,13 @@ class BusinessLookupEventsHandlerTest {
                 .newBusinessName(TEST_BUSINESS_NAME)
                 .build();
 
-        when(businessLookupRepository.findByBusinessId(TEST_BUSINESS_ID)).thenReturn(new BusinessLookupEntity(TEST_BUSINESS_ID));
+        when(businessLookupRepository.findById(TEST_BUSINESS_ID)).thenReturn(Optional.of(new BusinessLookupEntity(TEST_BUSINESS_ID)));
 
         // Act
         businessLookupEventsHandler.on(event);
 
         // Assert
-        verify(businessLookupRepository, times(1)).findByBusinessId(TEST_BUSINESS_ID);
+        verify(businessLookupRepository, times(1)).findById(TEST_BUSINESS_ID);
         verify(businessLookupRepository, times(1)).save(any(BusinessLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -208,7 +209,7 @@ class BusinessLookupEventsHandlerTest {
                 .newBusinessName(TEST_BUSINESS_NAME)
                 .build();
 
-        when(businessLookupRepository.findByBusinessId(TEST_BUSINESS_ID)).thenReturn(null);
+        when(businessLookupRepository.findById(TEST_BUSINESS_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -217,7 +218,7 @@ class BusinessLookupEventsHandlerTest {
 
         // Assert
         assertEquals(String.format(BUSINESS_WITH_ID_DOES_NOT_EXIST, event.getBusinessId()), exception.getLocalizedMessage());
-        verify(businessLookupRepository, times(1)).findByBusinessId(TEST_BUSINESS_ID);
+        verify(businessLookupRepository, times(1)).findById(TEST_BUSINESS_ID);
         verify(businessLookupRepository, times(0)).save(any(BusinessLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -236,7 +237,7 @@ class BusinessLookupEventsHandlerTest {
 
         String exceptionMessage = "Invalid business id";
 
-        when(businessLookupRepository.findByBusinessId(TEST_BUSINESS_ID)).thenReturn(new BusinessLookupEntity(TEST_BUSINESS_ID));
+        when(businessLookupRepository.findById(TEST_BUSINESS_ID)).thenReturn(Optional.of(new BusinessLookupEntity(TEST_BUSINESS_ID)));
 
         doAnswer(invocation -> {
             BindingResult bindingResult = invocation.getArgument(1);
@@ -251,7 +252,7 @@ class BusinessLookupEventsHandlerTest {
 
         // Assert
         assertEquals(exceptionMessage, exception.getLocalizedMessage());
-        verify(businessLookupRepository, times(1)).findByBusinessId(TEST_BUSINESS_ID);
+        verify(businessLookupRepository, times(1)).findById(TEST_BUSINESS_ID);
         verify(businessLookupRepository, times(0)).save(any(BusinessLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -267,13 +268,13 @@ class BusinessLookupEventsHandlerTest {
                 .businessId(TEST_BUSINESS_ID)
                 .build();
 
-        when(businessLookupRepository.findByBusinessId(TEST_BUSINESS_ID)).thenReturn(new BusinessLookupEntity(TEST_BUSINESS_ID));
+        when(businessLookupRepository.findById(TEST_BUSINESS_ID)).thenReturn(Optional.of(new BusinessLookupEntity(TEST_BUSINESS_ID)));
 
         // Act
         businessLookupEventsHandler.on(event);
 
         // Assert
-        verify(businessLookupRepository, times(1)).findByBusinessId(TEST_BUSINESS_ID);
+        verify(businessLookupRepository, times(1)).findById(TEST_BUSINESS_ID);
         verify(businessLookupRepository, times(1)).delete(any(BusinessLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -300,7 +301,7 @@ class BusinessLookupEventsHandlerTest {
                 .businessId(TEST_BUSINESS_ID)
                 .build();
 
-        when(businessLookupRepository.findByBusinessId(TEST_BUSINESS_ID)).thenReturn(null);
+        when(businessLookupRepository.findById(TEST_BUSINESS_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -309,7 +310,7 @@ class BusinessLookupEventsHandlerTest {
 
         // Assert
         assertEquals(String.format(BUSINESS_WITH_ID_DOES_NOT_EXIST, event.getBusinessId()), exception.getLocalizedMessage());
-        verify(businessLookupRepository, times(1)).findByBusinessId(TEST_BUSINESS_ID);
+        verify(businessLookupRepository, times(1)).findById(TEST_BUSINESS_ID);
         verify(businessLookupRepository, times(0)).delete(any(BusinessLookupEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
@@ -9,9 +9,11 @@ import loyalty.service.command.data.entities.TransactionEntity;
 import loyalty.service.command.data.repositories.ExpirationTrackerRepository;
 import loyalty.service.command.data.repositories.TransactionRepository;
 import loyalty.service.command.test.utils.LogTestHelper;
+import loyalty.service.core.events.loyalty.bank.AllPointsExpiredEvent;
 import loyalty.service.core.events.loyalty.bank.LoyaltyBankCreatedEvent;
 import loyalty.service.core.events.loyalty.bank.transactions.AuthorizedTransactionCreatedEvent;
 import loyalty.service.core.events.loyalty.bank.transactions.AwardedTransactionCreatedEvent;
+import loyalty.service.core.events.loyalty.bank.transactions.BatchExpiredTransactionCreatedEvent;
 import loyalty.service.core.events.loyalty.bank.transactions.EarnedTransactionCreatedEvent;
 import loyalty.service.core.events.loyalty.bank.transactions.VoidTransactionCreatedEvent;
 import loyalty.service.core.exceptions.ExpirationTrackerNotFoundException;
@@ -29,12 +31,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
+import org.springframework.data.domain.Limit;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.SmartValidator;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static loyalty.service.command.test.utils.LogTestHelper.assertLogMessageWithMarkers;
@@ -44,6 +48,7 @@ import static loyalty.service.core.constants.ExceptionMessages.*;
 import static loyalty.service.core.constants.LogMessages.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -156,8 +161,7 @@ class ExpirationTrackerEventsHandlerTest {
                 Level.INFO,
                 MessageFormatter.format(EXPIRATION_TRACKER_CREATED_FOR_LOYALTY_BANK, TEST_LOYALTY_BANK_ID).getMessage(),
                 Markers.append(REQUEST_ID, event.getRequestId()),
-                Markers.append(LOYALTY_BANK_ID, event.getLoyaltyBankId()),
-                Markers.append(TRANSACTION_LIST, new ArrayList<>())
+                Markers.append(LOYALTY_BANK_ID, event.getLoyaltyBankId())
         );
     }
 
@@ -215,7 +219,16 @@ class ExpirationTrackerEventsHandlerTest {
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
+        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
+
+        ArgumentCaptor<TransactionEntity> captor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository, times(1)).save(captor.capture());
+
+        TransactionEntity savedEntity = captor.getValue();
+        assertEquals(TEST_REQUEST_ID, savedEntity.getTransactionId());
+        assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
+        assertEquals(TEST_POINTS, savedEntity.getPoints());
+        assertEquals(timestamp, savedEntity.getTimestamp());
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(1, loggedEvents.size());
@@ -286,7 +299,7 @@ class ExpirationTrackerEventsHandlerTest {
 
         // Assert
         assertEquals(exceptionMessage, exception.getLocalizedMessage());
-        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
+        verify(transactionRepository, times(0)).save(any(TransactionEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(0, loggedEvents.size());
@@ -310,7 +323,16 @@ class ExpirationTrackerEventsHandlerTest {
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
+        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
+
+        ArgumentCaptor<TransactionEntity> captor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository, times(1)).save(captor.capture());
+
+        TransactionEntity savedEntity = captor.getValue();
+        assertEquals(TEST_REQUEST_ID, savedEntity.getTransactionId());
+        assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
+        assertEquals(TEST_POINTS, savedEntity.getPoints());
+        assertEquals(timestamp, savedEntity.getTimestamp());
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(1, loggedEvents.size());
@@ -381,7 +403,7 @@ class ExpirationTrackerEventsHandlerTest {
 
         // Assert
         assertEquals(exceptionMessage, exception.getLocalizedMessage());
-        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
+        verify(transactionRepository, times(0)).save(any(TransactionEntity.class));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(0, loggedEvents.size());
@@ -404,24 +426,18 @@ class ExpirationTrackerEventsHandlerTest {
         transactionEntity.setTimestamp(timestamp);
         transactionEntity.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
         transactionEntity.setPoints(TEST_POINTS);
-        expirationTrackerEntity.addTransaction(transactionEntity);
 
         when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(expirationTrackerEntity);
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class)))
+                .thenReturn(List.of(transactionEntity));
 
         // Act
         expirationTrackerEventsHandler.on(event);
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
-
-        ArgumentCaptor<ExpirationTrackerEntity> captor = ArgumentCaptor.forClass(ExpirationTrackerEntity.class);
-        verify(expirationTrackerRepository).save(captor.capture());
-
-        ExpirationTrackerEntity savedEntity = captor.getValue();
-        assertNotNull(savedEntity, "Saved entity should not be null");
-        assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
-        assertTrue(savedEntity.getTransactionList().isEmpty(), "Transaction list should be empty");
+        verify(transactionRepository, times(0)).save(any(TransactionEntity.class));
+        verify(transactionRepository, times(1)).deleteAllInBatch(List.of(transactionEntity));
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(3, loggedEvents.size());
@@ -476,24 +492,25 @@ class ExpirationTrackerEventsHandlerTest {
         transactionEntity.setTimestamp(timestamp);
         transactionEntity.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
         transactionEntity.setPoints(availablePoints);
-        expirationTrackerEntity.addTransaction(transactionEntity);
 
         when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(expirationTrackerEntity);
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class)))
+                .thenReturn(List.of(transactionEntity));
 
         // Act
         expirationTrackerEventsHandler.on(event);
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
+        verify(transactionRepository, times(1)).deleteAllInBatch(List.of());
 
-        ArgumentCaptor<ExpirationTrackerEntity> captor = ArgumentCaptor.forClass(ExpirationTrackerEntity.class);
-        verify(expirationTrackerRepository).save(captor.capture());
+        ArgumentCaptor<TransactionEntity> captor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository).save(captor.capture());
 
-        ExpirationTrackerEntity savedEntity = captor.getValue();
+        TransactionEntity savedEntity = captor.getValue();
         assertNotNull(savedEntity, "Saved entity should not be null");
-        assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
-        assertEquals(1, savedEntity.getTransactionList().size(), "Transaction list should have one transaction");
+        assertEquals(TEST_TRANSACTION_ID, savedEntity.getTransactionId());
+        assertEquals(availablePoints - TEST_POINTS, savedEntity.getPoints(), "Transaction does not have expected points");
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(2, loggedEvents.size());
@@ -520,6 +537,43 @@ class ExpirationTrackerEventsHandlerTest {
         );
     }
 
+    @Test
+    @DisplayName("Can update ExpirationTrackerEntity on valid AuthorizedTransactionCreatedEvent spanning several transactions in loyaltyBank")
+    void testOn_whenValidAuthorizedTransactionCreatedEventReceivedSpanningSeveralTransactions_shouldOnlyUpdateConsumedTransactions() {
+        // Arrange
+        AuthorizedTransactionCreatedEvent event = AuthorizedTransactionCreatedEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .loyaltyBankId(TEST_LOYALTY_BANK_ID)
+                .paymentId(TEST_PAYMENT_ID)
+                .points(TEST_POINTS)
+                .build();
+
+        int pointsPerTransaction = TEST_POINTS * 2 / 3;
+
+        TransactionEntity oldestTransaction = new TransactionEntity(
+                TEST_TRANSACTION_ID, pointsPerTransaction, timestamp, TEST_LOYALTY_BANK_ID);
+        TransactionEntity nextTransaction = new TransactionEntity(
+                UUID.randomUUID().toString(), pointsPerTransaction, timestamp.plusSeconds(1), TEST_LOYALTY_BANK_ID);
+        TransactionEntity newestTransaction = new TransactionEntity(
+                UUID.randomUUID().toString(), pointsPerTransaction, timestamp.plusSeconds(2), TEST_LOYALTY_BANK_ID);
+
+        when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID))
+                .thenReturn(new ExpirationTrackerEntity(TEST_LOYALTY_BANK_ID));
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class)))
+                .thenReturn(List.of(oldestTransaction, nextTransaction, newestTransaction));
+
+        // Act
+        expirationTrackerEventsHandler.on(event);
+
+        // Assert
+        verify(transactionRepository, times(1)).deleteAllInBatch(List.of(oldestTransaction));
+        verify(transactionRepository, times(1)).save(nextTransaction);
+        verify(transactionRepository, times(0)).save(newestTransaction);
+
+        assertEquals(pointsPerTransaction * 2 - TEST_POINTS, nextTransaction.getPoints(), "Transaction does not have expected points");
+        assertEquals(pointsPerTransaction, newestTransaction.getPoints(), "Newest transaction should not be touched");
+    }
+
     @Test
     @DisplayName("Cannot update ExpirationTrackerEntity on valid AuthorizedTransactionCreatedEvent for more than available points in loyaltyBank")
     void testOn_whenValidAuthorizedTransactionCreatedEventReceivedForMoreThanAvailablePointsInLoyaltyBank_shouldThrowException() {
@@ -539,9 +593,10 @@ class ExpirationTrackerEventsHandlerTest {
         transactionEntity.setTimestamp(timestamp);
         transactionEntity.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
         transactionEntity.setPoints(availablePoints);
-        expirationTrackerEntity.addTransaction(transactionEntity);
 
         when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(expirationTrackerEntity);
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class)))
+                .thenReturn(List.of(transactionEntity));
 
         // Act & Assert
         IllegalProjectionStateException exception = assertThrows(IllegalProjectionStateException.class, () -> {
@@ -550,7 +605,8 @@ class ExpirationTrackerEventsHandlerTest {
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
+        verify(transactionRepository, times(0)).save(any(TransactionEntity.class));
+        verify(transactionRepository, times(0)).deleteAllInBatch(any());
 
         String expectedMessage = String.format(
                 AUTHORIZED_MORE_POINTS_THAN_EARNED_CANNOT_PROCESS_AUTHORIZATION_EVENT_FOR_EXPIRATION_TRACKER,
@@ -625,24 +681,24 @@ class ExpirationTrackerEventsHandlerTest {
         ExpirationTrackerEntity expirationTrackerEntity = new ExpirationTrackerEntity(TEST_LOYALTY_BANK_ID);
 
         when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(expirationTrackerEntity);
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class))).thenReturn(List.of());
 
         // Act
         expirationTrackerEventsHandler.on(event, timestamp);
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
+        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
 
-        ArgumentCaptor<ExpirationTrackerEntity> captor = ArgumentCaptor.forClass(ExpirationTrackerEntity.class);
-        verify(expirationTrackerRepository).save(captor.capture());
+        ArgumentCaptor<TransactionEntity> captor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository).save(captor.capture());
 
-        ExpirationTrackerEntity savedEntity = captor.getValue();
+        TransactionEntity savedEntity = captor.getValue();
         assertNotNull(savedEntity, "Saved entity should not be null");
         assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
-        assertEquals(1, savedEntity.getTransactionList().size(), "Transaction list should have one transaction");
 
         int expectedPoints = event.getPoints() + availablePoints;
-        assertEquals(expectedPoints, savedEntity.getTransactionList().get(0).getPoints(), "Transaction does not have expected points");
+        assertEquals(expectedPoints, savedEntity.getPoints(), "Transaction does not have expected points");
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(2, loggedEvents.size());
@@ -686,27 +742,27 @@ class ExpirationTrackerEventsHandlerTest {
         transactionEntity.setTimestamp(timestamp);
         transactionEntity.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
         transactionEntity.setPoints(availablePoints);
-        expirationTrackerEntity.addTransaction(transactionEntity);
 
         when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(expirationTrackerEntity);
+        when(transactionRepository.findOldestTransactions(eq(TEST_LOYALTY_BANK_ID), any(Limit.class)))
+                .thenReturn(List.of(transactionEntity));
 
         // Act
         expirationTrackerEventsHandler.on(event, timestamp);
 
         // Assert
         verify(expirationTrackerRepository, times(1)).findByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
-        verify(expirationTrackerRepository, times(1)).save(any(ExpirationTrackerEntity.class));
+        verify(expirationTrackerRepository, times(0)).save(any(ExpirationTrackerEntity.class));
 
-        ArgumentCaptor<ExpirationTrackerEntity> captor = ArgumentCaptor.forClass(ExpirationTrackerEntity.class);
-        verify(expirationTrackerRepository).save(captor.capture());
+        ArgumentCaptor<TransactionEntity> captor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository).save(captor.capture());
 
-        ExpirationTrackerEntity savedEntity = captor.getValue();
+        TransactionEntity savedEntity = captor.getValue();
         assertNotNull(savedEntity, "Saved entity should not be null");
         assertEquals(TEST_LOYALTY_BANK_ID, savedEntity.getLoyaltyBankId());
-        assertEquals(1, savedEntity.getTransactionList().size(), "Transaction list should have one transaction");
 
         int expectedPoints = event.getPoints() + availablePoints;
-        assertEquals(expectedPoints, savedEntity.getTransactionList().get(0).getPoints(), "Transaction does not have expected points");
+        assertEquals(expectedPoints, savedEntity.getPoints(), "Transaction does not have expected points");
 
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(2, loggedEvents.size());
@@ -757,4 +813,77 @@ class ExpirationTrackerEventsHandlerTest {
         List<ILoggingEvent> loggedEvents = listAppender.list;
         assertEquals(0, loggedEvents.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Can delete every transaction of loyaltyBank on valid AllPointsExpiredEvent")
+    void testOn_whenValidAllPointsExpiredEventReceived_shouldDeleteTransactions() {
+        // Arrange
+        AllPointsExpiredEvent event = AllPointsExpiredEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .loyaltyBankId(TEST_LOYALTY_BANK_ID)
+                .accountId(TEST_ACCOUNT_ID)
+                .businessId(TEST_BUSINESS_ID)
+                .pointsExpired(TEST_POINTS)
+                .build();
+
+        when(expirationTrackerRepository.findByLoyaltyBankId(TEST_LOYALTY_BANK_ID))
+                .thenReturn(new ExpirationTrackerEntity(TEST_LOYALTY_BANK_ID));
+        when(transactionRepository.deleteAllByLoyaltyBankId(TEST_LOYALTY_BANK_ID)).thenReturn(2);
+
+        // Act
+        expirationTrackerEventsHandler.on(event);
+
+        // Assert
+        verify(transactionRepository, times(1)).deleteAllByLoyaltyBankId(TEST_LOYALTY_BANK_ID);
+
+        List<ILoggingEvent> loggedEvents = listAppender.list;
+        assertEquals(1, loggedEvents.size());
+
+        loggingEvent = loggedEvents.get(0);
+        assertEquals(Level.INFO, loggingEvent.getLevel());
+        assertEquals(
+                MessageFormatter.format("{} transactions cleared for loyalty bank {}", 2, TEST_LOYALTY_BANK_ID).getMessage(),
+                loggingEvent.getFormattedMessage()
+        );
+    }
+
+    @Test
+    @DisplayName("Can delete every target transaction on valid BatchExpiredTransactionCreatedEvent")
+    void testOn_whenValidBatchExpiredTransactionCreatedEventReceived_shouldDeleteTargetTransactions() {
+        // Arrange
+        String secondTransactionId = UUID.randomUUID().toString();
+        Map<String, Integer> targetTransactions = new LinkedHashMap<>();
+        targetTransactions.put(TEST_TRANSACTION_ID, TEST_POINTS);
+        targetTransactions.put(secondTransactionId, TEST_POINTS);
+
+        BatchExpiredTransactionCreatedEvent event = BatchExpiredTransactionCreatedEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .loyaltyBankId(TEST_LOYALTY_BANK_ID)
+                .targetTransactions(targetTransactions)
+                .points(TEST_POINTS * 2)
+                .build();
+
+        List<TransactionEntity> transactionEntities = List.of(
+                new TransactionEntity(TEST_TRANSACTION_ID, TEST_POINTS, timestamp, TEST_LOYALTY_BANK_ID),
+                new TransactionEntity(secondTransactionId, TEST_POINTS, timestamp, TEST_LOYALTY_BANK_ID)
+        );
+
+        when(transactionRepository.findAllById(targetTransactions.keySet())).thenReturn(transactionEntities);
+
+        // Act
+        expirationTrackerEventsHandler.on(event);
+
+        // Assert
+        verify(transactionRepository, times(1)).deleteAllInBatch(transactionEntities);
+
+        List<ILoggingEvent> loggedEvents = listAppender.list;
+        assertEquals(1, loggedEvents.size());
+
+        loggingEvent = loggedEvents.get(0);
+        assertEquals(Level.INFO, loggingEvent.getLevel());
+        assertEquals(
+                MessageFormatter.format("Removed {} transactions for loyalty bank {} due to expiration", 2, TEST_LOYALTY_BANK_ID).getMessage(),
+                loggingEvent.getFormattedMessage()
+        );
+    }
+}
@@ -6,8 +6,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import loyalty.service.command.commands.CreateAccountCommand;
 import loyalty.service.command.rest.requests.CreateAccountRequestModel;
 import loyalty.service.command.rest.responses.AccountCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
 import org.axonframework.eventhandling.gateway.EventGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -22,13 +26,19 @@ import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @WebMvcTest(controllers = AccountCommandController.class)
+@Import(ConsistencyTokens.class)
 @ExtendWith(MockitoExtension.class)
 class AccountCommandControllerTest {
 
@@ -41,6 +51,9 @@ class AccountCommandControllerTest {
     @MockBean
     EventGateway eventGateway;
 
+    @MockBean
+    EventStore eventStore;
+
     private static final String TEST_FIRST_NAME = "John";
     private static final String TEST_LAST_NAME = "Doe";
     private static final String TEST_EMAIL = "test@test.com";
@@ -57,10 +70,10 @@ class AccountCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(createAccountRequestModel));
 
-        when(commandGateway.sendAndWait(any(CreateAccountCommand.class))).thenReturn(TEST_ACCOUNT_ID);
+        when(commandGateway.send(any(CreateAccountCommand.class))).thenReturn(CompletableFuture.completedFuture(TEST_ACCOUNT_ID));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder);
         AccountCreatedResponseModel accountCreatedResponseModel = convertResponseToAccountCreatedResponseModel(mvcResult);
 
         // Assert
@@ -81,10 +94,10 @@ class AccountCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(createAccountRequestModel));
 
-        when(commandGateway.sendAndWait(any(CreateAccountCommand.class))).thenReturn(TEST_ACCOUNT_ID);
+        when(commandGateway.send(any(CreateAccountCommand.class))).thenReturn(CompletableFuture.completedFuture(TEST_ACCOUNT_ID));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder);
         AccountCreatedResponseModel accountCreatedResponseModel = convertResponseToAccountCreatedResponseModel(mvcResult);
 
         // Assert
@@ -93,6 +106,32 @@ class AccountCommandControllerTest {
         assertEquals(TEST_ACCOUNT_ID, accountCreatedResponseModel.getAccountId(), "AccountIds should match");
     }
 
+    @Test
+    @DisplayName("Returns the event store head as consistency token once the command completed")
+    void testCreateAccount_whenCommandCompletes_shouldReturnConsistencyTokenHeader() throws Exception {
+        // Arrange
+        CreateAccountRequestModel createAccountRequestModel = new CreateAccountRequestModel(TEST_FIRST_NAME, TEST_LAST_NAME, TEST_EMAIL);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/account")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(createAccountRequestModel));
+
+        when(commandGateway.send(any(CreateAccountCommand.class))).thenReturn(CompletableFuture.completedFuture(TEST_ACCOUNT_ID));
+        when(eventStore.createHeadToken()).thenReturn(GapAwareTrackingToken.newInstance(42L, Collections.emptySet()));
+
+        // Act
+        MvcResult mvcResult = performAsync(requestBuilder);
+
+        // Assert
+        assertEquals("42", mvcResult.getResponse().getHeader(CONSISTENCY_TOKEN_HEADER), "Consistency token should be the head of the event store");
+    }
+
+    private MvcResult performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult)).andReturn();
+    }
+
     private AccountCreatedResponseModel convertResponseToAccountCreatedResponseModel(MvcResult mvcResult) throws UnsupportedEncodingException, JsonProcessingException {
         String responseBodyAsString = mvcResult.getResponse().getContentAsString();
 
@@ -6,14 +6,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import loyalty.service.command.commands.AbstractCommand;
 import loyalty.service.command.commands.transactions.*;
 import loyalty.service.command.rest.requests.CreateLoyaltyRedemptionTransactionRequestModel;
+import loyalty.service.command.rest.requests.CreateLoyaltyTransactionBatchRequestModel;
 import loyalty.service.command.rest.requests.CreateLoyaltyTransactionRequestModel;
+import loyalty.service.command.rest.requests.LoyaltyTransactionBatchItemRequestModel;
 import loyalty.service.command.rest.responses.RedemptionTransactionCreatedResponseModel;
 import loyalty.service.command.rest.responses.TransactionCreatedResponseModel;
+import loyalty.service.command.service.ConsistencyTokens;
+import loyalty.service.command.service.TransactionBatchService;
 import loyalty.service.core.exceptions.ExcessiveCapturePointsException;
 import loyalty.service.core.exceptions.ExcessiveVoidPointsException;
 import loyalty.service.core.exceptions.LoyaltyBankNotFoundException;
 import loyalty.service.core.exceptions.PaymentIdNotFoundException;
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,21 +30,30 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.io.UnsupportedEncodingException;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import static loyalty.service.command.rest.requests.enums.BatchTransactionType.*;
+import static loyalty.service.core.constants.ExceptionMessages.FAILED_TO_PROCESS_TRANSACTION;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = LoyaltyTransactionsCommandController.class)
+@Import({TransactionBatchService.class, ConsistencyTokens.class})
 @ExtendWith(MockitoExtension.class)
 class LoyaltyTransactionsCommandControllerTest {
 
@@ -48,9 +63,17 @@ class LoyaltyTransactionsCommandControllerTest {
     @MockBean
     private CommandGateway commandGateway;
 
+    @MockBean
+    private EventStore eventStore;
+
     private static final String TEST_LOYALTY_BANK_ID = UUID.randomUUID().toString();
     private static final int TEST_POINTS = 100;
 
+    @BeforeEach
+    void setUp() {
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
     // Test for creating a pending transaction
     @Test
     @DisplayName("Can create a pending transaction")
@@ -63,7 +86,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         TransactionCreatedResponseModel responseModel = convertResponseToTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -83,7 +106,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         TransactionCreatedResponseModel responseModel = convertResponseToTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -103,7 +126,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         TransactionCreatedResponseModel responseModel = convertResponseToTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -123,7 +146,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         RedemptionTransactionCreatedResponseModel responseModel = convertResponseToRedemptionTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -145,7 +168,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         TransactionCreatedResponseModel responseModel = convertResponseToTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -165,7 +188,7 @@ class LoyaltyTransactionsCommandControllerTest {
                 .content(new ObjectMapper().writeValueAsString(request));
 
         // Act
-        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        MvcResult mvcResult = performAsync(requestBuilder).andReturn();
         TransactionCreatedResponseModel responseModel = convertResponseToTransactionCreatedResponseModel(mvcResult);
 
         // Assert
@@ -200,10 +223,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new ExcessiveVoidPointsException()).when(commandGateway).sendAndWait(any(CreateVoidTransactionCommand.class));
+        when(commandGateway.send(any(CreateVoidTransactionCommand.class))).thenReturn(CompletableFuture.failedFuture(new ExcessiveVoidPointsException()));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isUnprocessableEntity());
     }
 
@@ -218,10 +241,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new ExcessiveCapturePointsException()).when(commandGateway).sendAndWait(any(CreateCapturedTransactionCommand.class));
+        when(commandGateway.send(any(CreateCapturedTransactionCommand.class))).thenReturn(CompletableFuture.failedFuture(new ExcessiveCapturePointsException()));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isUnprocessableEntity());
     }
 
@@ -236,10 +259,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new PaymentIdNotFoundException(request.getPaymentId())).when(commandGateway).sendAndWait(any(CreateVoidTransactionCommand.class));
+        when(commandGateway.send(any(CreateVoidTransactionCommand.class))).thenReturn(CompletableFuture.failedFuture(new PaymentIdNotFoundException(request.getPaymentId())));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isNotFound());
     }
 
@@ -255,10 +278,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new LoyaltyBankNotFoundException(request.getLoyaltyBankId())).when(commandGateway).sendAndWait(any(AbstractCommand.class));
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.failedFuture(new LoyaltyBankNotFoundException(request.getLoyaltyBankId())));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isNotFound());
     }
 
@@ -274,10 +297,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new LoyaltyBankNotFoundException(request.getLoyaltyBankId())).when(commandGateway).sendAndWait(any(AbstractCommand.class));
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.failedFuture(new LoyaltyBankNotFoundException(request.getLoyaltyBankId())));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isNotFound());
     }
 
@@ -293,10 +316,10 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new RuntimeException("Internal server error")).when(commandGateway).sendAndWait(any(AbstractCommand.class));
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Internal server error")));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isInternalServerError());
     }
 
@@ -312,13 +335,131 @@ class LoyaltyTransactionsCommandControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(request));
 
-        doThrow(new RuntimeException("Internal server error")).when(commandGateway).sendAndWait(any(AbstractCommand.class));
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Internal server error")));
 
         // Act & Assert
-        mockMvc.perform(requestBuilder)
+        performAsync(requestBuilder)
                 .andExpect(status().isInternalServerError());
     }
 
+    // Test for creating a batch of transactions
+    @Test
+    @DisplayName("Can create a batch of mixed transactions")
+    void testCreateTransactionBatch_whenCorrectDetailsProvided_shouldReturnRequestIdPerTransaction() throws Exception {
+        // Arrange
+        CreateLoyaltyTransactionBatchRequestModel request = new CreateLoyaltyTransactionBatchRequestModel(List.of(
+                new LoyaltyTransactionBatchItemRequestModel(PENDING, TEST_LOYALTY_BANK_ID, TEST_POINTS),
+                new LoyaltyTransactionBatchItemRequestModel(EARN, TEST_LOYALTY_BANK_ID, TEST_POINTS),
+                new LoyaltyTransactionBatchItemRequestModel(AWARD, TEST_LOYALTY_BANK_ID, TEST_POINTS)
+        ));
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/transaction/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request));
+
+        when(commandGateway.send(any(AbstractCommand.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        MvcResult mvcResult = performAsync(requestBuilder).andExpect(status().isOk()).andReturn();
+        JsonNode jsonNode = new ObjectMapper().readTree(mvcResult.getResponse().getContentAsString());
+
+        // Assert
+        assertEquals(3, jsonNode.get("succeeded").asInt(), "All transactions should succeed");
+        assertEquals(0, jsonNode.get("failed").asInt(), "No transactions should fail");
+        for (int index = 0; index < 3; index++) {
+            JsonNode result = jsonNode.get("results").get(index);
+            assertEquals(index, result.get("index").asInt(), "Results should keep the request order");
+            assertDoesNotThrow(() -> UUID.fromString(result.get("requestId").asText()), "RequestId should be a valid UUID");
+        }
+        verify(commandGateway, times(1)).send(any(CreatePendingTransactionCommand.class));
+        verify(commandGateway, times(1)).send(any(CreateEarnedTransactionCommand.class));
+        verify(commandGateway, times(1)).send(any(CreateAwardedTransactionCommand.class));
+    }
+
+    // Edge case: Batch with failing transactions
+    @Test
+    @DisplayName("Failed transactions in a batch should be reported per item")
+    void testCreateTransactionBatch_whenLoyaltyBankNotFound_shouldReturnErrorForFailedItem() throws Exception {
+        // Arrange
+        String missingLoyaltyBankId = UUID.randomUUID().toString();
+        CreateLoyaltyTransactionBatchRequestModel request = new CreateLoyaltyTransactionBatchRequestModel(List.of(
+                new LoyaltyTransactionBatchItemRequestModel(EARN, TEST_LOYALTY_BANK_ID, TEST_POINTS),
+                new LoyaltyTransactionBatchItemRequestModel(EARN, missingLoyaltyBankId, TEST_POINTS)
+        ));
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/transaction/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request));
+
+        when(commandGateway.send(any(AbstractCommand.class))).thenAnswer(invocation -> {
+            CreateEarnedTransactionCommand command = invocation.getArgument(0);
+            return missingLoyaltyBankId.equals(command.getLoyaltyBankId())
+                    ? CompletableFuture.failedFuture(new LoyaltyBankNotFoundException(missingLoyaltyBankId))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        // Act
+        MvcResult mvcResult = performAsync(requestBuilder).andExpect(status().isOk()).andReturn();
+        JsonNode jsonNode = new ObjectMapper().readTree(mvcResult.getResponse().getContentAsString());
+
+        // Assert
+        assertEquals(1, jsonNode.get("succeeded").asInt(), "One transaction should succeed");
+        assertEquals(1, jsonNode.get("failed").asInt(), "One transaction should fail");
+        JsonNode failedResult = jsonNode.get("results").get(1);
+        assertTrue(failedResult.get("requestId").isNull(), "Failed transaction should not have a requestId");
+        assertEquals(404, failedResult.get("status").asInt(), "Failed transaction should have the status of a missing loyalty bank");
+        assertEquals(new LoyaltyBankNotFoundException(missingLoyaltyBankId).getLocalizedMessage(), failedResult.get("error").asText());
+    }
+
+    // Edge case: Batch with an unexpected failure
+    @Test
+    @DisplayName("Unexpected failures in a batch should be reported without their details")
+    void testCreateTransactionBatch_whenUnexpectedFailure_shouldReturnGenericErrorForFailedItem() throws Exception {
+        // Arrange
+        CreateLoyaltyTransactionBatchRequestModel request = new CreateLoyaltyTransactionBatchRequestModel(List.of(
+                new LoyaltyTransactionBatchItemRequestModel(EARN, TEST_LOYALTY_BANK_ID, TEST_POINTS)
+        ));
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/transaction/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request));
+
+        when(commandGateway.send(any(AbstractCommand.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection to jdbc:postgresql://db refused")));
+
+        // Act
+        MvcResult mvcResult = performAsync(requestBuilder).andExpect(status().isOk()).andReturn();
+        JsonNode jsonNode = new ObjectMapper().readTree(mvcResult.getResponse().getContentAsString());
+
+        // Assert
+        assertEquals(1, jsonNode.get("failed").asInt(), "The transaction should fail");
+        JsonNode failedResult = jsonNode.get("results").get(0);
+        assertEquals(500, failedResult.get("status").asInt(), "Unexpected failure should have an internal error status");
+        assertEquals(String.format(FAILED_TO_PROCESS_TRANSACTION, TEST_LOYALTY_BANK_ID), failedResult.get("error").asText());
+    }
+
+    // Edge case: Empty batch
+    @Test
+    @DisplayName("Empty batch should return 400 Bad Request")
+    void testCreateTransactionBatch_whenEmpty_shouldReturn400BadRequest() throws Exception {
+        // Arrange
+        CreateLoyaltyTransactionBatchRequestModel request = new CreateLoyaltyTransactionBatchRequestModel(List.of());
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/transaction/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request));
+
+        // Act & Assert
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest());
+        verify(commandGateway, never()).send(any());
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
+
     private TransactionCreatedResponseModel convertResponseToTransactionCreatedResponseModel(MvcResult mvcResult) throws UnsupportedEncodingException, JsonProcessingException {
         String responseBodyAsString = mvcResult.getResponse().getContentAsString();
         ObjectMapper objectMapper = new ObjectMapper();
@@ -0,0 +1,79 @@
+package loyalty.service.command.service;
+
+import loyalty.service.command.data.repositories.AccountLookupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountEmailFilterTest {
+
+    @Mock
+    private AccountLookupRepository accountLookupRepository;
+
+    private AccountEmailFilter accountEmailFilter;
+
+    private static final String TEST_EMAIL = "test@test.com";
+    private static final String TEST_OTHER_EMAIL = "other@test.com";
+
+    @BeforeEach
+    void setup() {
+        accountEmailFilter = new AccountEmailFilter(accountLookupRepository, true, 1000, 0.001);
+        lenient().when(accountLookupRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(anyString(), any(Limit.class)))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Keeps emails added before the first build")
+    void testBuild_whenEmailAddedBeforeBuild_shouldContainEmail() {
+        // Arrange
+        accountEmailFilter.put(TEST_EMAIL);
+
+        // Act
+        accountEmailFilter.build();
+
+        // Assert
+        assertTrue(accountEmailFilter.mightContain(TEST_EMAIL));
+        assertFalse(accountEmailFilter.mightContain(TEST_OTHER_EMAIL));
+    }
+
+    @Test
+    @DisplayName("Carries emails added since the previous rebuild into the next filter")
+    void testRebuild_whenLookupRowNotYetWritten_shouldKeepEmailForOneMoreRebuild() {
+        // Arrange
+        accountEmailFilter.build();
+        accountEmailFilter.put(TEST_EMAIL);
+
+        // Act
+        accountEmailFilter.rebuild();
+
+        // Assert
+        assertTrue(accountEmailFilter.mightContain(TEST_EMAIL));
+
+        // Act
+        accountEmailFilter.rebuild();
+
+        // Assert
+        assertFalse(accountEmailFilter.mightContain(TEST_EMAIL));
+    }
+
+    @Test
+    @DisplayName("Reports every email as possibly taken until the first build")
+    void testMightContain_whenNotBuilt_shouldReturnTrue() {
+        // Act & Assert
+        assertTrue(accountEmailFilter.mightContain(TEST_OTHER_EMAIL));
+        verifyNoInteractions(accountLookupRepository);
+    }
+}
@@ -0,0 +1,171 @@
+package loyalty.service.command.service;
+
+import loyalty.service.command.data.entities.ExpirationShardLeaseEntity;
+import loyalty.service.command.data.repositories.ExpirationShardLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpirationShardLeaseServiceTest {
+
+    @Mock
+    private ExpirationShardLeaseRepository expirationShardLeaseRepository;
+
+    @Mock
+    private ObjectProvider<DiscoveryClient> discoveryClientProvider;
+
+    @Mock
+    private ObjectProvider<Registration> registrationProvider;
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @Mock
+    private Registration registration;
+
+    private ExpirationShardLeaseService expirationShardLeaseService;
+
+    private static final String TEST_APPLICATION_NAME = "loyalty-command-api";
+    private static final String TEST_INSTANCE_ID = "instance-b";
+    private static final String TEST_OTHER_INSTANCE_ID = "instance-a";
+    private static final long TEST_LEASE_SECONDS = 600;
+    private static final ExpirationShard TEST_SHARD = ExpirationShard.split(4).get(0);
+
+    @BeforeEach
+    void setup() {
+        when(discoveryClientProvider.getIfAvailable()).thenReturn(discoveryClient);
+        when(registrationProvider.getIfAvailable()).thenReturn(registration);
+        when(registration.getInstanceId()).thenReturn(TEST_INSTANCE_ID);
+
+        expirationShardLeaseService = new ExpirationShardLeaseService(
+                expirationShardLeaseRepository, discoveryClientProvider, registrationProvider,
+                TEST_APPLICATION_NAME, TEST_LEASE_SECONDS
+        );
+    }
+
+    @Test
+    @DisplayName("Creates the missing lease and acquires it for the lease duration")
+    void testTryAcquire_whenLeaseMissing_shouldCreateAndAcquireLease() {
+        // Arrange
+        when(expirationShardLeaseRepository.existsById(TEST_SHARD.id())).thenReturn(false);
+        when(expirationShardLeaseRepository.acquire(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+
+        // Act
+        boolean acquired = expirationShardLeaseService.tryAcquire(TEST_SHARD);
+
+        // Assert
+        assertTrue(acquired);
+        verify(expirationShardLeaseRepository).saveAndFlush(any(ExpirationShardLeaseEntity.class));
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> leaseUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(expirationShardLeaseRepository).acquire(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), now.capture(), leaseUntil.capture());
+        assertEquals(Duration.ofSeconds(TEST_LEASE_SECONDS), Duration.between(now.getValue(), leaseUntil.getValue()));
+    }
+
+    @Test
+    @DisplayName("Acquires the lease when another instance created it concurrently")
+    void testTryAcquire_whenLeaseCreatedConcurrently_shouldAcquireLease() {
+        // Arrange
+        when(expirationShardLeaseRepository.existsById(TEST_SHARD.id())).thenReturn(false);
+        when(expirationShardLeaseRepository.saveAndFlush(any(ExpirationShardLeaseEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(expirationShardLeaseRepository.acquire(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
+
+        // Act & Assert
+        assertTrue(expirationShardLeaseService.tryAcquire(TEST_SHARD));
+    }
+
+    @Test
+    @DisplayName("Does not acquire a lease held by another instance")
+    void testTryAcquire_whenLeasedByAnotherInstance_shouldReturnFalse() {
+        // Arrange
+        when(expirationShardLeaseRepository.existsById(TEST_SHARD.id())).thenReturn(true);
+        when(expirationShardLeaseRepository.acquire(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), any(Instant.class), any(Instant.class)))
+                .thenReturn(0);
+
+        // Act
+        boolean acquired = expirationShardLeaseService.tryAcquire(TEST_SHARD);
+
+        // Assert
+        assertFalse(acquired);
+        verify(expirationShardLeaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Extends a held lease and reports a lease taken over once it expired")
+    void testRenew_whenLeaseExpiredAndTakenOver_shouldReturnFalse() {
+        // Arrange
+        when(expirationShardLeaseRepository.existsById(TEST_SHARD.id())).thenReturn(true);
+        when(expirationShardLeaseRepository.acquire(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), any(Instant.class), any(Instant.class)))
+                .thenReturn(1, 0);
+
+        // Act & Assert
+        assertTrue(expirationShardLeaseService.renew(TEST_SHARD));
+        assertFalse(expirationShardLeaseService.renew(TEST_SHARD));
+    }
+
+    @Test
+    @DisplayName("Releases only the lease held by this instance")
+    void testRelease_shouldReleaseOwnLease() {
+        // Act
+        expirationShardLeaseService.release(TEST_SHARD);
+
+        // Assert
+        verify(expirationShardLeaseRepository).release(eq(TEST_SHARD.id()), eq(TEST_INSTANCE_ID), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Tries the shards assigned by the instance's position among the live instances first")
+    void testPreferredOrder_whenSecondOfTwoInstances_shouldStartWithOddShards() {
+        // Arrange
+        List<ServiceInstance> instances = List.of(serviceInstance(TEST_INSTANCE_ID), serviceInstance(TEST_OTHER_INSTANCE_ID));
+        when(discoveryClient.getInstances(TEST_APPLICATION_NAME)).thenReturn(instances);
+
+        // Act
+        List<ExpirationShard> order = expirationShardLeaseService.preferredOrder(ExpirationShard.split(4));
+
+        // Assert
+        assertEquals(List.of(1, 3, 0, 2), order.stream().map(ExpirationShard::index).toList());
+    }
+
+    @Test
+    @DisplayName("Tries every shard in order when the live instances cannot be listed")
+    void testPreferredOrder_whenDiscoveryFails_shouldKeepOrder() {
+        // Arrange
+        when(discoveryClient.getInstances(TEST_APPLICATION_NAME)).thenThrow(new IllegalStateException("registry unavailable"));
+
+        // Act
+        List<ExpirationShard> order = expirationShardLeaseService.preferredOrder(ExpirationShard.split(4));
+
+        // Assert
+        assertEquals(List.of(0, 1, 2, 3), order.stream().map(ExpirationShard::index).toList());
+    }
+
+    private static ServiceInstance serviceInstance(String instanceId) {
+        ServiceInstance serviceInstance = mock(ServiceInstance.class);
+        when(serviceInstance.getInstanceId()).thenReturn(instanceId);
+        return serviceInstance;
+    }
+}
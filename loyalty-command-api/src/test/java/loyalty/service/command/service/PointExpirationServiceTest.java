@@ -0,0 +1,205 @@
+package loyalty.service.command.service;
+
+import loyalty.service.command.commands.transactions.CreateBatchExpirePointsTransactionCommand;
+import loyalty.service.command.data.entities.ExpirationCheckpointEntity;
+import loyalty.service.command.data.entities.TransactionEntity;
+import loyalty.service.command.data.repositories.ExpirationCheckpointRepository;
+import loyalty.service.command.data.repositories.TransactionRepository;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static loyalty.service.command.service.PointExpirationService.CHECKPOINT_PREFIX;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PointExpirationServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ExpirationCheckpointRepository expirationCheckpointRepository;
+
+    @Mock
+    private ExpirationShardLeaseService expirationShardLeaseService;
+
+    @Mock
+    private CommandGateway commandGateway;
+
+    private PointExpirationService pointExpirationService;
+
+    private static final ExpirationShard TEST_SHARD = ExpirationShard.split(1).get(0);
+    private static final Instant TEST_EXPIRATION_DATE = Instant.parse("2026-01-01T00:00:00Z");
+    private static final String TEST_REQUEST_ID = UUID.randomUUID().toString();
+    private static final String TEST_LOYALTY_BANK_ID = "1" + UUID.randomUUID().toString().substring(1);
+    private static final String TEST_OTHER_LOYALTY_BANK_ID = "2" + UUID.randomUUID().toString().substring(1);
+    private static final long TEST_LEASE_SECONDS = 600;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(expirationShardLeaseService.preferredOrder(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pointExpirationService != null) {
+            pointExpirationService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Skips a shard leased by another instance")
+    void testExpireTransactionsBeforeDate_whenShardLeasedByAnotherInstance_shouldSkipShard() {
+        // Arrange
+        pointExpirationService = pointExpirationService(TEST_LEASE_SECONDS);
+        when(expirationShardLeaseService.tryAcquire(TEST_SHARD)).thenReturn(false);
+
+        // Act
+        PointExpirationSummary summary = pointExpirationService.expireTransactionsBeforeDate(TEST_EXPIRATION_DATE, TEST_REQUEST_ID);
+
+        // Assert
+        assertEquals(0, summary.getShardsExpired());
+        verifyNoInteractions(transactionRepository, commandGateway);
+        verify(expirationShardLeaseService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Skips a shard already completed for the cutoff")
+    void testExpireTransactionsBeforeDate_whenShardCompletedForCutoff_shouldSkipShard() {
+        // Arrange
+        pointExpirationService = pointExpirationService(TEST_LEASE_SECONDS);
+        ExpirationCheckpointEntity checkpoint = new ExpirationCheckpointEntity(CHECKPOINT_PREFIX + TEST_SHARD.id());
+        checkpoint.setExpirationDate(TEST_EXPIRATION_DATE);
+        checkpoint.setCompleted(true);
+        when(expirationShardLeaseService.tryAcquire(TEST_SHARD)).thenReturn(true);
+        when(expirationCheckpointRepository.findByCheckpointId(CHECKPOINT_PREFIX + TEST_SHARD.id())).thenReturn(checkpoint);
+
+        // Act
+        PointExpirationSummary summary = pointExpirationService.expireTransactionsBeforeDate(TEST_EXPIRATION_DATE, TEST_REQUEST_ID);
+
+        // Assert
+        assertEquals(0, summary.getShardsExpired());
+        verifyNoInteractions(transactionRepository, commandGateway);
+        verify(expirationShardLeaseService).release(TEST_SHARD);
+    }
+
+    @Test
+    @DisplayName("Dispatches one command per loyalty bank and completes the shard's checkpoint")
+    void testExpireTransactionsBeforeDate_whenTransactionsExpired_shouldCompleteCheckpoint() {
+        // Arrange
+        pointExpirationService = pointExpirationService(TEST_LEASE_SECONDS);
+        TransactionEntity first = transaction(TEST_LOYALTY_BANK_ID, 10);
+        TransactionEntity second = transaction(TEST_LOYALTY_BANK_ID, 20);
+        TransactionEntity third = transaction(TEST_OTHER_LOYALTY_BANK_ID, 30);
+        when(expirationShardLeaseService.tryAcquire(TEST_SHARD)).thenReturn(true);
+        when(transactionRepository.findExpiredTransactions(any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(first, second, third));
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        PointExpirationSummary summary = pointExpirationService.expireTransactionsBeforeDate(TEST_EXPIRATION_DATE, TEST_REQUEST_ID);
+
+        // Assert
+        assertEquals(1, summary.getShardsExpired());
+        assertEquals(3, summary.getTransactionsExpired());
+        assertEquals(60, summary.getPointsExpired());
+
+        ArgumentCaptor<CreateBatchExpirePointsTransactionCommand> commands =
+                ArgumentCaptor.forClass(CreateBatchExpirePointsTransactionCommand.class);
+        verify(commandGateway, times(2)).send(commands.capture());
+        assertEquals(30, commands.getAllValues().get(0).getPoints());
+        assertEquals(30, commands.getAllValues().get(1).getPoints());
+
+        ArgumentCaptor<ExpirationCheckpointEntity> checkpoint = ArgumentCaptor.forClass(ExpirationCheckpointEntity.class);
+        verify(expirationCheckpointRepository, times(2)).save(checkpoint.capture());
+        assertTrue(checkpoint.getValue().isCompleted());
+        assertEquals(third.getTransactionId(), checkpoint.getValue().getLastTransactionId());
+        verify(expirationShardLeaseService).release(TEST_SHARD);
+    }
+
+    @Test
+    @DisplayName("Renews the lease while the dispatched commands are still in flight")
+    void testExpireTransactionsBeforeDate_whenCommandsOutlastRenewInterval_shouldRenewLease() {
+        // Arrange
+        pointExpirationService = pointExpirationService(1);
+        CompletableFuture<Object> inFlight = new CompletableFuture<>();
+        when(expirationShardLeaseService.tryAcquire(TEST_SHARD)).thenReturn(true);
+        when(transactionRepository.findExpiredTransactions(any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(transaction(TEST_LOYALTY_BANK_ID, 10)));
+        when(commandGateway.send(any())).thenReturn(inFlight);
+        // The command only completes once the lease has been renewed while awaiting it
+        when(expirationShardLeaseService.renew(TEST_SHARD)).thenAnswer(invocation -> {
+            inFlight.complete(null);
+            return true;
+        });
+
+        // Act
+        PointExpirationSummary summary = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> pointExpirationService.expireTransactionsBeforeDate(TEST_EXPIRATION_DATE, TEST_REQUEST_ID));
+
+        // Assert
+        assertEquals(1, summary.getShardsExpired());
+        assertEquals(1, summary.getTransactionsExpired());
+        verify(expirationShardLeaseService, atLeastOnce()).renew(TEST_SHARD);
+    }
+
+    @Test
+    @DisplayName("Stops at the next loyalty bank once the lease is lost, checkpointing the last dispatched one")
+    void testExpireTransactionsBeforeDate_whenLeaseLost_shouldCheckpointLastDispatchedLoyaltyBank() {
+        // Arrange
+        pointExpirationService = pointExpirationService(0);
+        TransactionEntity dispatched = transaction(TEST_LOYALTY_BANK_ID, 10);
+        TransactionEntity undispatched = transaction(TEST_OTHER_LOYALTY_BANK_ID, 20);
+        when(expirationShardLeaseService.tryAcquire(TEST_SHARD)).thenReturn(true);
+        when(expirationShardLeaseService.renew(TEST_SHARD)).thenReturn(true, false);
+        when(transactionRepository.findExpiredTransactions(any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(dispatched, undispatched));
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        PointExpirationSummary summary = pointExpirationService.expireTransactionsBeforeDate(TEST_EXPIRATION_DATE, TEST_REQUEST_ID);
+
+        // Assert
+        assertEquals(0, summary.getShardsExpired());
+        assertEquals(1, summary.getTransactionsExpired());
+        verify(commandGateway, times(1)).send(any());
+
+        ArgumentCaptor<ExpirationCheckpointEntity> checkpoint = ArgumentCaptor.forClass(ExpirationCheckpointEntity.class);
+        verify(expirationCheckpointRepository, times(1)).save(checkpoint.capture());
+        assertFalse(checkpoint.getValue().isCompleted());
+        assertEquals(TEST_LOYALTY_BANK_ID, checkpoint.getValue().getLastLoyaltyBankId());
+        assertEquals(dispatched.getTransactionId(), checkpoint.getValue().getLastTransactionId());
+        verify(expirationShardLeaseService).release(TEST_SHARD);
+    }
+
+    private PointExpirationService pointExpirationService(long leaseSeconds) {
+        return new PointExpirationService(transactionRepository, expirationCheckpointRepository,
+                expirationShardLeaseService, commandGateway, 1, 10, 10, leaseSeconds);
+    }
+
+    private static TransactionEntity transaction(String loyaltyBankId, int points) {
+        TransactionEntity transactionEntity = new TransactionEntity();
+        transactionEntity.setTransactionId(UUID.randomUUID().toString());
+        transactionEntity.setLoyaltyBankId(loyaltyBankId);
+        transactionEntity.setPoints(points);
+        transactionEntity.setTimestamp(TEST_EXPIRATION_DATE.minus(Duration.ofDays(400)));
+        return transactionEntity;
+    }
+}
@@ -1,7 +1,11 @@
 package loyalty.service;
 
 import loyalty.service.core.errorhandling.LoyaltyServiceEventsErrorHandler;
+import loyalty.service.core.utils.AggregateIdSequencingPolicy;
 import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.async.SequentialPolicy;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -33,5 +37,27 @@ public class LoyaltyQueryApiApplication {
 				configuration -> new LoyaltyServiceEventsErrorHandler());
 		configurer.registerListenerInvocationErrorHandler(ACTIVITY_LOG_GROUP,
 				configuration -> new LoyaltyServiceEventsErrorHandler());
+		configurer.registerListenerInvocationErrorHandler(ENRICHED_LOYALTY_BANK_GROUP,
+				configuration -> new LoyaltyServiceEventsErrorHandler());
+
+		// Events of one loyalty bank, account or business stay in order within a segment, while the segments of
+		// each group are processed in parallel by the worker threads of every running instance
+		for (String group : new String[]{ACCOUNT_GROUP, BUSINESS_GROUP, LOYALTY_BANK_GROUP, ACTIVITY_LOG_GROUP}) {
+			configurer.registerSequencingPolicy(group, configuration -> AggregateIdSequencingPolicy.instance());
+		}
+
+		// Enriched loyalty banks copy account and business names across aggregates, so their events are handled in
+		// the order they were published
+		configurer.registerSequencingPolicy(ENRICHED_LOYALTY_BANK_GROUP, configuration -> new SequentialPolicy());
+
+		// Runs on every instance from its startup, so the subscriptions held here are updated whichever instance
+		// projects the loyalty bank's segment
+		configurer.registerTrackingEventProcessor(
+				LOYALTY_BANK_SUBSCRIPTION_GROUP,
+				org.axonframework.config.Configuration::eventStore,
+				configuration -> TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+						.andInitialTrackingToken(source -> source.createHeadToken())
+		);
+		configurer.registerTokenStore(LOYALTY_BANK_SUBSCRIPTION_GROUP, configuration -> new InMemoryTokenStore());
 	}
 }
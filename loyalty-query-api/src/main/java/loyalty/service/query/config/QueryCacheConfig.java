@@ -0,0 +1,60 @@
+package loyalty.service.query.config;
+
+import loyalty.service.query.queryModels.*;
+import loyalty.service.query.services.ProjectionBatch;
+import loyalty.service.query.services.QueryResultCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Result caches of the queries looking up a single account, business or loyalty bank, and of the enriched loyalty bank
+ * pages. Entries are invalidated by the projections writing the documents, and the ttl bounds how long a result is
+ * kept when an invalidation is missed, e.g. for writes made by another instance's projections. Requests carrying a
+ * consistency token bypass the caches.
+ */
+@Configuration
+public class QueryCacheConfig {
+
+    @Bean
+    public QueryResultCache<AccountQueryModel> accountQueryCache(
+            ProjectionBatch projectionBatch,
+            @Value("${loyalty.query.cache.account.max-size:10000}") long maxSize,
+            @Value("${loyalty.query.cache.account.ttl-seconds:60}") long ttlSeconds) {
+        return new QueryResultCache<>("account", maxSize, Duration.ofSeconds(ttlSeconds), projectionBatch);
+    }
+
+    @Bean
+    public QueryResultCache<BusinessQueryModel> businessQueryCache(
+            ProjectionBatch projectionBatch,
+            @Value("${loyalty.query.cache.business.max-size:10000}") long maxSize,
+            @Value("${loyalty.query.cache.business.ttl-seconds:60}") long ttlSeconds) {
+        return new QueryResultCache<>("business", maxSize, Duration.ofSeconds(ttlSeconds), projectionBatch);
+    }
+
+    @Bean
+    public QueryResultCache<LoyaltyBankQueryModel> loyaltyBankQueryCache(
+            ProjectionBatch projectionBatch,
+            @Value("${loyalty.query.cache.loyalty-bank.max-size:10000}") long maxSize,
+            @Value("${loyalty.query.cache.loyalty-bank.ttl-seconds:10}") long ttlSeconds) {
+        return new QueryResultCache<>("loyaltyBank", maxSize, Duration.ofSeconds(ttlSeconds), projectionBatch);
+    }
+
+    @Bean
+    public QueryResultCache<EnrichedLoyaltyBanksForAccountQueryModel> enrichedLoyaltyBanksForAccountQueryCache(
+            ProjectionBatch projectionBatch,
+            @Value("${loyalty.query.cache.enriched-loyalty-banks-for-account.max-size:1000}") long maxSize,
+            @Value("${loyalty.query.cache.enriched-loyalty-banks-for-account.ttl-seconds:10}") long ttlSeconds) {
+        return new QueryResultCache<>("enrichedLoyaltyBanksForAccount", maxSize, Duration.ofSeconds(ttlSeconds), projectionBatch);
+    }
+
+    @Bean
+    public QueryResultCache<EnrichedLoyaltyBanksForBusinessQueryModel> enrichedLoyaltyBanksForBusinessQueryCache(
+            ProjectionBatch projectionBatch,
+            @Value("${loyalty.query.cache.enriched-loyalty-banks-for-business.max-size:1000}") long maxSize,
+            @Value("${loyalty.query.cache.enriched-loyalty-banks-for-business.ttl-seconds:10}") long ttlSeconds) {
+        return new QueryResultCache<>("enrichedLoyaltyBanksForBusiness", maxSize, Duration.ofSeconds(ttlSeconds), projectionBatch);
+    }
+}
@@ -18,4 +18,6 @@ public class AccountEntity {
     private String lastName;
     @Indexed(unique = true)
     private String email;
+    // Counts the events applied to the document, and is served as the ETag of its query endpoint
+    private int version;
 }
@@ -6,6 +6,8 @@ import lombok.EqualsAndHashCode;
 import loyalty.service.query.data.enums.ActivityLogType;
 import loyalty.service.query.data.enums.Actor;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +18,11 @@ import java.util.List;
 @Data
 @EqualsAndHashCode
 @Document(collection = "activity_log_entries")
+// Pages of an activity log are read in id order straight from this index. The unique index the messages of a request
+// are upserted through is created by ActivityLogRequestIndex, once the duplicate entries written before it are merged
+@CompoundIndexes({
+        @CompoundIndex(name = "activity_log_entry_idx", def = "{'activityLogId': 1, '_id': 1}")
+})
 public class ActivityLogEntryEntity {
     // DEV NOTE: Had to use autogenerated ObjectId as id for table to stop creation of multiple documents when
     // more than one event is created from a single request. Otherwise, there was an error that occurred in the db
@@ -25,7 +32,6 @@ public class ActivityLogEntryEntity {
     @Id
     private ObjectId id;
 
-    @Indexed()
     private String requestId; // The id of the request from the event that generated this log
     private ActivityLogType activityLogType;
     @Indexed()
@@ -13,4 +13,6 @@ public class BusinessEntity {
     @Id
     private String businessId;
     private String businessName;
+    // Counts the events applied to the document, and is served as the ETag of its query endpoint
+    private int version;
 }
@@ -0,0 +1,22 @@
+package loyalty.service.query.data.entities;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Account details kept by the enriched loyalty bank projection itself, so they are copied into new loyalty banks in
+ * event order rather than from the account projection, which may lag behind.
+ */
+@Data
+@EqualsAndHashCode
+@Document(collection = "enriched_loyalty_bank_accounts")
+public class EnrichedLoyaltyBankAccountEntity {
+
+    @Id
+    private String accountId;
+    private String firstName;
+    private String lastName;
+    private String email;
+}
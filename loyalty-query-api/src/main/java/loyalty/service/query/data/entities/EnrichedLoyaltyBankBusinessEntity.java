@@ -0,0 +1,19 @@
+package loyalty.service.query.data.entities;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Business details kept by the enriched loyalty bank projection itself, see {@link EnrichedLoyaltyBankAccountEntity}.
+ */
+@Data
+@EqualsAndHashCode
+@Document(collection = "enriched_loyalty_bank_businesses")
+public class EnrichedLoyaltyBankBusinessEntity {
+
+    @Id
+    private String businessId;
+    private String businessName;
+}
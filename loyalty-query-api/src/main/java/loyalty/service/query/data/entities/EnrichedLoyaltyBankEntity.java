@@ -0,0 +1,35 @@
+package loyalty.service.query.data.entities;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Loyalty bank with the names of its account and business embedded, so the enrich endpoints read a page of them
+ * without joining.
+ */
+@Data
+@EqualsAndHashCode
+@Document(collection = "enriched_loyalty_banks")
+@CompoundIndexes({
+        @CompoundIndex(name = "account_enriched_loyalty_bank_idx", def = "{'accountId': 1, '_id': 1}"),
+        @CompoundIndex(name = "business_enriched_loyalty_bank_idx", def = "{'businessId': 1, '_id': 1}")
+})
+public class EnrichedLoyaltyBankEntity {
+
+    @Id
+    private String loyaltyBankId;
+    private String accountId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String businessId;
+    private String businessName;
+    private int pending;
+    private int earned;
+    private int authorized;
+    private int captured;
+}
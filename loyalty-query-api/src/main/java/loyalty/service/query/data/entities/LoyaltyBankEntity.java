@@ -3,11 +3,18 @@ package loyalty.service.query.data.entities;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @EqualsAndHashCode
 @Document(collection = "loyalty_banks")
+// Pages of an account's or business's loyalty banks are read in id order straight from these indexes
+@CompoundIndexes({
+        @CompoundIndex(name = "account_loyalty_bank_idx", def = "{'accountId': 1, '_id': 1}"),
+        @CompoundIndex(name = "business_loyalty_bank_idx", def = "{'businessId': 1, '_id': 1}")
+})
 public class LoyaltyBankEntity {
 
     @Id
@@ -18,4 +25,6 @@ public class LoyaltyBankEntity {
     private int earned;
     private int authorized;
     private int captured;
+    // Counts the events applied to the document, and is served as the ETag of its query endpoint
+    private int version;
 }
@@ -1,11 +1,18 @@
 package loyalty.service.query.data.repositories;
 
 import loyalty.service.query.data.entities.AccountEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends MongoRepository<AccountEntity, String> {
 
     Optional<AccountEntity> findByAccountId(String accountId);
+    List<AccountEntity> findByAccountIdIn(Collection<String> accountIds);
+    Window<AccountEntity> findAllByOrderByAccountId(ScrollPosition position, Limit limit);
 }
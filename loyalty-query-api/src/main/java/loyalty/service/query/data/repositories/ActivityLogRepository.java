@@ -1,16 +1,15 @@
 package loyalty.service.query.data.repositories;
 
 import loyalty.service.query.data.entities.ActivityLogEntryEntity;
-import loyalty.service.query.data.enums.ActivityLogType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.Optional;
-
 public interface ActivityLogRepository extends MongoRepository<ActivityLogEntryEntity, String> {
 
-    Optional<ActivityLogEntryEntity> findByRequestIdAndActivityLogType(String requestId, ActivityLogType activityLogType);
     void deleteAllByActivityLogId(String activityLogId);
-    Page<ActivityLogEntryEntity> findByActivityLogId(String activityLogId, Pageable pageable);
+    Window<ActivityLogEntryEntity> findAllByOrderById(ScrollPosition position, Limit limit);
+    // Keyset windows read in id order from the (activityLogId, _id) index
+    Window<ActivityLogEntryEntity> findByActivityLogIdOrderById(String activityLogId, ScrollPosition position, Limit limit);
 }
@@ -1,11 +1,18 @@
 package loyalty.service.query.data.repositories;
 
 import loyalty.service.query.data.entities.BusinessEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BusinessRepository extends MongoRepository<BusinessEntity, String> {
 
     Optional<BusinessEntity> findByBusinessId(String businessId);
+    List<BusinessEntity> findByBusinessIdIn(Collection<String> businessIds);
+    Window<BusinessEntity> findAllByOrderByBusinessId(ScrollPosition position, Limit limit);
 }
@@ -0,0 +1,7 @@
+package loyalty.service.query.data.repositories;
+
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankAccountEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EnrichedLoyaltyBankAccountRepository extends MongoRepository<EnrichedLoyaltyBankAccountEntity, String> {
+}
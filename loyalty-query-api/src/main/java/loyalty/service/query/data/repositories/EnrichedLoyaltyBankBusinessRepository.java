@@ -0,0 +1,7 @@
+package loyalty.service.query.data.repositories;
+
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankBusinessEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EnrichedLoyaltyBankBusinessRepository extends MongoRepository<EnrichedLoyaltyBankBusinessEntity, String> {
+}
@@ -0,0 +1,12 @@
+package loyalty.service.query.data.repositories;
+
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EnrichedLoyaltyBankRepository extends MongoRepository<EnrichedLoyaltyBankEntity, String> {
+
+    Page<EnrichedLoyaltyBankEntity> findByAccountId(String accountId, Pageable pageable);
+    Page<EnrichedLoyaltyBankEntity> findByBusinessId(String businessId, Pageable pageable);
+}
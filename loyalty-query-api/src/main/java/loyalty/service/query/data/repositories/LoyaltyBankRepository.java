@@ -1,14 +1,23 @@
 package loyalty.service.query.data.repositories;
 
 import loyalty.service.query.data.entities.LoyaltyBankEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.Optional;
-import java.util.List;
 
 public interface LoyaltyBankRepository extends MongoRepository<LoyaltyBankEntity, String> {
 
     Optional<LoyaltyBankEntity> findByLoyaltyBankId(String loyaltyBankId);
-    Optional<List<LoyaltyBankEntity>> findByAccountId(String accountId);
-    Optional<List<LoyaltyBankEntity>> findByBusinessId(String businessId);
+    Window<LoyaltyBankEntity> findAllByOrderByLoyaltyBankId(ScrollPosition position, Limit limit);
+    // Keyset windows read in id order from the (accountId, _id) and (businessId, _id) indexes
+    Window<LoyaltyBankEntity> findByAccountIdOrderByLoyaltyBankId(String accountId, ScrollPosition position, Limit limit);
+    Window<LoyaltyBankEntity> findByBusinessIdOrderByLoyaltyBankId(String businessId, ScrollPosition position, Limit limit);
+    // Pages joined with their accounts or businesses while the enriched read model catches up
+    Page<LoyaltyBankEntity> findByAccountId(String accountId, Pageable pageable);
+    Page<LoyaltyBankEntity> findByBusinessId(String businessId, Pageable pageable);
 }
@@ -3,10 +3,14 @@ package loyalty.service.query.projections;
 import loyalty.service.core.events.account.*;
 import loyalty.service.query.data.entities.AccountEntity;
 import loyalty.service.query.data.repositories.AccountRepository;
+import loyalty.service.query.queryModels.AccountQueryModel;
+import loyalty.service.query.services.ProjectionBatch;
+import loyalty.service.query.services.QueryResultCache;
 import loyalty.service.core.exceptions.AccountNotFoundException;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.messaging.interceptors.ExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,9 +30,14 @@ public class AccountEventsHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccountEventsHandler.class);
 
     private final AccountRepository accountRepository;
+    private final ProjectionBatch projectionBatch;
+    private final QueryResultCache<AccountQueryModel> accountQueryCache;
 
-    public AccountEventsHandler(AccountRepository accountRepository) {
+    public AccountEventsHandler(AccountRepository accountRepository, ProjectionBatch projectionBatch,
+                                QueryResultCache<AccountQueryModel> accountQueryCache) {
         this.accountRepository = accountRepository;
+        this.projectionBatch = projectionBatch;
+        this.accountQueryCache = accountQueryCache;
     }
 
     @ExceptionHandler(resultType = Exception.class)
@@ -41,23 +50,31 @@ public class AccountEventsHandler {
         LOGGER.error(exception.getLocalizedMessage());
     }
 
+    // Cleared before the events are replayed, so the replayed batches only insert documents
+    @ResetHandler
+    public void reset() {
+        accountRepository.deleteAll();
+        accountQueryCache.evictAll();
+        LOGGER.info("Cleared accounts for replay");
+    }
+
     @EventHandler
     public void on(AccountCreatedEvent event) {
         AccountEntity accountEntity = new AccountEntity();
         BeanUtils.copyProperties(event, accountEntity);
-        accountRepository.save(accountEntity);
+        saveAccount(accountEntity);
 
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_SAVED_IN_DB, event.getAccountId());
     }
 
     @EventHandler
     public void on(AccountFirstNameChangedEvent event) {
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(event.getAccountId());
+        Optional<AccountEntity> accountEntityOptional = findAccount(event.getAccountId());
 
         if (accountEntityOptional.isPresent()) {
             AccountEntity accountEntity = accountEntityOptional.get();
             accountEntity.setFirstName(event.getNewFirstName());
-            accountRepository.save(accountEntity);
+            saveAccount(accountEntity);
 
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_UPDATED_IN_DB, event.getAccountId(), event.getClass().getSimpleName());
         } else {
@@ -68,12 +85,12 @@ public class AccountEventsHandler {
 
     @EventHandler
     public void on(AccountLastNameChangedEvent event) {
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(event.getAccountId());
+        Optional<AccountEntity> accountEntityOptional = findAccount(event.getAccountId());
 
         if (accountEntityOptional.isPresent()) {
             AccountEntity accountEntity = accountEntityOptional.get();
             accountEntity.setLastName(event.getNewLastName());
-            accountRepository.save(accountEntity);
+            saveAccount(accountEntity);
 
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_UPDATED_IN_DB, event.getAccountId(), event.getClass().getSimpleName());
         } else {
@@ -84,12 +101,12 @@ public class AccountEventsHandler {
 
     @EventHandler
     public void on(AccountEmailChangedEvent event) {
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(event.getAccountId());
+        Optional<AccountEntity> accountEntityOptional = findAccount(event.getAccountId());
 
         if (accountEntityOptional.isPresent()) {
             AccountEntity accountEntity = accountEntityOptional.get();
             accountEntity.setEmail(event.getNewEmail());
-            accountRepository.save(accountEntity);
+            saveAccount(accountEntity);
 
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_UPDATED_IN_DB, event.getAccountId(), event.getClass().getSimpleName());
         } else {
@@ -100,14 +117,29 @@ public class AccountEventsHandler {
 
     @EventHandler
     public void on(AccountDeletedEvent event) {
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(event.getAccountId());
+        Optional<AccountEntity> accountEntityOptional = findAccount(event.getAccountId());
 
         if (accountEntityOptional.isPresent()) {
-            accountRepository.delete(accountEntityOptional.get());
+            deleteAccount(accountEntityOptional.get());
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_DELETED_FROM_DB, event.getAccountId());
         } else {
             LOGGER.error(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, event.getAccountId());
             throw new AccountNotFoundException(event.getAccountId());
         }
     }
+
+    private Optional<AccountEntity> findAccount(String accountId) {
+        return projectionBatch.find(AccountEntity.class, accountId, () -> accountRepository.findByAccountId(accountId));
+    }
+
+    private void saveAccount(AccountEntity accountEntity) {
+        accountEntity.setVersion(accountEntity.getVersion() + 1);
+        projectionBatch.save(AccountEntity.class, accountEntity.getAccountId(), accountEntity);
+        accountQueryCache.invalidate(accountEntity.getAccountId());
+    }
+
+    private void deleteAccount(AccountEntity accountEntity) {
+        projectionBatch.delete(AccountEntity.class, accountEntity.getAccountId(), accountEntity);
+        accountQueryCache.invalidate(accountEntity.getAccountId());
+    }
 }
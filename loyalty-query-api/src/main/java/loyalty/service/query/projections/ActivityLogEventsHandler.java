@@ -9,6 +9,7 @@ import loyalty.service.core.events.account.AccountDeletedEvent;
 import loyalty.service.query.services.ActivityLogService;
 import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.eventhandling.Timestamp;
 import org.axonframework.messaging.interceptors.ExceptionHandler;
 import org.slf4j.Logger;
@@ -40,6 +41,13 @@ public class ActivityLogEventsHandler {
         LOGGER.error(exception.getLocalizedMessage());
     }
 
+    // Cleared before the events are replayed, so the replayed batches only insert documents
+    @ResetHandler
+    public void reset() {
+        activityLogService.deleteAllActivityLogEntries();
+        LOGGER.info("Cleared activity log entries for replay");
+    }
+
     @EventHandler
     public void on(AbstractAccountEvent event, @Timestamp Instant timestamp) {
         activityLogService.saveActivityLogEntryFromEvent(event, timestamp);
@@ -6,9 +6,13 @@ import loyalty.service.core.events.business.BusinessNameChangedEvent;
 import loyalty.service.core.exceptions.BusinessNotFoundException;
 import loyalty.service.query.data.entities.BusinessEntity;
 import loyalty.service.query.data.repositories.BusinessRepository;
+import loyalty.service.query.queryModels.BusinessQueryModel;
+import loyalty.service.query.services.ProjectionBatch;
+import loyalty.service.query.services.QueryResultCache;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.messaging.interceptors.ExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,9 +34,14 @@ public class BusinessEventsHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(BusinessEventsHandler.class);
 
     private final BusinessRepository businessRepository;
+    private final ProjectionBatch projectionBatch;
+    private final QueryResultCache<BusinessQueryModel> businessQueryCache;
 
-    public BusinessEventsHandler(BusinessRepository businessRepository) {
+    public BusinessEventsHandler(BusinessRepository businessRepository, ProjectionBatch projectionBatch,
+                                 QueryResultCache<BusinessQueryModel> businessQueryCache) {
         this.businessRepository = businessRepository;
+        this.projectionBatch = projectionBatch;
+        this.businessQueryCache = businessQueryCache;
     }
 
     @ExceptionHandler(resultType = Exception.class)
@@ -45,23 +54,31 @@ public class BusinessEventsHandler {
         LOGGER.error(exception.getLocalizedMessage());
     }
 
+    // Cleared before the events are replayed, so the replayed batches only insert documents
+    @ResetHandler
+    public void reset() {
+        businessRepository.deleteAll();
+        businessQueryCache.evictAll();
+        LOGGER.info("Cleared businesses for replay");
+    }
+
     @EventHandler
     public void on(BusinessEnrolledEvent event) {
         BusinessEntity businessEntity = new BusinessEntity();
         BeanUtils.copyProperties(event, businessEntity);
-        businessRepository.save(businessEntity);
+        saveBusiness(businessEntity);
 
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_SAVED_IN_DB, event.getBusinessId());
     }
 
     @EventHandler
     public void on(BusinessNameChangedEvent event) {
-        Optional<BusinessEntity> businessEntityOptional = businessRepository.findByBusinessId(event.getBusinessId());
+        Optional<BusinessEntity> businessEntityOptional = findBusiness(event.getBusinessId());
 
         if (businessEntityOptional.isPresent()) {
             BusinessEntity businessEntity = businessEntityOptional.get();
             BeanUtils.copyProperties(event, businessEntity);
-            businessRepository.save(businessEntity);
+            saveBusiness(businessEntity);
 
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_UPDATED_IN_DB, event.getBusinessId());
         } else {
@@ -72,14 +89,29 @@ public class BusinessEventsHandler {
 
     @EventHandler
     public void on(BusinessDeletedEvent event) {
-        Optional<BusinessEntity> businessEntityOptional = businessRepository.findByBusinessId(event.getBusinessId());
+        Optional<BusinessEntity> businessEntityOptional = findBusiness(event.getBusinessId());
 
         if (businessEntityOptional.isPresent()) {
-            businessRepository.delete(businessEntityOptional.get());
+            deleteBusiness(businessEntityOptional.get());
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_DELETED_FROM_DB, event.getBusinessId());
         } else {
             LOGGER.error(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_NOT_FOUND_IN_DB, event.getBusinessId());
             throw new BusinessNotFoundException(event.getBusinessId());
         }
     }
+
+    private Optional<BusinessEntity> findBusiness(String businessId) {
+        return projectionBatch.find(BusinessEntity.class, businessId, () -> businessRepository.findByBusinessId(businessId));
+    }
+
+    private void saveBusiness(BusinessEntity businessEntity) {
+        businessEntity.setVersion(businessEntity.getVersion() + 1);
+        projectionBatch.save(BusinessEntity.class, businessEntity.getBusinessId(), businessEntity);
+        businessQueryCache.invalidate(businessEntity.getBusinessId());
+    }
+
+    private void deleteBusiness(BusinessEntity businessEntity) {
+        projectionBatch.delete(BusinessEntity.class, businessEntity.getBusinessId(), businessEntity);
+        businessQueryCache.invalidate(businessEntity.getBusinessId());
+    }
 }
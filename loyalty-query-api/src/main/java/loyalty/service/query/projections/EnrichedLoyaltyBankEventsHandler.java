@@ -0,0 +1,366 @@
+package loyalty.service.query.projections;
+
+import loyalty.service.core.events.account.*;
+import loyalty.service.core.events.business.BusinessDeletedEvent;
+import loyalty.service.core.events.business.BusinessEnrolledEvent;
+import loyalty.service.core.events.business.BusinessNameChangedEvent;
+import loyalty.service.core.events.loyalty.bank.AbstractLoyaltyBankEvent;
+import loyalty.service.core.events.loyalty.bank.AllPointsExpiredEvent;
+import loyalty.service.core.events.loyalty.bank.LoyaltyBankCreatedEvent;
+import loyalty.service.core.events.loyalty.bank.LoyaltyBankDeletedEvent;
+import loyalty.service.core.events.loyalty.bank.transactions.*;
+import loyalty.service.core.exceptions.AccountNotFoundException;
+import loyalty.service.core.exceptions.BusinessNotFoundException;
+import loyalty.service.core.exceptions.LoyaltyBankNotFoundException;
+import loyalty.service.core.utils.MarkerGenerator;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankAccountEntity;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankBusinessEntity;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankEntity;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankAccountRepository;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankBusinessRepository;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankRepository;
+import loyalty.service.query.queryModels.EnrichedLoyaltyBanksForAccountQueryModel;
+import loyalty.service.query.queryModels.EnrichedLoyaltyBanksForBusinessQueryModel;
+import loyalty.service.query.services.ProjectionBatch;
+import loyalty.service.query.services.QueryResultCache;
+import net.logstash.logback.marker.Markers;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.messaging.interceptors.ExceptionHandler;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static loyalty.service.core.constants.DomainConstants.ENRICHED_LOYALTY_BANK_GROUP;
+import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
+import static loyalty.service.core.constants.LogMessages.*;
+
+/**
+ * Maintains loyalty banks with their account and business names embedded. A loyalty bank copies the names when it is
+ * created, and name changes are written to every loyalty bank of the account or business. The group handles its
+ * events in the order they were published, so a loyalty bank never misses a change made while it was being created.
+ */
+@Component
+@ProcessingGroup(ENRICHED_LOYALTY_BANK_GROUP)
+public class EnrichedLoyaltyBankEventsHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnrichedLoyaltyBankEventsHandler.class);
+    private static final String PENDING = "pending";
+    private static final String EARNED = "earned";
+    private static final String AUTHORIZED = "authorized";
+    private static final String CAPTURED = "captured";
+    private static final String UPDATED_LOYALTY_BANKS = EnrichedLoyaltyBankEventsHandler.class.getName() + ".updatedLoyaltyBanks";
+
+    private final EnrichedLoyaltyBankRepository enrichedLoyaltyBankRepository;
+    private final EnrichedLoyaltyBankAccountRepository enrichedLoyaltyBankAccountRepository;
+    private final EnrichedLoyaltyBankBusinessRepository enrichedLoyaltyBankBusinessRepository;
+    private final ProjectionBatch projectionBatch;
+    private final QueryResultCache<EnrichedLoyaltyBanksForAccountQueryModel> enrichedLoyaltyBanksForAccountQueryCache;
+    private final QueryResultCache<EnrichedLoyaltyBanksForBusinessQueryModel> enrichedLoyaltyBanksForBusinessQueryCache;
+
+    public EnrichedLoyaltyBankEventsHandler(EnrichedLoyaltyBankRepository enrichedLoyaltyBankRepository,
+                                            EnrichedLoyaltyBankAccountRepository enrichedLoyaltyBankAccountRepository,
+                                            EnrichedLoyaltyBankBusinessRepository enrichedLoyaltyBankBusinessRepository,
+                                            ProjectionBatch projectionBatch,
+                                            QueryResultCache<EnrichedLoyaltyBanksForAccountQueryModel> enrichedLoyaltyBanksForAccountQueryCache,
+                                            QueryResultCache<EnrichedLoyaltyBanksForBusinessQueryModel> enrichedLoyaltyBanksForBusinessQueryCache) {
+        this.enrichedLoyaltyBankRepository = enrichedLoyaltyBankRepository;
+        this.enrichedLoyaltyBankAccountRepository = enrichedLoyaltyBankAccountRepository;
+        this.enrichedLoyaltyBankBusinessRepository = enrichedLoyaltyBankBusinessRepository;
+        this.projectionBatch = projectionBatch;
+        this.enrichedLoyaltyBanksForAccountQueryCache = enrichedLoyaltyBanksForAccountQueryCache;
+        this.enrichedLoyaltyBanksForBusinessQueryCache = enrichedLoyaltyBanksForBusinessQueryCache;
+    }
+
+    @ExceptionHandler(resultType = Exception.class)
+    public void handle(Exception exception) throws Exception {
+        throw exception;
+    }
+
+    @ExceptionHandler(resultType = IllegalArgumentException.class)
+    public void handle(IllegalArgumentException exception) {
+        LOGGER.error(exception.getLocalizedMessage());
+    }
+
+    // Cleared before the events are replayed, so the replayed batches only insert documents
+    @ResetHandler
+    public void reset() {
+        enrichedLoyaltyBankRepository.deleteAll();
+        enrichedLoyaltyBankAccountRepository.deleteAll();
+        enrichedLoyaltyBankBusinessRepository.deleteAll();
+        enrichedLoyaltyBanksForAccountQueryCache.evictAll();
+        enrichedLoyaltyBanksForBusinessQueryCache.evictAll();
+        LOGGER.info("Cleared enriched loyalty banks for replay");
+    }
+
+    @EventHandler
+    public void on(AccountCreatedEvent event) {
+        EnrichedLoyaltyBankAccountEntity accountEntity = new EnrichedLoyaltyBankAccountEntity();
+        BeanUtils.copyProperties(event, accountEntity);
+        saveAccount(accountEntity);
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_SAVED_IN_DB, event.getAccountId());
+    }
+
+    @EventHandler
+    public void on(AccountFirstNameChangedEvent event) {
+        updateAccount(event, "firstName", event.getNewFirstName(),
+                account -> account.setFirstName(event.getNewFirstName()),
+                loyaltyBank -> loyaltyBank.setFirstName(event.getNewFirstName()));
+    }
+
+    @EventHandler
+    public void on(AccountLastNameChangedEvent event) {
+        updateAccount(event, "lastName", event.getNewLastName(),
+                account -> account.setLastName(event.getNewLastName()),
+                loyaltyBank -> loyaltyBank.setLastName(event.getNewLastName()));
+    }
+
+    @EventHandler
+    public void on(AccountEmailChangedEvent event) {
+        updateAccount(event, "email", event.getNewEmail(),
+                account -> account.setEmail(event.getNewEmail()),
+                loyaltyBank -> loyaltyBank.setEmail(event.getNewEmail()));
+    }
+
+    @EventHandler
+    public void on(AccountDeletedEvent event) {
+        EnrichedLoyaltyBankAccountEntity accountEntity = findAccount(event.getRequestId(), event.getAccountId());
+        projectionBatch.delete(EnrichedLoyaltyBankAccountEntity.class, accountEntity.getAccountId(), accountEntity);
+        enrichedLoyaltyBanksForAccountQueryCache.invalidate(accountEntity.getAccountId());
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_DELETED_FROM_DB, event.getAccountId());
+    }
+
+    @EventHandler
+    public void on(BusinessEnrolledEvent event) {
+        EnrichedLoyaltyBankBusinessEntity businessEntity = new EnrichedLoyaltyBankBusinessEntity();
+        BeanUtils.copyProperties(event, businessEntity);
+        saveBusiness(businessEntity);
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_SAVED_IN_DB, event.getBusinessId());
+    }
+
+    @EventHandler
+    public void on(BusinessNameChangedEvent event) {
+        EnrichedLoyaltyBankBusinessEntity businessEntity = findBusiness(event.getRequestId(), event.getBusinessId());
+        businessEntity.setBusinessName(event.getNewBusinessName());
+        saveBusiness(businessEntity);
+
+        String businessId = event.getBusinessId();
+        projectionBatch.updateAll(
+                EnrichedLoyaltyBankEntity.class,
+                Query.query(Criteria.where("businessId").is(businessId)),
+                Update.update("businessName", event.getNewBusinessName()),
+                loyaltyBank -> businessId.equals(loyaltyBank.getBusinessId()),
+                loyaltyBank -> loyaltyBank.setBusinessName(event.getNewBusinessName())
+        );
+        // The name is embedded in the pages of the accounts with a loyalty bank at the business
+        enrichedLoyaltyBanksForAccountQueryCache.invalidateDependents(businessId);
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_UPDATED_IN_DB, businessId);
+    }
+
+    @EventHandler
+    public void on(BusinessDeletedEvent event) {
+        EnrichedLoyaltyBankBusinessEntity businessEntity = findBusiness(event.getRequestId(), event.getBusinessId());
+        projectionBatch.delete(EnrichedLoyaltyBankBusinessEntity.class, businessEntity.getBusinessId(), businessEntity);
+        enrichedLoyaltyBanksForBusinessQueryCache.invalidate(businessEntity.getBusinessId());
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), BUSINESS_DELETED_FROM_DB, event.getBusinessId());
+    }
+
+    @EventHandler
+    public void on(LoyaltyBankCreatedEvent event) {
+        EnrichedLoyaltyBankAccountEntity accountEntity = findAccount(event.getRequestId(), event.getAccountId());
+        EnrichedLoyaltyBankBusinessEntity businessEntity = findBusiness(event.getRequestId(), event.getBusinessId());
+
+        EnrichedLoyaltyBankEntity loyaltyBankEntity = new EnrichedLoyaltyBankEntity();
+        BeanUtils.copyProperties(event, loyaltyBankEntity);
+        loyaltyBankEntity.setFirstName(accountEntity.getFirstName());
+        loyaltyBankEntity.setLastName(accountEntity.getLastName());
+        loyaltyBankEntity.setEmail(accountEntity.getEmail());
+        loyaltyBankEntity.setBusinessName(businessEntity.getBusinessName());
+        projectionBatch.save(EnrichedLoyaltyBankEntity.class, loyaltyBankEntity.getLoyaltyBankId(), loyaltyBankEntity);
+        invalidateOwners(loyaltyBankEntity);
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_SAVED_IN_DB, event.getLoyaltyBankId());
+    }
+
+    @EventHandler
+    public void on(LoyaltyBankDeletedEvent event) {
+        String loyaltyBankId = event.getLoyaltyBankId();
+        Optional<EnrichedLoyaltyBankEntity> loyaltyBankEntityOptional = projectionBatch.find(
+                EnrichedLoyaltyBankEntity.class, loyaltyBankId, () -> enrichedLoyaltyBankRepository.findById(loyaltyBankId));
+
+        if (loyaltyBankEntityOptional.isEmpty()) {
+            LOGGER.error(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
+            throw new LoyaltyBankNotFoundException(loyaltyBankId);
+        }
+
+        projectionBatch.delete(EnrichedLoyaltyBankEntity.class, loyaltyBankId, loyaltyBankEntityOptional.get());
+        invalidateOwners(loyaltyBankEntityOptional.get());
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_DELETED_FROM_DB, loyaltyBankId);
+    }
+
+    @EventHandler
+    public void on(PendingTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(PENDING, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(EarnedTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(PENDING, -event.getPoints(), EARNED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(AwardedTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(EARNED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(AuthorizedTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(VoidTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, -event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(CapturedTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, -event.getPoints(), CAPTURED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(ExpiredTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(CAPTURED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(BatchExpiredTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(CAPTURED, event.getPoints()));
+    }
+
+    @EventHandler
+    public void on(AllPointsExpiredEvent event) {
+        incrementLoyaltyBank(event, Map.of(
+                PENDING, -event.getPendingPointsRemoved(),
+                AUTHORIZED, -event.getAuthorizedPointsVoided(),
+                CAPTURED, event.getPointsExpired()
+        ));
+    }
+
+    private void updateAccount(AbstractAccountEvent event, String field, String value,
+                               Consumer<EnrichedLoyaltyBankAccountEntity> accountChange,
+                               Consumer<EnrichedLoyaltyBankEntity> loyaltyBankChange) {
+        EnrichedLoyaltyBankAccountEntity accountEntity = findAccount(event.getRequestId(), event.getAccountId());
+        accountChange.accept(accountEntity);
+        saveAccount(accountEntity);
+
+        String accountId = event.getAccountId();
+        projectionBatch.updateAll(
+                EnrichedLoyaltyBankEntity.class,
+                Query.query(Criteria.where("accountId").is(accountId)),
+                Update.update(field, value),
+                loyaltyBank -> accountId.equals(loyaltyBank.getAccountId()),
+                loyaltyBankChange
+        );
+        // The names are embedded in the pages of the businesses the account has a loyalty bank at
+        enrichedLoyaltyBanksForBusinessQueryCache.invalidateDependents(accountId);
+
+        LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), ACCOUNT_UPDATED_IN_DB, accountId, event.getClass().getSimpleName());
+    }
+
+    private void incrementLoyaltyBank(AbstractLoyaltyBankEvent event, Map<String, Integer> deltas) {
+        projectionBatch.increment(EnrichedLoyaltyBankEntity.class, event.getLoyaltyBankId(), deltas, loyaltyBankId -> {
+            LOGGER.error(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
+            return new LoyaltyBankNotFoundException(event.getLoyaltyBankId());
+        });
+        invalidateOwners(event.getLoyaltyBankId());
+
+        LOGGER.info(
+                MarkerGenerator.generateMarker(event),
+                PROCESSED_EVENT_FOR_LOYALTY_BANK,
+                event.getClass().getSimpleName(),
+                event.getLoyaltyBankId()
+        );
+    }
+
+    private void invalidateOwners(EnrichedLoyaltyBankEntity loyaltyBankEntity) {
+        enrichedLoyaltyBanksForAccountQueryCache.invalidate(loyaltyBankEntity.getAccountId());
+        enrichedLoyaltyBanksForBusinessQueryCache.invalidate(loyaltyBankEntity.getBusinessId());
+    }
+
+    /**
+     * Balance changes only carry the loyalty bank id, so the account and business pages showing the loyalty banks the
+     * batch changed are found with one read once its writes are flushed, and only while pages are cached.
+     */
+    private void invalidateOwners(String loyaltyBankId) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            evictOwners(Set.of(loyaltyBankId));
+            return;
+        }
+
+        UnitOfWork<?> root = CurrentUnitOfWork.get().root();
+        Set<String> updatedLoyaltyBanks = root.getOrComputeResource(UPDATED_LOYALTY_BANKS, key -> {
+            Set<String> loyaltyBankIds = new HashSet<>();
+            projectionBatch.afterFlush(() -> evictOwners(loyaltyBankIds));
+            return loyaltyBankIds;
+        });
+        updatedLoyaltyBanks.add(loyaltyBankId);
+    }
+
+    private void evictOwners(Set<String> loyaltyBankIds) {
+        if (enrichedLoyaltyBanksForAccountQueryCache.isEmpty() && enrichedLoyaltyBanksForBusinessQueryCache.isEmpty()) {
+            return;
+        }
+
+        enrichedLoyaltyBankRepository.findAllById(loyaltyBankIds).forEach(loyaltyBankEntity -> {
+            enrichedLoyaltyBanksForAccountQueryCache.evict(loyaltyBankEntity.getAccountId());
+            enrichedLoyaltyBanksForBusinessQueryCache.evict(loyaltyBankEntity.getBusinessId());
+        });
+    }
+
+    private EnrichedLoyaltyBankAccountEntity findAccount(String requestId, String accountId) {
+        return projectionBatch.find(EnrichedLoyaltyBankAccountEntity.class, accountId,
+                        () -> enrichedLoyaltyBankAccountRepository.findById(accountId))
+                .orElseThrow(() -> {
+                    LOGGER.error(Markers.append(REQUEST_ID, requestId), ACCOUNT_NOT_FOUND_IN_DB, accountId);
+                    return new AccountNotFoundException(accountId);
+                });
+    }
+
+    private EnrichedLoyaltyBankBusinessEntity findBusiness(String requestId, String businessId) {
+        return projectionBatch.find(EnrichedLoyaltyBankBusinessEntity.class, businessId,
+                        () -> enrichedLoyaltyBankBusinessRepository.findById(businessId))
+                .orElseThrow(() -> {
+                    LOGGER.error(Markers.append(REQUEST_ID, requestId), BUSINESS_NOT_FOUND_IN_DB, businessId);
+                    return new BusinessNotFoundException(businessId);
+                });
+    }
+
+    private void saveAccount(EnrichedLoyaltyBankAccountEntity accountEntity) {
+        projectionBatch.save(EnrichedLoyaltyBankAccountEntity.class, accountEntity.getAccountId(), accountEntity);
+        enrichedLoyaltyBanksForAccountQueryCache.invalidate(accountEntity.getAccountId());
+    }
+
+    private void saveBusiness(EnrichedLoyaltyBankBusinessEntity businessEntity) {
+        projectionBatch.save(EnrichedLoyaltyBankBusinessEntity.class, businessEntity.getBusinessId(), businessEntity);
+        enrichedLoyaltyBanksForBusinessQueryCache.invalidate(businessEntity.getBusinessId());
+    }
+}
@@ -3,6 +3,10 @@ package loyalty.service.query.projections;
 import loyalty.service.core.events.loyalty.bank.transactions.*;
 import loyalty.service.query.data.entities.LoyaltyBankEntity;
 import loyalty.service.query.data.repositories.LoyaltyBankRepository;
+import loyalty.service.query.queryModels.LoyaltyBankQueryModel;
+import loyalty.service.query.services.ProjectionBatch;
+import loyalty.service.query.services.QueryResultCache;
+import loyalty.service.core.events.loyalty.bank.AbstractLoyaltyBankEvent;
 import loyalty.service.core.events.loyalty.bank.AllPointsExpiredEvent;
 import loyalty.service.core.events.loyalty.bank.LoyaltyBankDeletedEvent;
 import loyalty.service.core.events.loyalty.bank.LoyaltyBankCreatedEvent;
@@ -11,12 +15,15 @@ import loyalty.service.core.utils.MarkerGenerator;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.messaging.interceptors.ExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static loyalty.service.core.constants.DomainConstants.LOYALTY_BANK_GROUP;
@@ -28,11 +35,21 @@ import static loyalty.service.core.constants.LogMessages.*;
 public class LoyaltyBankEventsHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyBankEventsHandler.class);
+    private static final String PENDING = "pending";
+    private static final String EARNED = "earned";
+    private static final String AUTHORIZED = "authorized";
+    private static final String CAPTURED = "captured";
+    private static final String VERSION = "version";
 
     private final LoyaltyBankRepository loyaltyBankRepository;
+    private final ProjectionBatch projectionBatch;
+    private final QueryResultCache<LoyaltyBankQueryModel> loyaltyBankQueryCache;
 
-    public LoyaltyBankEventsHandler(LoyaltyBankRepository loyaltyBankRepository) {
+    public LoyaltyBankEventsHandler(LoyaltyBankRepository loyaltyBankRepository, ProjectionBatch projectionBatch,
+                                    QueryResultCache<LoyaltyBankQueryModel> loyaltyBankQueryCache) {
         this.loyaltyBankRepository = loyaltyBankRepository;
+        this.projectionBatch = projectionBatch;
+        this.loyaltyBankQueryCache = loyaltyBankQueryCache;
     }
 
     @ExceptionHandler(resultType = Exception.class)
@@ -45,21 +62,29 @@ public class LoyaltyBankEventsHandler {
         LOGGER.error(exception.getLocalizedMessage());
     }
 
+    // Cleared before the events are replayed, so the replayed batches only insert documents
+    @ResetHandler
+    public void reset() {
+        loyaltyBankRepository.deleteAll();
+        loyaltyBankQueryCache.evictAll();
+        LOGGER.info("Cleared loyalty banks for replay");
+    }
+
     @EventHandler
     public void on(LoyaltyBankCreatedEvent event) {
         LoyaltyBankEntity loyaltyBankEntity = new LoyaltyBankEntity();
         BeanUtils.copyProperties(event, loyaltyBankEntity);
-        loyaltyBankRepository.save(loyaltyBankEntity);
+        saveLoyaltyBank(loyaltyBankEntity);
 
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_SAVED_IN_DB, event.getLoyaltyBankId());
     }
 
     @EventHandler
     public void on(LoyaltyBankDeletedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
+        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = findLoyaltyBank(event.getLoyaltyBankId());
 
         if (loyaltyBankEntityOptional.isPresent()) {
-            loyaltyBankRepository.delete(loyaltyBankEntityOptional.get());
+            deleteLoyaltyBank(loyaltyBankEntityOptional.get());
             LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_DELETED_FROM_DB, event.getLoyaltyBankId());
         } else {
             logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
@@ -68,170 +93,89 @@ public class LoyaltyBankEventsHandler {
 
     @EventHandler
     public void on(PendingTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setPending(loyaltyBankEntity.getPending() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(PENDING, event.getPoints()));
     }
 
     @EventHandler
     public void on(EarnedTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setPending(loyaltyBankEntity.getPending() - event.getPoints());
-            loyaltyBankEntity.setEarned(loyaltyBankEntity.getEarned() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(PENDING, -event.getPoints(), EARNED, event.getPoints()));
     }
 
     @EventHandler
     public void on(AwardedTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setEarned(loyaltyBankEntity.getEarned() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(EARNED, event.getPoints()));
     }
 
     @EventHandler
     public void on(AuthorizedTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setAuthorized(loyaltyBankEntity.getAuthorized() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, event.getPoints()));
     }
 
     @EventHandler
     public void on(VoidTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setAuthorized(loyaltyBankEntity.getAuthorized() - event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, -event.getPoints()));
     }
 
     @EventHandler
     public void on(CapturedTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setAuthorized(loyaltyBankEntity.getAuthorized() - event.getPoints());
-            loyaltyBankEntity.setCaptured(loyaltyBankEntity.getCaptured() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(AUTHORIZED, -event.getPoints(), CAPTURED, event.getPoints()));
     }
 
     @EventHandler
     public void on(ExpiredTransactionCreatedEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
+        incrementLoyaltyBank(event, Map.of(CAPTURED, event.getPoints()));
+    }
 
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setCaptured(loyaltyBankEntity.getCaptured() + event.getPoints());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+    @EventHandler
+    public void on(BatchExpiredTransactionCreatedEvent event) {
+        incrementLoyaltyBank(event, Map.of(CAPTURED, event.getPoints()));
     }
 
     @EventHandler
     public void on(AllPointsExpiredEvent event) {
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findByLoyaltyBankId(event.getLoyaltyBankId());
-
-        if (loyaltyBankEntityOptional.isPresent()) {
-            LoyaltyBankEntity loyaltyBankEntity = loyaltyBankEntityOptional.get();
-            loyaltyBankEntity.setPending(loyaltyBankEntity.getPending() - event.getPendingPointsRemoved());
-            loyaltyBankEntity.setAuthorized(loyaltyBankEntity.getAuthorized() - event.getAuthorizedPointsVoided());
-            loyaltyBankEntity.setCaptured(loyaltyBankEntity.getCaptured() + event.getPointsExpired());
-            loyaltyBankRepository.save(loyaltyBankEntity);
-
-            LOGGER.info(
-                    MarkerGenerator.generateMarker(event),
-                    PROCESSED_EVENT_FOR_LOYALTY_BANK,
-                    event.getClass().getSimpleName(),
-                    event.getLoyaltyBankId()
-            );
-        } else {
-            logAndThrowLoyaltyBankNotFoundException(event.getRequestId(), event.getLoyaltyBankId());
-        }
+        incrementLoyaltyBank(event, Map.of(
+                PENDING, -event.getPendingPointsRemoved(),
+                AUTHORIZED, -event.getAuthorizedPointsVoided(),
+                CAPTURED, event.getPointsExpired()
+        ));
     }
 
     private void logAndThrowLoyaltyBankNotFoundException(String requestId, String loyaltyBankId) {
         LOGGER.error(Markers.append(REQUEST_ID, requestId), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
         throw new LoyaltyBankNotFoundException(loyaltyBankId);
     }
+
+    // Balances and the version are changed with an atomic $inc instead of reading and replacing the loyalty bank
+    private void incrementLoyaltyBank(AbstractLoyaltyBankEvent event, Map<String, Integer> deltas) {
+        Map<String, Integer> versionedDeltas = new HashMap<>(deltas);
+        versionedDeltas.put(VERSION, 1);
+
+        projectionBatch.increment(LoyaltyBankEntity.class, event.getLoyaltyBankId(), versionedDeltas, loyaltyBankId -> {
+            LOGGER.error(Markers.append(REQUEST_ID, event.getRequestId()), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
+            return new LoyaltyBankNotFoundException(event.getLoyaltyBankId());
+        });
+        loyaltyBankQueryCache.invalidate(event.getLoyaltyBankId());
+
+        LOGGER.info(
+                MarkerGenerator.generateMarker(event),
+                PROCESSED_EVENT_FOR_LOYALTY_BANK,
+                event.getClass().getSimpleName(),
+                event.getLoyaltyBankId()
+        );
+    }
+
+    private Optional<LoyaltyBankEntity> findLoyaltyBank(String loyaltyBankId) {
+        return projectionBatch.find(LoyaltyBankEntity.class, loyaltyBankId, () -> loyaltyBankRepository.findByLoyaltyBankId(loyaltyBankId));
+    }
+
+    private void saveLoyaltyBank(LoyaltyBankEntity loyaltyBankEntity) {
+        loyaltyBankEntity.setVersion(loyaltyBankEntity.getVersion() + 1);
+        projectionBatch.save(LoyaltyBankEntity.class, loyaltyBankEntity.getLoyaltyBankId(), loyaltyBankEntity);
+        loyaltyBankQueryCache.invalidate(loyaltyBankEntity.getLoyaltyBankId());
+    }
+
+    private void deleteLoyaltyBank(LoyaltyBankEntity loyaltyBankEntity) {
+        projectionBatch.delete(LoyaltyBankEntity.class, loyaltyBankEntity.getLoyaltyBankId(), loyaltyBankEntity);
+        loyaltyBankQueryCache.invalidate(loyaltyBankEntity.getLoyaltyBankId());
+    }
 }
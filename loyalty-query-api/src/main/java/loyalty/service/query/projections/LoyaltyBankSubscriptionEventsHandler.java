@@ -0,0 +1,86 @@
+package loyalty.service.query.projections;
+
+import loyalty.service.core.events.loyalty.bank.AbstractLoyaltyBankEvent;
+import loyalty.service.core.events.loyalty.bank.LoyaltyBankDeletedEvent;
+import loyalty.service.query.data.repositories.LoyaltyBankRepository;
+import loyalty.service.query.queries.FindLoyaltyBankQuery;
+import loyalty.service.query.queryHandlers.LoyaltyBankQueryHandler;
+import loyalty.service.query.services.ConsistencyTokenWaiter;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+
+import static loyalty.service.core.constants.DomainConstants.LOYALTY_BANK_GROUP;
+import static loyalty.service.core.constants.DomainConstants.LOYALTY_BANK_SUBSCRIPTION_GROUP;
+import static loyalty.service.core.constants.LogMessages.LOYALTY_BANK_UPDATE_EMITTED;
+
+/**
+ * Pushes loyalty bank updates to the subscriptions held by this instance. The processing group tracks the event store
+ * on every instance with an in-memory token, since the loyalty bank's segment may be projected by another instance.
+ * Each update waits until the loyalty bank group has projected the event, then sends the balances as written.
+ */
+@Component
+@ProcessingGroup(LOYALTY_BANK_SUBSCRIPTION_GROUP)
+public class LoyaltyBankSubscriptionEventsHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyBankSubscriptionEventsHandler.class);
+
+    private final LoyaltyBankRepository loyaltyBankRepository;
+    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final ConsistencyTokenWaiter consistencyTokenWaiter;
+
+    public LoyaltyBankSubscriptionEventsHandler(LoyaltyBankRepository loyaltyBankRepository,
+                                                QueryUpdateEmitter queryUpdateEmitter,
+                                                ConsistencyTokenWaiter consistencyTokenWaiter) {
+        this.loyaltyBankRepository = loyaltyBankRepository;
+        this.queryUpdateEmitter = queryUpdateEmitter;
+        this.consistencyTokenWaiter = consistencyTokenWaiter;
+    }
+
+    @EventHandler
+    public void on(LoyaltyBankDeletedEvent event) {
+        // Ends the subscribers' streams
+        queryUpdateEmitter.complete(FindLoyaltyBankQuery.class,
+                query -> query.getLoyaltyBankId().equals(event.getLoyaltyBankId()));
+    }
+
+    @EventHandler
+    public void on(AbstractLoyaltyBankEvent event, TrackingToken trackingToken) {
+        String loyaltyBankId = event.getLoyaltyBankId();
+
+        if (!isSubscribed(loyaltyBankId) || trackingToken.position().isEmpty()) {
+            return;
+        }
+
+        try {
+            consistencyTokenWaiter.await(LOYALTY_BANK_GROUP, trackingToken.position().getAsLong()).join();
+        } catch (CompletionException exception) {
+            // Skipped, the subscribers get the balances with the loyalty bank's next update
+            LOGGER.warn("Loyalty bank {} update not projected in time, not emitted. Reason: {}",
+                    loyaltyBankId, exception.getCause().getLocalizedMessage());
+            return;
+        }
+
+        loyaltyBankRepository.findByLoyaltyBankId(loyaltyBankId).ifPresent(loyaltyBankEntity -> {
+            queryUpdateEmitter.emit(
+                    FindLoyaltyBankQuery.class,
+                    query -> query.getLoyaltyBankId().equals(loyaltyBankId),
+                    LoyaltyBankQueryHandler.convertLoyaltyBankEntityToLoyaltyBankQueryModel(loyaltyBankEntity)
+            );
+            LOGGER.debug(LOYALTY_BANK_UPDATE_EMITTED, loyaltyBankId);
+        });
+    }
+
+    private boolean isSubscribed(String loyaltyBankId) {
+        return queryUpdateEmitter.activeSubscriptions().stream()
+                .map(subscription -> subscription.getPayload())
+                .anyMatch(query -> query instanceof FindLoyaltyBankQuery findLoyaltyBankQuery
+                        && findLoyaltyBankQuery.getLoyaltyBankId().equals(loyaltyBankId));
+    }
+}
@@ -8,4 +8,5 @@ import lombok.experimental.SuperBuilder;
 public class FindAccountQuery extends AbstractQuery {
 
     private String accountId;
+    private boolean bypassCache;
 }
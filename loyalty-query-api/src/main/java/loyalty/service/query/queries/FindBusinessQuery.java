@@ -8,4 +8,5 @@ import lombok.experimental.SuperBuilder;
 public class FindBusinessQuery extends AbstractQuery {
 
     private String businessId;
+    private boolean bypassCache;
 }
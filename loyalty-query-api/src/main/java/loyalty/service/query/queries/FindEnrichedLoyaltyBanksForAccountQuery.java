@@ -2,10 +2,13 @@ package loyalty.service.query.queries;
 
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.domain.Pageable;
 
 @Getter
 @SuperBuilder
 public class FindEnrichedLoyaltyBanksForAccountQuery extends AbstractQuery {
 
     private String accountId;
+    private Pageable pageable;
+    private boolean bypassCache;
 }
@@ -8,4 +8,5 @@ import lombok.experimental.SuperBuilder;
 public class FindLoyaltyBankQuery extends AbstractQuery {
 
     private String loyaltyBankId;
+    private boolean bypassCache;
 }
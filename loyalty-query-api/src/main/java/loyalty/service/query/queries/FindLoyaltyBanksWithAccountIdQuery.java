@@ -5,7 +5,7 @@ import lombok.experimental.SuperBuilder;
 
 @Getter
 @SuperBuilder
-public class FindLoyaltyBanksWithAccountIdQuery extends AbstractQuery {
+public class FindLoyaltyBanksWithAccountIdQuery extends PageableQuery {
 
     private String accountId;
 }
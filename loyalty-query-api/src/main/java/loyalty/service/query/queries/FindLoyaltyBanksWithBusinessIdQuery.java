@@ -5,7 +5,7 @@ import lombok.experimental.SuperBuilder;
 
 @Getter
 @SuperBuilder
-public class FindLoyaltyBanksWithBusinessIdQuery extends AbstractQuery {
+public class FindLoyaltyBanksWithBusinessIdQuery extends PageableQuery {
 
     private String businessId;
 }
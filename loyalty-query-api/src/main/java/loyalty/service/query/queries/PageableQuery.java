@@ -2,11 +2,13 @@ package loyalty.service.query.queries;
 
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
 
 @Getter
 @SuperBuilder
 public class PageableQuery extends AbstractQuery {
 
-    private Pageable pageable;
+    private KeysetScrollPosition scrollPosition;
+    private int pageSize;
+    private boolean includeTotal;
 }
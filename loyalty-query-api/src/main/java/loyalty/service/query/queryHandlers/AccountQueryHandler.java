@@ -4,15 +4,19 @@ import lombok.AllArgsConstructor;
 import loyalty.service.query.data.entities.AccountEntity;
 import loyalty.service.query.data.repositories.AccountRepository;
 import loyalty.service.core.exceptions.AccountNotFoundException;
+import loyalty.service.core.rest.PaginationResponse;
 import loyalty.service.core.utils.MarkerGenerator;
+import loyalty.service.core.utils.PaginationUtility;
 import loyalty.service.query.queries.FindAccountQuery;
 import loyalty.service.query.queries.FindAllAccountsQuery;
 import loyalty.service.query.queryModels.AccountQueryModel;
+import loyalty.service.query.services.ApproximateCounts;
+import loyalty.service.query.services.QueryResultCache;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.queryhandling.QueryHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -27,13 +31,18 @@ public class AccountQueryHandler {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(AccountQueryHandler.class);
     private final AccountRepository accountRepository;
+    private final ApproximateCounts approximateCounts;
+    private final QueryResultCache<AccountQueryModel> accountQueryCache;
 
     @QueryHandler
-    public Page<AccountQueryModel> findAllAccounts(FindAllAccountsQuery query) {
+    public PaginationResponse<AccountQueryModel> findAllAccounts(FindAllAccountsQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
-        return accountRepository.findAll(query.getPageable())
-                .map(this::convertAccountEntityToAccountQueryModel);
+        return PaginationUtility.toPageResponse(
+                accountRepository.findAllByOrderByAccountId(query.getScrollPosition(), Limit.of(query.getPageSize()))
+                        .map(this::convertAccountEntityToAccountQueryModel),
+                query.isIncludeTotal() ? approximateCounts.of(AccountEntity.class) : null
+        );
     }
 
     @QueryHandler
@@ -42,14 +51,16 @@ public class AccountQueryHandler {
 
         String accountId = query.getAccountId();
 
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findById(accountId);
+        return accountQueryCache.get(accountId, query.isBypassCache(), () -> {
+            Optional<AccountEntity> accountEntityOptional = accountRepository.findById(accountId);
 
-        if (accountEntityOptional.isEmpty()) {
-            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, accountId);
-            throw new AccountNotFoundException(accountId);
-        }
+            if (accountEntityOptional.isEmpty()) {
+                LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, accountId);
+                throw new AccountNotFoundException(accountId);
+            }
 
-        return convertAccountEntityToAccountQueryModel(accountEntityOptional.get());
+            return convertAccountEntityToAccountQueryModel(accountEntityOptional.get());
+        });
     }
 
     private AccountQueryModel convertAccountEntityToAccountQueryModel(AccountEntity accountEntity) {
@@ -57,7 +68,8 @@ public class AccountQueryHandler {
                 accountEntity.getAccountId(),
                 accountEntity.getFirstName(),
                 accountEntity.getLastName(),
-                accountEntity.getEmail()
+                accountEntity.getEmail(),
+                accountEntity.getVersion()
         );
     }
 }
@@ -2,17 +2,21 @@ package loyalty.service.query.queryHandlers;
 
 import lombok.AllArgsConstructor;
 import loyalty.service.core.exceptions.BusinessNotFoundException;
+import loyalty.service.core.rest.PaginationResponse;
 import loyalty.service.core.utils.MarkerGenerator;
+import loyalty.service.core.utils.PaginationUtility;
 import loyalty.service.query.data.entities.BusinessEntity;
 import loyalty.service.query.data.repositories.BusinessRepository;
 import loyalty.service.query.queries.FindAllBusinessesQuery;
 import loyalty.service.query.queries.FindBusinessQuery;
 import loyalty.service.query.queryModels.BusinessQueryModel;
+import loyalty.service.query.services.ApproximateCounts;
+import loyalty.service.query.services.QueryResultCache;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.queryhandling.QueryHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -27,13 +31,18 @@ public class BusinessQueryHandler {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(BusinessQueryHandler.class);
     private final BusinessRepository businessRepository;
+    private final ApproximateCounts approximateCounts;
+    private final QueryResultCache<BusinessQueryModel> businessQueryCache;
 
     @QueryHandler
-    public Page<BusinessQueryModel> findAllBusinesses(FindAllBusinessesQuery query) {
+    public PaginationResponse<BusinessQueryModel> findAllBusinesses(FindAllBusinessesQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
-        return businessRepository.findAll(query.getPageable())
-                .map(this::convertBusinessEntityToBusinessQueryModel);
+        return PaginationUtility.toPageResponse(
+                businessRepository.findAllByOrderByBusinessId(query.getScrollPosition(), Limit.of(query.getPageSize()))
+                        .map(this::convertBusinessEntityToBusinessQueryModel),
+                query.isIncludeTotal() ? approximateCounts.of(BusinessEntity.class) : null
+        );
     }
 
     @QueryHandler
@@ -42,20 +51,23 @@ public class BusinessQueryHandler {
 
         String businessId = query.getBusinessId();
 
-        Optional<BusinessEntity> businessEntityOptional = businessRepository.findById(businessId);
+        return businessQueryCache.get(businessId, query.isBypassCache(), () -> {
+            Optional<BusinessEntity> businessEntityOptional = businessRepository.findById(businessId);
 
-        if (businessEntityOptional.isEmpty()) {
-            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), BUSINESS_NOT_FOUND_IN_DB, businessId);
-            throw new BusinessNotFoundException(businessId);
-        }
+            if (businessEntityOptional.isEmpty()) {
+                LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), BUSINESS_NOT_FOUND_IN_DB, businessId);
+                throw new BusinessNotFoundException(businessId);
+            }
 
-        return convertBusinessEntityToBusinessQueryModel(businessEntityOptional.get());
+            return convertBusinessEntityToBusinessQueryModel(businessEntityOptional.get());
+        });
     }
 
     private BusinessQueryModel convertBusinessEntityToBusinessQueryModel(BusinessEntity businessEntity) {
         return new BusinessQueryModel(
                 businessEntity.getBusinessId(),
-                businessEntity.getBusinessName()
+                businessEntity.getBusinessName(),
+                businessEntity.getVersion()
         );
     }
 }
@@ -5,48 +5,108 @@ import loyalty.service.core.exceptions.*;
 import loyalty.service.core.utils.MarkerGenerator;
 import loyalty.service.query.data.entities.AccountEntity;
 import loyalty.service.query.data.entities.BusinessEntity;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankAccountEntity;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankBusinessEntity;
+import loyalty.service.query.data.entities.EnrichedLoyaltyBankEntity;
 import loyalty.service.query.data.entities.LoyaltyBankEntity;
 import loyalty.service.query.data.repositories.AccountRepository;
 import loyalty.service.query.data.repositories.BusinessRepository;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankAccountRepository;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankBusinessRepository;
+import loyalty.service.query.data.repositories.EnrichedLoyaltyBankRepository;
 import loyalty.service.query.data.repositories.LoyaltyBankRepository;
 import loyalty.service.query.queries.*;
 import loyalty.service.query.queryModels.*;
+import loyalty.service.query.services.ProjectionCatchUp;
+import loyalty.service.query.services.QueryResultCache;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.queryhandling.QueryHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static loyalty.service.core.constants.DomainConstants.ENRICHED_LOYALTY_BANK_GROUP;
 import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
 import static loyalty.service.core.constants.LogMessages.*;
 
+/**
+ * Serves enriched loyalty banks from the denormalized read model, so a page of them is a single indexed read with the
+ * account and business names already embedded.
+ * <p>
+ * Until the read model has caught up with the events appended before this instance started, e.g. while it is first
+ * filled after being deployed, a page of loyalty banks is joined with its accounts or businesses by one {@code $in}
+ * query instead. Joined pages are not cached, since the read model's events do not invalidate them.
+ */
 @Component
 @AllArgsConstructor
 public class EnrichedLoyaltyBankQueryHandler {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(EnrichedLoyaltyBankQueryHandler.class);
+    private final EnrichedLoyaltyBankAccountRepository enrichedLoyaltyBankAccountRepository;
+    private final EnrichedLoyaltyBankRepository enrichedLoyaltyBankRepository;
+    private final EnrichedLoyaltyBankBusinessRepository enrichedLoyaltyBankBusinessRepository;
+    private final QueryResultCache<EnrichedLoyaltyBanksForAccountQueryModel> enrichedLoyaltyBanksForAccountQueryCache;
+    private final QueryResultCache<EnrichedLoyaltyBanksForBusinessQueryModel> enrichedLoyaltyBanksForBusinessQueryCache;
     private final AccountRepository accountRepository;
     private final LoyaltyBankRepository loyaltyBankRepository;
     private final BusinessRepository businessRepository;
+    private final ProjectionCatchUp projectionCatchUp;
 
     @QueryHandler
     public EnrichedLoyaltyBanksForAccountQueryModel findAndEnrichLoyaltyBanksForAccount(FindEnrichedLoyaltyBanksForAccountQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
+        if (!projectionCatchUp.isCaughtUp(ENRICHED_LOYALTY_BANK_GROUP)) {
+            return joinLoyaltyBanksForAccount(query);
+        }
+
+        return enrichedLoyaltyBanksForAccountQueryCache.get(
+                query.getAccountId(), query.getPageable(), query.isBypassCache(), () -> enrichLoyaltyBanksForAccount(query),
+                EnrichedLoyaltyBankQueryHandler::businessIds);
+    }
+
+    @QueryHandler
+    public EnrichedLoyaltyBanksForBusinessQueryModel findAndEnrichLoyaltyBanksForBusiness(FindEnrichedLoyaltyBanksForBusinessQuery query) {
+        LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
+
+        if (!projectionCatchUp.isCaughtUp(ENRICHED_LOYALTY_BANK_GROUP)) {
+            return joinLoyaltyBanksForBusiness(query);
+        }
+
+        return enrichedLoyaltyBanksForBusinessQueryCache.get(
+                query.getBusinessId(), query.getPageable(), query.isBypassCache(), () -> enrichLoyaltyBanksForBusiness(query),
+                EnrichedLoyaltyBankQueryHandler::accountIds);
+    }
+
+    private EnrichedLoyaltyBanksForAccountQueryModel enrichLoyaltyBanksForAccount(FindEnrichedLoyaltyBanksForAccountQuery query) {
         String accountId = query.getAccountId();
 
-        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(accountId);
+        Optional<EnrichedLoyaltyBankAccountEntity> accountEntityOptional = enrichedLoyaltyBankAccountRepository.findById(accountId);
 
         if (accountEntityOptional.isEmpty()) {
             LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, accountId);
             throw new AccountNotFoundException(accountId);
         }
 
-        AccountEntity accountEntity = accountEntityOptional.get();
+        EnrichedLoyaltyBankAccountEntity accountEntity = accountEntityOptional.get();
+
+        Page<EnrichedLoyaltyBankEntity> loyaltyBankEntities =
+                enrichedLoyaltyBankRepository.findByAccountId(accountId, orderedByLoyaltyBankId(query.getPageable()));
+
+        if (loyaltyBankEntities.isEmpty()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_ACCOUNT, accountId);
+        }
 
         EnrichedLoyaltyBanksForAccountQueryModel enrichedLoyaltyBanksForAccountQueryModel =
                 new EnrichedLoyaltyBanksForAccountQueryModel(
@@ -54,26 +114,120 @@ public class EnrichedLoyaltyBankQueryHandler {
                         accountEntity.getFirstName(),
                         accountEntity.getLastName(),
                         accountEntity.getEmail(),
-                        new ArrayList<>()
+                        new ArrayList<>(),
+                        loyaltyBankEntities.getTotalElements()
                 );
 
-        Optional<List<LoyaltyBankEntity>> loyaltyBankEntitiesOptional = loyaltyBankRepository.findByAccountId(accountId);
+        loyaltyBankEntities.forEach(
+                loyaltyBankEntity -> enrichedLoyaltyBanksForAccountQueryModel.addLoyaltyBank(new EnrichedLoyaltyBankForAccountQueryModel(
+                        loyaltyBankEntity.getLoyaltyBankId(),
+                        new BusinessQueryModel(loyaltyBankEntity.getBusinessId(), loyaltyBankEntity.getBusinessName()),
+                        loyaltyBankEntity.getPending(),
+                        loyaltyBankEntity.getEarned(),
+                        loyaltyBankEntity.getAuthorized(),
+                        loyaltyBankEntity.getCaptured(),
+                        loyaltyBankEntity.getEarned() - loyaltyBankEntity.getAuthorized() - loyaltyBankEntity.getCaptured()
+                ))
+        );
+
+        return enrichedLoyaltyBanksForAccountQueryModel;
+    }
+
+    private EnrichedLoyaltyBanksForBusinessQueryModel enrichLoyaltyBanksForBusiness(FindEnrichedLoyaltyBanksForBusinessQuery query) {
+        String businessId = query.getBusinessId();
+
+        Optional<EnrichedLoyaltyBankBusinessEntity> businessEntityOptional = enrichedLoyaltyBankBusinessRepository.findById(businessId);
+
+        if (businessEntityOptional.isEmpty()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, businessId);
+            throw new AccountNotFoundException(businessId);
+        }
+
+        EnrichedLoyaltyBankBusinessEntity businessEntity = businessEntityOptional.get();
+
+        Page<EnrichedLoyaltyBankEntity> loyaltyBankEntities =
+                enrichedLoyaltyBankRepository.findByBusinessId(businessId, orderedByLoyaltyBankId(query.getPageable()));
 
-        if (loyaltyBankEntitiesOptional.isEmpty() || loyaltyBankEntitiesOptional.get().isEmpty()) {
+        if (loyaltyBankEntities.isEmpty()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_BUSINESS, businessId);
+        }
+
+        EnrichedLoyaltyBanksForBusinessQueryModel enrichedLoyaltyBanksForBusinessQueryModel =
+                new EnrichedLoyaltyBanksForBusinessQueryModel(
+                        businessEntity.getBusinessId(),
+                        businessEntity.getBusinessName(),
+                        new ArrayList<>(),
+                        loyaltyBankEntities.getTotalElements()
+                );
+
+        loyaltyBankEntities.forEach(
+                loyaltyBankEntity -> enrichedLoyaltyBanksForBusinessQueryModel.addLoyaltyBank(new EnrichedLoyaltyBankForBusinessQueryModel(
+                        loyaltyBankEntity.getLoyaltyBankId(),
+                        new AccountQueryModel(
+                                loyaltyBankEntity.getAccountId(),
+                                loyaltyBankEntity.getFirstName(),
+                                loyaltyBankEntity.getLastName(),
+                                loyaltyBankEntity.getEmail()
+                        ),
+                        loyaltyBankEntity.getPending(),
+                        loyaltyBankEntity.getEarned(),
+                        loyaltyBankEntity.getAuthorized(),
+                        loyaltyBankEntity.getCaptured(),
+                        loyaltyBankEntity.getEarned() - loyaltyBankEntity.getAuthorized() - loyaltyBankEntity.getCaptured()
+                ))
+        );
+
+        return enrichedLoyaltyBanksForBusinessQueryModel;
+    }
+
+    private EnrichedLoyaltyBanksForAccountQueryModel joinLoyaltyBanksForAccount(FindEnrichedLoyaltyBanksForAccountQuery query) {
+        String accountId = query.getAccountId();
+
+        Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(accountId);
+
+        if (accountEntityOptional.isEmpty()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), ACCOUNT_NOT_FOUND_IN_DB, accountId);
+            throw new AccountNotFoundException(accountId);
+        }
+
+        AccountEntity accountEntity = accountEntityOptional.get();
+
+        Page<LoyaltyBankEntity> loyaltyBankEntities =
+                loyaltyBankRepository.findByAccountId(accountId, orderedByLoyaltyBankId(query.getPageable()));
+
+        if (loyaltyBankEntities.isEmpty()) {
             LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_ACCOUNT, accountId);
         }
 
-        loyaltyBankEntitiesOptional.get().forEach(
+        EnrichedLoyaltyBanksForAccountQueryModel enrichedLoyaltyBanksForAccountQueryModel =
+                new EnrichedLoyaltyBanksForAccountQueryModel(
+                        accountEntity.getAccountId(),
+                        accountEntity.getFirstName(),
+                        accountEntity.getLastName(),
+                        accountEntity.getEmail(),
+                        new ArrayList<>(),
+                        loyaltyBankEntities.getTotalElements()
+                );
+
+        Set<String> businessIds = loyaltyBankEntities.stream()
+                .map(LoyaltyBankEntity::getBusinessId)
+                .collect(Collectors.toSet());
+
+        Map<String, BusinessEntity> businessEntities = businessIds.isEmpty()
+                ? Map.of()
+                : businessRepository.findByBusinessIdIn(businessIds).stream()
+                        .collect(Collectors.toMap(BusinessEntity::getBusinessId, Function.identity()));
+
+        loyaltyBankEntities.forEach(
                 loyaltyBankEntity -> {
                     String businessId = loyaltyBankEntity.getBusinessId();
-                    Optional<BusinessEntity> businessEntityOptional = businessRepository.findByBusinessId(businessId);
+                    BusinessEntity businessEntity = businessEntities.get(businessId);
 
-                    if (businessEntityOptional.isEmpty()) {
+                    if (businessEntity == null) {
                         LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), BUSINESS_NOT_FOUND_IN_DB, businessId);
                         throw new BusinessNotFoundException(businessId);
                     }
 
-                    BusinessEntity businessEntity = businessEntityOptional.get();
                     BusinessQueryModel businessQueryModel = new BusinessQueryModel(businessEntity.getBusinessId(), businessEntity.getBusinessName());
                     enrichedLoyaltyBanksForAccountQueryModel.addLoyaltyBank(new EnrichedLoyaltyBankForAccountQueryModel(
                             loyaltyBankEntity.getLoyaltyBankId(),
@@ -90,10 +244,7 @@ public class EnrichedLoyaltyBankQueryHandler {
         return enrichedLoyaltyBanksForAccountQueryModel;
     }
 
-    @QueryHandler
-    public EnrichedLoyaltyBanksForBusinessQueryModel findAndEnrichLoyaltyBanksForBusiness(FindEnrichedLoyaltyBanksForBusinessQuery query) {
-        LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
-
+    private EnrichedLoyaltyBanksForBusinessQueryModel joinLoyaltyBanksForBusiness(FindEnrichedLoyaltyBanksForBusinessQuery query) {
         String businessId = query.getBusinessId();
 
         Optional<BusinessEntity> businessEntityOptional = businessRepository.findByBusinessId(businessId);
@@ -105,30 +256,40 @@ public class EnrichedLoyaltyBankQueryHandler {
 
         BusinessEntity businessEntity = businessEntityOptional.get();
 
+        Page<LoyaltyBankEntity> loyaltyBankEntities =
+                loyaltyBankRepository.findByBusinessId(businessId, orderedByLoyaltyBankId(query.getPageable()));
+
+        if (loyaltyBankEntities.isEmpty()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_BUSINESS, businessId);
+        }
+
         EnrichedLoyaltyBanksForBusinessQueryModel enrichedLoyaltyBanksForBusinessQueryModel =
                 new EnrichedLoyaltyBanksForBusinessQueryModel(
                         businessEntity.getBusinessId(),
                         businessEntity.getBusinessName(),
-                        new ArrayList<>()
+                        new ArrayList<>(),
+                        loyaltyBankEntities.getTotalElements()
                 );
 
-        Optional<List<LoyaltyBankEntity>> loyaltyBankEntitiesOptional = loyaltyBankRepository.findByBusinessId(businessId);
+        Set<String> accountIds = loyaltyBankEntities.stream()
+                .map(LoyaltyBankEntity::getAccountId)
+                .collect(Collectors.toSet());
 
-        if (loyaltyBankEntitiesOptional.isEmpty() || loyaltyBankEntitiesOptional.get().isEmpty()) {
-            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_BUSINESS, businessId);
-        }
+        Map<String, AccountEntity> accountEntities = accountIds.isEmpty()
+                ? Map.of()
+                : accountRepository.findByAccountIdIn(accountIds).stream()
+                        .collect(Collectors.toMap(AccountEntity::getAccountId, Function.identity()));
 
-        loyaltyBankEntitiesOptional.get().forEach(
+        loyaltyBankEntities.forEach(
                 loyaltyBankEntity -> {
                     String accountId = loyaltyBankEntity.getAccountId();
-                    Optional<AccountEntity> accountEntityOptional = accountRepository.findByAccountId(accountId);
+                    AccountEntity accountEntity = accountEntities.get(accountId);
 
-                    if (accountEntityOptional.isEmpty()) {
+                    if (accountEntity == null) {
                         LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), BUSINESS_NOT_FOUND_IN_DB, accountId);
                         throw new AccountNotFoundException(accountId);
                     }
 
-                    AccountEntity accountEntity = accountEntityOptional.get();
                     AccountQueryModel accountQueryModel = new AccountQueryModel(
                             accountEntity.getAccountId(),
                             accountEntity.getFirstName(),
@@ -151,4 +312,21 @@ public class EnrichedLoyaltyBankQueryHandler {
         return enrichedLoyaltyBanksForBusinessQueryModel;
     }
 
+    // The businesses whose names a cached account page shows, so renaming one of them drops the page
+    private static Set<String> businessIds(EnrichedLoyaltyBanksForAccountQueryModel queryModel) {
+        return queryModel.getLoyaltyBankList().stream()
+                .map(loyaltyBank -> loyaltyBank.getBusinessQueryModel().getBusinessId())
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> accountIds(EnrichedLoyaltyBanksForBusinessQueryModel queryModel) {
+        return queryModel.getLoyaltyBankList().stream()
+                .map(loyaltyBank -> loyaltyBank.getAccountQueryModel().getAccountId())
+                .collect(Collectors.toSet());
+    }
+
+    // Pages are read in id order so they are stable between requests and served by the compound indexes
+    private static Pageable orderedByLoyaltyBankId(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("loyaltyBankId"));
+    }
 }
@@ -6,20 +6,24 @@ import loyalty.service.query.data.entities.LoyaltyBankEntity;
 import loyalty.service.query.data.repositories.LoyaltyBankRepository;
 import loyalty.service.core.exceptions.LoyaltyBankNotFoundException;
 import loyalty.service.core.exceptions.NoLoyaltyBanksForAccountFoundException;
+import loyalty.service.core.rest.PaginationResponse;
 import loyalty.service.core.utils.MarkerGenerator;
+import loyalty.service.core.utils.PaginationUtility;
 import loyalty.service.query.queries.FindAllLoyaltyBanksQuery;
 import loyalty.service.query.queries.FindLoyaltyBankQuery;
 import loyalty.service.query.queries.FindLoyaltyBanksWithAccountIdQuery;
 import loyalty.service.query.queries.FindLoyaltyBanksWithBusinessIdQuery;
 import loyalty.service.query.queryModels.LoyaltyBankQueryModel;
+import loyalty.service.query.services.ApproximateCounts;
+import loyalty.service.query.services.QueryResultCache;
 import net.logstash.logback.marker.Markers;
 import org.axonframework.queryhandling.QueryHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Optional;
 
 import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
@@ -31,68 +35,76 @@ public class LoyaltyBankQueryHandler {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyBankQueryHandler.class);
     private final LoyaltyBankRepository loyaltyBankRepository;
+    private final ApproximateCounts approximateCounts;
+    private final QueryResultCache<LoyaltyBankQueryModel> loyaltyBankQueryCache;
 
     @QueryHandler
-    public Page<LoyaltyBankQueryModel> findAllLoyaltyBanks(FindAllLoyaltyBanksQuery query) {
+    public PaginationResponse<LoyaltyBankQueryModel> findAllLoyaltyBanks(FindAllLoyaltyBanksQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
-        return loyaltyBankRepository.findAll(query.getPageable())
-                .map(this::convertLoyaltyBankEntityToLoyaltyBankQueryModel);
+        return PaginationUtility.toPageResponse(
+                loyaltyBankRepository.findAllByOrderByLoyaltyBankId(query.getScrollPosition(), Limit.of(query.getPageSize()))
+                        .map(LoyaltyBankQueryHandler::convertLoyaltyBankEntityToLoyaltyBankQueryModel),
+                query.isIncludeTotal() ? approximateCounts.of(LoyaltyBankEntity.class) : null
+        );
     }
 
     @QueryHandler
-    public List<LoyaltyBankQueryModel> findLoyaltyBanksWithAccountId(FindLoyaltyBanksWithAccountIdQuery query) {
+    public PaginationResponse<LoyaltyBankQueryModel> findLoyaltyBanksWithAccountId(FindLoyaltyBanksWithAccountIdQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
         String accountId = query.getAccountId();
 
-        Optional<List<LoyaltyBankEntity>> loyaltyBankEntitiesOptional = loyaltyBankRepository.findByAccountId(accountId);
+        Window<LoyaltyBankEntity> loyaltyBankEntities = loyaltyBankRepository.findByAccountIdOrderByLoyaltyBankId(
+                accountId, query.getScrollPosition(), Limit.of(query.getPageSize()));
 
-        if (loyaltyBankEntitiesOptional.isEmpty() || loyaltyBankEntitiesOptional.get().isEmpty()) {
+        if (loyaltyBankEntities.isEmpty() && query.getScrollPosition().isInitial()) {
             LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_ACCOUNT, accountId);
             throw new NoLoyaltyBanksForAccountFoundException(accountId);
         }
 
-        return loyaltyBankEntitiesOptional.get().stream()
-                .map(this::convertLoyaltyBankEntityToLoyaltyBankQueryModel)
-                .toList();
+        return PaginationUtility.toPageResponse(
+                loyaltyBankEntities.map(LoyaltyBankQueryHandler::convertLoyaltyBankEntityToLoyaltyBankQueryModel));
     }
 
     @QueryHandler
-    public List<LoyaltyBankQueryModel> findLoyaltyBanksWithBusinessId(FindLoyaltyBanksWithBusinessIdQuery query) {
+    public PaginationResponse<LoyaltyBankQueryModel> findLoyaltyBanksWithBusinessId(FindLoyaltyBanksWithBusinessIdQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
-        String accountId = query.getBusinessId();
+        String businessId = query.getBusinessId();
 
-        Optional<List<LoyaltyBankEntity>> loyaltyBankEntitiesOptional = loyaltyBankRepository.findByBusinessId(accountId);
+        Window<LoyaltyBankEntity> loyaltyBankEntities = loyaltyBankRepository.findByBusinessIdOrderByLoyaltyBankId(
+                businessId, query.getScrollPosition(), Limit.of(query.getPageSize()));
 
-        if (loyaltyBankEntitiesOptional.isEmpty() || loyaltyBankEntitiesOptional.get().isEmpty()) {
-            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_BUSINESS, accountId);
-            throw new NoLoyaltyBanksForBusinessFoundException(accountId);
+        if (loyaltyBankEntities.isEmpty() && query.getScrollPosition().isInitial()) {
+            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), NO_LOYALTY_BANK_FOUND_FOR_BUSINESS, businessId);
+            throw new NoLoyaltyBanksForBusinessFoundException(businessId);
         }
 
-        return loyaltyBankEntitiesOptional.get().stream()
-                .map(this::convertLoyaltyBankEntityToLoyaltyBankQueryModel)
-                .toList();
+        return PaginationUtility.toPageResponse(
+                loyaltyBankEntities.map(LoyaltyBankQueryHandler::convertLoyaltyBankEntityToLoyaltyBankQueryModel));
     }
 
+    // Also answers the initial result of subscription queries, whose updates are emitted by LoyaltyBankEventsHandler
     @QueryHandler
     public LoyaltyBankQueryModel findLoyaltyBank(FindLoyaltyBankQuery query) {
         LOGGER.info(MarkerGenerator.generateMarker(query), PROCESSING_QUERY, query.getClass().getSimpleName());
 
         String loyaltyBankId = query.getLoyaltyBankId();
 
-        Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findById(query.getLoyaltyBankId());
+        return loyaltyBankQueryCache.get(loyaltyBankId, query.isBypassCache(), () -> {
+            Optional<LoyaltyBankEntity> loyaltyBankEntityOptional = loyaltyBankRepository.findById(loyaltyBankId);
 
-        if (loyaltyBankEntityOptional.isEmpty()) {
-            LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
-            throw new LoyaltyBankNotFoundException(loyaltyBankId);
-        }
+            if (loyaltyBankEntityOptional.isEmpty()) {
+                LOGGER.info(Markers.append(REQUEST_ID, query.getRequestId()), LOYALTY_BANK_NOT_FOUND_IN_DB, loyaltyBankId);
+                throw new LoyaltyBankNotFoundException(loyaltyBankId);
+            }
 
-        return convertLoyaltyBankEntityToLoyaltyBankQueryModel(loyaltyBankEntityOptional.get());
+            return convertLoyaltyBankEntityToLoyaltyBankQueryModel(loyaltyBankEntityOptional.get());
+        });
     }
 
-    private LoyaltyBankQueryModel convertLoyaltyBankEntityToLoyaltyBankQueryModel(LoyaltyBankEntity loyaltyBankEntity) {
+    public static LoyaltyBankQueryModel convertLoyaltyBankEntityToLoyaltyBankQueryModel(LoyaltyBankEntity loyaltyBankEntity) {
         int available =
                 loyaltyBankEntity.getEarned() - loyaltyBankEntity.getAuthorized() - loyaltyBankEntity.getCaptured();
         return new LoyaltyBankQueryModel(
@@ -103,7 +115,8 @@ public class LoyaltyBankQueryHandler {
                 loyaltyBankEntity.getEarned(),
                 loyaltyBankEntity.getAuthorized(),
                 loyaltyBankEntity.getCaptured(),
-                available
+                available,
+                loyaltyBankEntity.getVersion()
         );
     }
 }
@@ -1,5 +1,6 @@
 package loyalty.service.query.queryModels;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -11,4 +12,11 @@ public class AccountQueryModel {
     private String firstName;
     private String lastName;
     private String email;
+    @JsonIgnore
+    private int version;
+
+    // Accounts embedded in enriched loyalty banks are copies, which carry no version
+    public AccountQueryModel(String accountId, String firstName, String lastName, String email) {
+        this(accountId, firstName, lastName, email, 0);
+    }
 }
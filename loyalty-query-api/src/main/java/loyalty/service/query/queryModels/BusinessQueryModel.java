@@ -1,5 +1,6 @@
 package loyalty.service.query.queryModels;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -9,4 +10,11 @@ public class BusinessQueryModel {
 
     private String businessId;
     private String businessName;
+    @JsonIgnore
+    private int version;
+
+    // Businesses embedded in enriched loyalty banks are copies, which carry no version
+    public BusinessQueryModel(String businessId, String businessName) {
+        this(businessId, businessName, 0);
+    }
 }
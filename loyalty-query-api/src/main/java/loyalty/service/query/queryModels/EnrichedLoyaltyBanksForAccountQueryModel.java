@@ -14,6 +14,7 @@ public class EnrichedLoyaltyBanksForAccountQueryModel {
     private String lastName;
     private String email;
     private List<EnrichedLoyaltyBankForAccountQueryModel> loyaltyBankList;
+    private long totalLoyaltyBanks;
 
     public void addLoyaltyBank(EnrichedLoyaltyBankForAccountQueryModel loyaltyBank) {
         loyaltyBankList.add(loyaltyBank);
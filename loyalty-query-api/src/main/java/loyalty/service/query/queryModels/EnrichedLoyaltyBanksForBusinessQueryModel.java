@@ -12,6 +12,7 @@ public class EnrichedLoyaltyBanksForBusinessQueryModel {
     private String businessId;
     private String businessName;
     private List<EnrichedLoyaltyBankForBusinessQueryModel> loyaltyBankList;
+    private long totalLoyaltyBanks;
 
     public void addLoyaltyBank(EnrichedLoyaltyBankForBusinessQueryModel loyaltyBank) {
         loyaltyBankList.add(loyaltyBank);
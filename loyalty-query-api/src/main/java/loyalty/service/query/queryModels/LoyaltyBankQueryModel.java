@@ -1,5 +1,6 @@
 package loyalty.service.query.queryModels;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -15,4 +16,6 @@ public class LoyaltyBankQueryModel {
     private int authorized;
     private int captured;
     private int available;
+    @JsonIgnore
+    private int version;
 }
@@ -11,19 +11,24 @@ import loyalty.service.query.queries.FindAllAccountsQuery;
 import loyalty.service.query.queries.FindEnrichedLoyaltyBanksForAccountQuery;
 import loyalty.service.query.queryModels.AccountQueryModel;
 import loyalty.service.query.queryModels.EnrichedLoyaltyBanksForAccountQueryModel;
+import loyalty.service.query.services.ConsistencyTokenWaiter;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static loyalty.service.core.constants.DomainConstants.ACCOUNT_GROUP;
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE_SIZE;
+import static loyalty.service.core.constants.DomainConstants.ENRICHED_LOYALTY_BANK_GROUP;
 import static loyalty.service.core.constants.LogMessages.SENDING_QUERY;
 
 @RestController
@@ -36,51 +41,70 @@ public class AccountQueryController {
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private ConsistencyTokenWaiter consistencyTokenWaiter;
+
     @GetMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get accounts")
     public CompletableFuture<PaginationResponse<AccountQueryModel>> getAccounts(
-            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindAllAccountsQuery query = FindAllAccountsQuery.builder()
                 .requestId(UUID.randomUUID().toString())
-                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .scrollPosition(PaginationUtility.buildScrollPosition(pageToken))
+                .pageSize(pageSize)
+                .includeTotal(includeTotal)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, new PageResponseType<>(AccountQueryModel.class))
-                .thenApply(PaginationUtility::toPageResponse);
+        return consistencyTokenWaiter.afterProcessed(ACCOUNT_GROUP, consistencyToken,
+                () -> queryGateway.query(query, new PageResponseType<>(AccountQueryModel.class)));
     }
 
     @GetMapping(params = "accountId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get account by id")
-    public CompletableFuture<AccountQueryModel> getAccount(String accountId) {
+    public CompletableFuture<ResponseEntity<AccountQueryModel>> getAccount(
+            String accountId,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindAccountQuery query = FindAccountQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .accountId(accountId)
+                .bypassCache(consistencyToken != null)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, ResponseTypes.instanceOf(AccountQueryModel.class));
+        return consistencyTokenWaiter.afterProcessed(ACCOUNT_GROUP, consistencyToken,
+                () -> queryGateway.query(query, ResponseTypes.instanceOf(AccountQueryModel.class))
+                        .thenApply(account -> ResponseEntity.ok().eTag(String.valueOf(account.getVersion())).body(account)));
     }
 
     @GetMapping(path = "/enrich", params = "accountId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get account by id")
-    public CompletableFuture<EnrichedLoyaltyBanksForAccountQueryModel> getEnrichedAccount(String accountId) {
+    public CompletableFuture<EnrichedLoyaltyBanksForAccountQueryModel> getEnrichedAccount(
+            String accountId,
+            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindEnrichedLoyaltyBanksForAccountQuery query = FindEnrichedLoyaltyBanksForAccountQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .accountId(accountId)
+                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .bypassCache(consistencyToken != null)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, ResponseTypes.instanceOf(EnrichedLoyaltyBanksForAccountQueryModel.class));
+        return consistencyTokenWaiter.afterProcessed(ENRICHED_LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryGateway.query(query, ResponseTypes.instanceOf(EnrichedLoyaltyBanksForAccountQueryModel.class)));
     }
 }
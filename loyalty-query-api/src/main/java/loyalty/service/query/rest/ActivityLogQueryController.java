@@ -9,7 +9,7 @@ import loyalty.service.core.utils.PaginationUtility;
 import loyalty.service.query.queries.FindActivityLogQuery;
 import loyalty.service.query.queries.FindAllActivityLogsQuery;
 import loyalty.service.query.queryModels.ActivityLogQueryModel;
-import org.axonframework.messaging.responsetypes.ResponseTypes;
+import loyalty.service.query.services.ConsistencyTokenWaiter;
 import org.axonframework.queryhandling.QueryGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,11 +17,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
-import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE;
+import static loyalty.service.core.constants.DomainConstants.ACTIVITY_LOG_GROUP;
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE_SIZE;
 import static loyalty.service.core.constants.LogMessages.SENDING_QUERY;
 
@@ -35,37 +35,50 @@ public class ActivityLogQueryController {
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private ConsistencyTokenWaiter consistencyTokenWaiter;
+
     @GetMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get activityLogs")
     public CompletableFuture<PaginationResponse<ActivityLogQueryModel>> getActivityLogs(
-            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindAllActivityLogsQuery query = FindAllActivityLogsQuery.builder()
                 .requestId(UUID.randomUUID().toString())
-                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .scrollPosition(PaginationUtility.buildScrollPosition(pageToken))
+                .pageSize(pageSize)
+                .includeTotal(includeTotal)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, new PageResponseType<>(ActivityLogQueryModel.class))
-                .thenApply(PaginationUtility::toPageResponse);
+        return consistencyTokenWaiter.afterProcessed(ACTIVITY_LOG_GROUP, consistencyToken,
+                () -> queryGateway.query(query, new PageResponseType<>(ActivityLogQueryModel.class)));
     }
 
     @GetMapping(params = "activityLogId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get activityLog by id")
-    public CompletableFuture<PaginationResponse<ActivityLogQueryModel>> getActivityLog(String activityLogId) {
+    public CompletableFuture<PaginationResponse<ActivityLogQueryModel>> getActivityLog(
+            String activityLogId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindActivityLogQuery query = FindActivityLogQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .activityLogId(activityLogId)
+                .scrollPosition(PaginationUtility.buildScrollPosition(pageToken))
+                .pageSize(pageSize)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, new PageResponseType<>(ActivityLogQueryModel.class))
-                .thenApply(PaginationUtility::toPageResponse);
+        return consistencyTokenWaiter.afterProcessed(ACTIVITY_LOG_GROUP, consistencyToken,
+                () -> queryGateway.query(query, new PageResponseType<>(ActivityLogQueryModel.class)));
     }
 }
@@ -11,19 +11,24 @@ import loyalty.service.query.queries.FindBusinessQuery;
 import loyalty.service.query.queries.FindEnrichedLoyaltyBanksForBusinessQuery;
 import loyalty.service.query.queryModels.BusinessQueryModel;
 import loyalty.service.query.queryModels.EnrichedLoyaltyBanksForBusinessQueryModel;
+import loyalty.service.query.services.ConsistencyTokenWaiter;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static loyalty.service.core.constants.DomainConstants.BUSINESS_GROUP;
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE_SIZE;
+import static loyalty.service.core.constants.DomainConstants.ENRICHED_LOYALTY_BANK_GROUP;
 import static loyalty.service.core.constants.LogMessages.SENDING_QUERY;
 
 @RestController
@@ -36,51 +41,70 @@ public class BusinessQueryController {
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private ConsistencyTokenWaiter consistencyTokenWaiter;
+
     @GetMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get businesses")
     public CompletableFuture<PaginationResponse<BusinessQueryModel>> getBusinesss(
-            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindAllBusinessesQuery query = FindAllBusinessesQuery.builder()
                 .requestId(UUID.randomUUID().toString())
-                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .scrollPosition(PaginationUtility.buildScrollPosition(pageToken))
+                .pageSize(pageSize)
+                .includeTotal(includeTotal)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, new PageResponseType<>(BusinessQueryModel.class))
-                .thenApply(PaginationUtility::toPageResponse);
+        return consistencyTokenWaiter.afterProcessed(BUSINESS_GROUP, consistencyToken,
+                () -> queryGateway.query(query, new PageResponseType<>(BusinessQueryModel.class)));
     }
 
     @GetMapping(params = "businessId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get business by id")
-    public CompletableFuture<BusinessQueryModel> getBusiness(String businessId) {
+    public CompletableFuture<ResponseEntity<BusinessQueryModel>> getBusiness(
+            String businessId,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindBusinessQuery query = FindBusinessQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .businessId(businessId)
+                .bypassCache(consistencyToken != null)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, ResponseTypes.instanceOf(BusinessQueryModel.class));
+        return consistencyTokenWaiter.afterProcessed(BUSINESS_GROUP, consistencyToken,
+                () -> queryGateway.query(query, ResponseTypes.instanceOf(BusinessQueryModel.class))
+                        .thenApply(business -> ResponseEntity.ok().eTag(String.valueOf(business.getVersion())).body(business)));
     }
 
     @GetMapping(path = "/enrich", params = "businessId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get business by id")
-    public CompletableFuture<EnrichedLoyaltyBanksForBusinessQueryModel> getEnrichedBusiness(String businessId) {
+    public CompletableFuture<EnrichedLoyaltyBanksForBusinessQueryModel> getEnrichedBusiness(
+            String businessId,
+            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindEnrichedLoyaltyBanksForBusinessQuery query = FindEnrichedLoyaltyBanksForBusinessQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .businessId(businessId)
+                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .bypassCache(consistencyToken != null)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, ResponseTypes.instanceOf(EnrichedLoyaltyBanksForBusinessQueryModel.class));
+        return consistencyTokenWaiter.afterProcessed(ENRICHED_LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryGateway.query(query, ResponseTypes.instanceOf(EnrichedLoyaltyBanksForBusinessQueryModel.class)));
     }
 }
@@ -1,5 +1,6 @@
 package loyalty.service.query.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import loyalty.service.core.rest.PageResponseType;
@@ -8,20 +9,32 @@ import loyalty.service.core.utils.MarkerGenerator;
 import loyalty.service.core.utils.PaginationUtility;
 import loyalty.service.query.queries.*;
 import loyalty.service.query.queryModels.LoyaltyBankQueryModel;
+import loyalty.service.query.services.ConsistencyTokenWaiter;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
-import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE;
+import static loyalty.service.core.constants.DomainConstants.CONSISTENCY_TOKEN_HEADER;
 import static loyalty.service.core.constants.DomainConstants.DEFAULT_PAGE_SIZE;
+import static loyalty.service.core.constants.DomainConstants.LOYALTY_BANK_GROUP;
 import static loyalty.service.core.constants.LogMessages.SENDING_QUERY;
 
 @RestController
@@ -30,64 +43,108 @@ import static loyalty.service.core.constants.LogMessages.SENDING_QUERY;
 public class LoyaltyBankQueryController {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(LoyaltyBankQueryController.class);
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final long SUBSCRIPTION_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private ConsistencyTokenWaiter consistencyTokenWaiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get loyalty banks")
     public CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>> getLoyaltyBanks(
-            @RequestParam(defaultValue = DEFAULT_PAGE) int currentPage,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
         FindAllLoyaltyBanksQuery query = FindAllLoyaltyBanksQuery.builder()
                 .requestId(UUID.randomUUID().toString())
-                .pageable(PaginationUtility.buildPageable(currentPage, pageSize))
+                .scrollPosition(PaginationUtility.buildScrollPosition(pageToken))
+                .pageSize(pageSize)
+                .includeTotal(includeTotal)
                 .build();
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, new PageResponseType<>(LoyaltyBankQueryModel.class))
-                .thenApply(PaginationUtility::toPageResponse);
+        return consistencyTokenWaiter.afterProcessed(LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryGateway.query(query, new PageResponseType<>(LoyaltyBankQueryModel.class)));
     }
 
-    // TODO: make this a paginated response
     @GetMapping(params = "accountId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get loyalty banks for account")
-    public CompletableFuture<List<LoyaltyBankQueryModel>> getLoyaltyBanksForAccount(String accountId) {
-        FindLoyaltyBanksWithAccountIdQuery query = FindLoyaltyBanksWithAccountIdQuery.builder()
-                .requestId(UUID.randomUUID().toString())
-                .accountId(accountId)
-                .build();
-
-        LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
-
-        return queryGateway.query(query, ResponseTypes.multipleInstancesOf(LoyaltyBankQueryModel.class));
+    public CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>> getLoyaltyBanksForAccount(
+            String accountId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
+        return consistencyTokenWaiter.afterProcessed(LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryLoyaltyBanksForAccount(accountId, PaginationUtility.buildScrollPosition(pageToken), pageSize));
     }
 
-    // TODO: make this a paginated response
     @GetMapping(params = "businessId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get loyalty banks for business")
-    public CompletableFuture<List<LoyaltyBankQueryModel>> getLoyaltyBanksForBusiness(String businessId) {
-        FindLoyaltyBanksWithBusinessIdQuery query = FindLoyaltyBanksWithBusinessIdQuery.builder()
-                .requestId(UUID.randomUUID().toString())
-                .businessId(businessId)
-                .build();
+    public CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>> getLoyaltyBanksForBusiness(
+            String businessId,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
+        return consistencyTokenWaiter.afterProcessed(LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryLoyaltyBanksForBusiness(businessId, PaginationUtility.buildScrollPosition(pageToken), pageSize));
+    }
 
-        LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
+    @GetMapping(path = "/export", params = "accountId", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all loyalty banks for account as newline delimited json")
+    public ResponseEntity<StreamingResponseBody> exportLoyaltyBanksForAccount(String accountId) {
+        return export(position -> queryLoyaltyBanksForAccount(accountId, position, EXPORT_PAGE_SIZE));
+    }
 
-        return queryGateway.query(query, ResponseTypes.multipleInstancesOf(LoyaltyBankQueryModel.class));
+    @GetMapping(path = "/export", params = "businessId", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all loyalty banks for business as newline delimited json")
+    public ResponseEntity<StreamingResponseBody> exportLoyaltyBanksForBusiness(String businessId) {
+        return export(position -> queryLoyaltyBanksForBusiness(businessId, position, EXPORT_PAGE_SIZE));
     }
 
     @GetMapping(params = "loyaltyBankId")
     @ResponseBody
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get loyalty bank")
-    public CompletableFuture<LoyaltyBankQueryModel> getLoyaltyBank(String loyaltyBankId) {
+    public CompletableFuture<ResponseEntity<LoyaltyBankQueryModel>> getLoyaltyBank(
+            String loyaltyBankId,
+            @RequestHeader(value = CONSISTENCY_TOKEN_HEADER, required = false) Long consistencyToken) {
+        FindLoyaltyBankQuery query = FindLoyaltyBankQuery.builder()
+                .requestId(UUID.randomUUID().toString())
+                .loyaltyBankId(loyaltyBankId)
+                .bypassCache(consistencyToken != null)
+                .build();
+
+        LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
+
+        // The version is sent as the ETag, so Spring answers a matching If-None-Match with 304 and skips writing the body
+        return consistencyTokenWaiter.afterProcessed(LOYALTY_BANK_GROUP, consistencyToken,
+                () -> queryGateway.query(query, ResponseTypes.instanceOf(LoyaltyBankQueryModel.class))
+                        .thenApply(loyaltyBank -> ResponseEntity.ok()
+                                .eTag(String.valueOf(loyaltyBank.getVersion()))
+                                .body(loyaltyBank)));
+    }
+
+    /**
+     * Streams the loyalty bank as server-sent events, first as it is now and then every time its balances change, so
+     * clients waiting for points to land do not have to poll. The stream ends when the loyalty bank is deleted.
+     */
+    @GetMapping(path = "/subscribe", params = "loyaltyBankId", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to loyalty bank updates")
+    public SseEmitter subscribeToLoyaltyBank(String loyaltyBankId) {
         FindLoyaltyBankQuery query = FindLoyaltyBankQuery.builder()
                 .requestId(UUID.randomUUID().toString())
                 .loyaltyBankId(loyaltyBankId)
@@ -95,6 +152,103 @@ public class LoyaltyBankQueryController {
 
         LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
 
-        return queryGateway.query(query, ResponseTypes.instanceOf(LoyaltyBankQueryModel.class));
+        SubscriptionQueryResult<LoyaltyBankQueryModel, LoyaltyBankQueryModel> result = queryGateway.subscriptionQuery(
+                query,
+                ResponseTypes.instanceOf(LoyaltyBankQueryModel.class),
+                ResponseTypes.instanceOf(LoyaltyBankQueryModel.class)
+        );
+
+        // Read before responding, so a missing loyalty bank is still reported with its error status
+        LoyaltyBankQueryModel initialResult;
+        try {
+            initialResult = result.initialResult().block();
+        } catch (RuntimeException exception) {
+            result.cancel();
+            throw exception;
+        }
+
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MILLIS);
+        emitter.onCompletion(result::cancel);
+
+        result.updates()
+                .startWith(initialResult)
+                .subscribe(
+                        loyaltyBank -> {
+                            try {
+                                emitter.send(SseEmitter.event().data(loyaltyBank, MediaType.APPLICATION_JSON));
+                            } catch (IOException exception) {
+                                result.cancel();
+                            }
+                        },
+                        emitter::completeWithError,
+                        emitter::complete
+                );
+
+        return emitter;
+    }
+
+    private CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>> queryLoyaltyBanksForAccount(
+            String accountId, KeysetScrollPosition scrollPosition, int pageSize) {
+        FindLoyaltyBanksWithAccountIdQuery query = FindLoyaltyBanksWithAccountIdQuery.builder()
+                .requestId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .scrollPosition(scrollPosition)
+                .pageSize(pageSize)
+                .build();
+
+        LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
+
+        return queryGateway.query(query, new PageResponseType<>(LoyaltyBankQueryModel.class));
+    }
+
+    private CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>> queryLoyaltyBanksForBusiness(
+            String businessId, KeysetScrollPosition scrollPosition, int pageSize) {
+        FindLoyaltyBanksWithBusinessIdQuery query = FindLoyaltyBanksWithBusinessIdQuery.builder()
+                .requestId(UUID.randomUUID().toString())
+                .businessId(businessId)
+                .scrollPosition(scrollPosition)
+                .pageSize(pageSize)
+                .build();
+
+        LOGGER.info(MarkerGenerator.generateMarker(query), SENDING_QUERY, query.getClass().getSimpleName());
+
+        return queryGateway.query(query, new PageResponseType<>(LoyaltyBankQueryModel.class));
+    }
+
+    /**
+     * Streams every loyalty bank one keyset page at a time, so only one page is held in memory however many
+     * loyalty banks are exported. The first page is read before responding, so a missing account or business is
+     * still reported with its error status.
+     */
+    private ResponseEntity<StreamingResponseBody> export(
+            Function<KeysetScrollPosition, CompletableFuture<PaginationResponse<LoyaltyBankQueryModel>>> pageQuery) {
+        PaginationResponse<LoyaltyBankQueryModel> firstPage;
+        try {
+            firstPage = pageQuery.apply(ScrollPosition.keyset()).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            PaginationResponse<LoyaltyBankQueryModel> page = firstPage;
+
+            while (true) {
+                for (LoyaltyBankQueryModel loyaltyBank : page.getContent()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(loyaltyBank));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+
+                if (page.getNextPageToken() == null) {
+                    break;
+                }
+                page = pageQuery.apply(PaginationUtility.buildScrollPosition(page.getNextPageToken())).join();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -0,0 +1,115 @@
+package loyalty.service.query.services;
+
+import jakarta.annotation.PostConstruct;
+import loyalty.service.query.data.entities.ActivityLogEntryEntity;
+import loyalty.service.query.data.enums.ActivityLogType;
+import loyalty.service.query.data.enums.Actor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static loyalty.service.query.services.ActivityLogService.BUSINESS_ENROLLED_MESSAGE;
+import static loyalty.service.query.services.ActivityLogService.BUSINESS_NAME_CHANGED_MESSAGE;
+
+/**
+ * Creates the unique (requestId, activityLogType) index the activity log upserts rely on, once the entries created
+ * before it existed are migrated. Business entries were typed ACCOUNT before, so they are retyped by their messages,
+ * and entries of one request and activity log written as separate documents have their messages appended to the
+ * first one and are removed.
+ * <p>
+ * Runs before the event processors start. A duplicate is only merged by the instance that removed it, so instances
+ * starting together do not append its messages twice. Entries of different activity logs sharing a request and type
+ * are left as they are. When the index still cannot be created, e.g. because of those entries or while an older
+ * instance keeps writing duplicates, the failure is logged and the upserts work without it until the next start.
+ */
+@Component
+public class ActivityLogRequestIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActivityLogRequestIndex.class);
+    private static final String INDEX_NAME = "activity_log_request_idx";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityLogRequestIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void create() {
+        try {
+            long retyped = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("activityLogType").is(ActivityLogType.ACCOUNT)
+                            .and("messages").in(BUSINESS_ENROLLED_MESSAGE, BUSINESS_NAME_CHANGED_MESSAGE)),
+                    Update.update("activityLogType", ActivityLogType.BUSINESS),
+                    ActivityLogEntryEntity.class
+            ).getModifiedCount();
+            if (retyped > 0) {
+                LOGGER.info("Retyped {} business activity log entries", retyped);
+            }
+
+            int merged = mergeDuplicates();
+            if (merged > 0) {
+                LOGGER.info("Merged {} duplicate activity log entries", merged);
+            }
+
+            mongoTemplate.indexOps(ActivityLogEntryEntity.class).ensureIndex(new Index()
+                    .on("requestId", Sort.Direction.ASC)
+                    .on("activityLogType", Sort.Direction.ASC)
+                    .unique()
+                    .named(INDEX_NAME));
+        } catch (DataAccessException e) {
+            LOGGER.error("Failed to create activity log index {}. Reason: {}", INDEX_NAME, e.getLocalizedMessage());
+        }
+    }
+
+    private int mergeDuplicates() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group("requestId", "activityLogType", "activityLogId").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        int merged = 0;
+        for (Document duplicate : mongoTemplate.aggregate(duplicates, ActivityLogEntryEntity.class, Document.class)) {
+            List<Object> ids = duplicate.getList("ids", Object.class);
+            for (Object id : ids.subList(1, ids.size())) {
+                if (mergeInto(ids.get(0), id)) {
+                    merged++;
+                }
+            }
+        }
+        return merged;
+    }
+
+    private boolean mergeInto(Object firstId, Object duplicateId) {
+        ActivityLogEntryEntity duplicate = mongoTemplate.findAndRemove(byId(duplicateId), ActivityLogEntryEntity.class);
+
+        if (duplicate == null) {
+            return false;
+        }
+
+        Update update = new Update().push("messages").each(duplicate.getMessages().toArray());
+        if (duplicate.getActor() == Actor.SYSTEM) {
+            update.set("actor", Actor.SYSTEM);
+        }
+
+        mongoTemplate.updateFirst(byId(firstId), update, ActivityLogEntryEntity.class);
+        return true;
+    }
+
+    private static Query byId(Object id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
@@ -19,10 +19,12 @@ import loyalty.service.query.projections.ActivityLogEventsHandler;
 import net.logstash.logback.marker.Markers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.util.Optional;
 
 import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
 
@@ -31,40 +33,29 @@ import static loyalty.service.core.constants.DomainConstants.REQUEST_ID;
 public class ActivityLogService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ActivityLogEventsHandler.class);
+    static final String BUSINESS_ENROLLED_MESSAGE = "Business enrolled";
+    static final String BUSINESS_NAME_CHANGED_MESSAGE = "Business Name changed";
 
     private final ActivityLogRepository activityLogRepository;
+    private final ProjectionBatch projectionBatch;
 
     public void saveActivityLogEntryFromEvent(AbstractAccountEvent event, Instant timestamp) {
-        Optional<ActivityLogEntryEntity> activityLogEntryEntityOptional =
-                activityLogRepository.findByRequestIdAndActivityLogType(event.getRequestId(), ActivityLogType.ACCOUNT);
-
-        ActivityLogEntryEntity activityLogEntry;
-
-        if (activityLogEntryEntityOptional.isPresent()) {
-            activityLogEntry = activityLogEntryEntityOptional.get();
-        } else {
-            activityLogEntry = new ActivityLogEntryEntity();
-            activityLogEntry.setRequestId(event.getRequestId());
-            activityLogEntry.setTimestamp(timestamp);
-            activityLogEntry.setActor(Actor.USER);
-            activityLogEntry.setActivityLogType(ActivityLogType.ACCOUNT);
-            activityLogEntry.setActivityLogId(event.getAccountId());
-        }
+        String message;
 
         // TODO: show old and new state in message and save messages as a constant
         if (event instanceof AccountCreatedEvent) {
-            activityLogEntry.getMessages().add("Account created");
+            message = "Account created";
         } else if (event instanceof AccountFirstNameChangedEvent) {
-            activityLogEntry.getMessages().add("First Name changed on account");
+            message = "First Name changed on account";
         } else if (event instanceof AccountLastNameChangedEvent) {
-            activityLogEntry.getMessages().add("Last Name changed on account");
+            message = "Last Name changed on account";
         } else if (event instanceof AccountEmailChangedEvent) {
-            activityLogEntry.getMessages().add("Email changed on account");
+            message = "Email changed on account";
         } else {
             throw new IllegalArgumentException("Invalid event type");
         }
 
-        activityLogRepository.save(activityLogEntry);
+        addMessage(event.getRequestId(), ActivityLogType.ACCOUNT, event.getAccountId(), timestamp, Actor.USER, message);
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()),
                 "Activity log entry saved for {} on {} event",
                 event.getAccountId(),
@@ -72,58 +63,51 @@ public class ActivityLogService {
     }
 
     public void deleteActivityLogEntries(AccountDeletedEvent event) {
-        activityLogRepository.deleteAllByActivityLogId(event.getAccountId());
+        deleteActivityLogEntries(event.getAccountId());
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), "Activity log entries deleted for {} on {} event", event.getAccountId(), event.getClass().getSimpleName());
     }
 
     public void saveActivityLogEntryFromEvent(AbstractLoyaltyBankEvent event, Instant timestamp) {
-        Optional<ActivityLogEntryEntity> activityLogEntryEntityOptional =
-                activityLogRepository.findByRequestIdAndActivityLogType(event.getRequestId(), ActivityLogType.LOYALTY_BANK);
-
-        ActivityLogEntryEntity activityLogEntry;
-
-        if (activityLogEntryEntityOptional.isPresent()) {
-            activityLogEntry = activityLogEntryEntityOptional.get();
-        } else {
-            activityLogEntry = new ActivityLogEntryEntity();
-            activityLogEntry.setRequestId(event.getRequestId());
-            activityLogEntry.setTimestamp(timestamp);
-            activityLogEntry.setActor(Actor.USER);
-            activityLogEntry.setActivityLogType(ActivityLogType.LOYALTY_BANK);
-            activityLogEntry.setActivityLogId(event.getLoyaltyBankId());
-        }
+        String message;
+        Actor actor = Actor.USER;
 
         // TODO: show points in message and save messages as a constant
         if (event instanceof LoyaltyBankCreatedEvent) {
-            activityLogEntry.getMessages().add("Loyalty Bank created");
+            message = "Loyalty Bank created";
         } else if (event instanceof LoyaltyBankDeletedEvent) {
-            activityLogEntry.getMessages().add("Loyalty Bank deleted");
+            message = "Loyalty Bank deleted";
         } else if (event instanceof AllPointsExpiredEvent) {
-            activityLogEntry.getMessages().add("All points expired for Loyalty Bank");
-            activityLogEntry.setActor(Actor.SYSTEM);
+            message = "All points expired for Loyalty Bank";
+            actor = Actor.SYSTEM;
         } else if (event instanceof AuthorizedTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Authorize transaction created");
+            message = "Authorize transaction created";
         } else if (event instanceof AwardedTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Awarded transaction created");
+            message = "Awarded transaction created";
         } else if (event instanceof CapturedTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Captured transaction created");
+            message = "Captured transaction created";
         } else if (event instanceof EarnedTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Earned transaction created");
+            message = "Earned transaction created";
         } else if (event instanceof ExpiredTransactionCreatedEvent expiredTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add(String.format(
+            message = String.format(
                     "%d points expired from %s transaction",
                     expiredTransactionCreatedEvent.getPoints(),
                     expiredTransactionCreatedEvent.getTargetTransactionId()
-            ));
+            );
+        } else if (event instanceof BatchExpiredTransactionCreatedEvent batchExpiredTransactionCreatedEvent) {
+            message = String.format(
+                    "%d points expired from %d transactions",
+                    batchExpiredTransactionCreatedEvent.getPoints(),
+                    batchExpiredTransactionCreatedEvent.getTargetTransactions().size()
+            );
         } else if (event instanceof PendingTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Pending transaction created");
+            message = "Pending transaction created";
         } else if (event instanceof VoidTransactionCreatedEvent) {
-            activityLogEntry.getMessages().add("Void transaction created");
+            message = "Void transaction created";
         } else {
             throw new IllegalArgumentException("Invalid event type");
         }
 
-        activityLogRepository.save(activityLogEntry);
+        addMessage(event.getRequestId(), ActivityLogType.LOYALTY_BANK, event.getLoyaltyBankId(), timestamp, actor, message);
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()),
                 "Activity log entry saved for {} on {} event",
                 event.getLoyaltyBankId(),
@@ -131,37 +115,23 @@ public class ActivityLogService {
     }
 
     public void deleteActivityLogEntries(LoyaltyBankDeletedEvent event) {
-        activityLogRepository.deleteAllByActivityLogId(event.getLoyaltyBankId());
+        deleteActivityLogEntries(event.getLoyaltyBankId());
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), "Activity log entries deleted for {} on {} event", event.getAccountId(), event.getClass().getSimpleName());
     }
 
     public void saveActivityLogEntryFromEvent(AbstractBusinessEvent event, Instant timestamp) {
-        Optional<ActivityLogEntryEntity> activityLogEntryEntityOptional =
-                activityLogRepository.findByRequestIdAndActivityLogType(event.getRequestId(), ActivityLogType.BUSINESS);
-
-        ActivityLogEntryEntity activityLogEntry;
-
-        if (activityLogEntryEntityOptional.isPresent()) {
-            activityLogEntry = activityLogEntryEntityOptional.get();
-        } else {
-            activityLogEntry = new ActivityLogEntryEntity();
-            activityLogEntry.setRequestId(event.getRequestId());
-            activityLogEntry.setTimestamp(timestamp);
-            activityLogEntry.setActor(Actor.USER);
-            activityLogEntry.setActivityLogType(ActivityLogType.ACCOUNT);
-            activityLogEntry.setActivityLogId(event.getBusinessId());
-        }
+        String message;
 
         // TODO: show old and new state in message and save messages as a constant
         if (event instanceof BusinessEnrolledEvent) {
-            activityLogEntry.getMessages().add("Business enrolled");
+            message = BUSINESS_ENROLLED_MESSAGE;
         } else if (event instanceof BusinessNameChangedEvent) {
-            activityLogEntry.getMessages().add("Business Name changed");
+            message = BUSINESS_NAME_CHANGED_MESSAGE;
         } else {
             throw new IllegalArgumentException("Invalid event type");
         }
 
-        activityLogRepository.save(activityLogEntry);
+        addMessage(event.getRequestId(), ActivityLogType.BUSINESS, event.getBusinessId(), timestamp, Actor.USER, message);
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()),
                 "Activity log entry saved for {} on {} event",
                 event.getBusinessId(),
@@ -169,7 +139,53 @@ public class ActivityLogService {
     }
 
     public void deleteActivityLogEntries(BusinessDeletedEvent event) {
-        activityLogRepository.deleteAllByActivityLogId(event.getBusinessId());
+        deleteActivityLogEntries(event.getBusinessId());
         LOGGER.info(Markers.append(REQUEST_ID, event.getRequestId()), "Activity log entries deleted for {} on {} event", event.getBusinessId(), event.getClass().getSimpleName());
     }
+
+    /**
+     * Adds the message to the request's entry of the activity log type with a single upsert, which creates the entry
+     * for the first event of the request. The entry is never read, so events sharing a request id cannot overwrite
+     * each other's messages.
+     */
+    private void addMessage(String requestId, ActivityLogType activityLogType, String activityLogId, Instant timestamp,
+                            Actor actor, String message) {
+        ActivityLogEntryEntity activityLogEntry = new ActivityLogEntryEntity();
+        activityLogEntry.setRequestId(requestId);
+        activityLogEntry.setActivityLogType(activityLogType);
+        activityLogEntry.setActivityLogId(activityLogId);
+        activityLogEntry.setTimestamp(timestamp);
+        activityLogEntry.setActor(actor);
+
+        Update update = new Update()
+                .setOnInsert("activityLogId", activityLogId)
+                .setOnInsert("timestamp", timestamp)
+                .push("messages", message);
+
+        // A system action marks the whole entry as made by the system, also when the entry already exists
+        if (actor == Actor.USER) {
+            update.setOnInsert("actor", actor);
+        } else {
+            update.set("actor", actor);
+        }
+
+        projectionBatch.upsert(
+                ActivityLogEntryEntity.class,
+                Query.query(Criteria.where("requestId").is(requestId).and("activityLogType").is(activityLogType)),
+                update,
+                activityLogEntry
+        );
+    }
+
+    public void deleteAllActivityLogEntries() {
+        activityLogRepository.deleteAll();
+    }
+
+    private void deleteActivityLogEntries(String activityLogId) {
+        projectionBatch.deleteAll(
+                ActivityLogEntryEntity.class,
+                Query.query(Criteria.where("activityLogId").is(activityLogId)),
+                activityLogEntry -> activityLogId.equals(activityLogEntry.getActivityLogId())
+        );
+    }
 }
@@ -0,0 +1,40 @@
+package loyalty.service.query.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate document counts of the query collections, read from the collection metadata instead of counting the
+ * documents, and cached for a while so paging through a collection does not ask for them on every page.
+ */
+@Component
+public class ApproximateCounts {
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration timeToLive;
+    private final Map<Class<?>, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public ApproximateCounts(MongoTemplate mongoTemplate,
+                             @Value("${loyalty.query.approximate-count-ttl-seconds:60}") long timeToLiveSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.timeToLive = Duration.ofSeconds(timeToLiveSeconds);
+    }
+
+    public long of(Class<?> type) {
+        Instant now = Instant.now();
+
+        return counts.compute(type, (key, cached) -> cached != null && cached.expiresAt().isAfter(now)
+                ? cached
+                : new CachedCount(mongoTemplate.estimatedCount(type), now.plus(timeToLive))
+        ).count();
+    }
+
+    private record CachedCount(long count, Instant expiresAt) {
+    }
+}
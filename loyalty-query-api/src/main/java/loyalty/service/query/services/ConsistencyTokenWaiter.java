@@ -0,0 +1,156 @@
+package loyalty.service.query.services;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import loyalty.service.core.exceptions.ConsistencyTokenNotReachedException;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.WrappedToken;
+import org.axonframework.eventhandling.tokenstore.jpa.TokenEntry;
+import org.axonframework.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Lets query endpoints wait until a processing group has handled the events up to a consistency token returned by the
+ * command api, so a client reads its own writes after one bounded wait instead of polling until they show up.
+ * <p>
+ * The tracking tokens of a group are read from the token store once per poll for every request waiting on it, and are
+ * only read while requests are waiting. A request whose token is not reached within the timeout fails with
+ * {@link ConsistencyTokenNotReachedException}.
+ */
+@Component
+public class ConsistencyTokenWaiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsistencyTokenWaiter.class);
+
+    private final EntityManager entityManager;
+    private final Serializer serializer;
+    private final Duration timeout;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final Map<String, List<TrackingToken>> latestTokens = new ConcurrentHashMap<>();
+
+    public ConsistencyTokenWaiter(EntityManager entityManager,
+                                  Serializer serializer,
+                                  @Value("${loyalty.query.consistency.timeout-millis:5000}") long timeoutMillis,
+                                  @Value("${loyalty.query.consistency.poll-interval-millis:50}") long pollIntervalMillis) {
+        this.entityManager = entityManager;
+        this.serializer = serializer;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the query once the processing group has passed the consistency token, or right away when there is none.
+     */
+    public <T> CompletableFuture<T> afterProcessed(String processingGroup, Long consistencyToken,
+                                                   Supplier<CompletableFuture<T>> query) {
+        return await(processingGroup, consistencyToken).thenCompose(ignored -> query.get());
+    }
+
+    public CompletableFuture<Void> await(String processingGroup, Long consistencyToken) {
+        if (consistencyToken == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Tokens only move forward, so tokens read for earlier requests can already answer this one
+        List<TrackingToken> tokens = latestTokens.get(processingGroup);
+        if (tokens != null && covers(tokens, consistencyToken)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Waiter waiter = new Waiter(consistencyToken, Instant.now().plus(timeout), new CompletableFuture<>());
+        waiters.computeIfAbsent(processingGroup, key -> new ConcurrentLinkedQueue<>()).add(waiter);
+        return waiter.result();
+    }
+
+    /**
+     * Tells whether the processing group has passed the consistency token, reading its tracking tokens now.
+     */
+    public boolean isProcessed(String processingGroup, long consistencyToken) {
+        List<TrackingToken> tokens = fetchTokens(processingGroup);
+        latestTokens.put(processingGroup, tokens);
+        return covers(tokens, consistencyToken);
+    }
+
+    private void poll() {
+        Instant now = Instant.now();
+
+        waiters.forEach((processingGroup, groupWaiters) -> {
+            if (groupWaiters.isEmpty()) {
+                return;
+            }
+
+            List<TrackingToken> tokens = null;
+            try {
+                tokens = fetchTokens(processingGroup);
+                latestTokens.put(processingGroup, tokens);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Failed to read the tracking tokens of {}", processingGroup, exception);
+            }
+
+            List<TrackingToken> fetchedTokens = tokens;
+            groupWaiters.removeIf(waiter -> complete(processingGroup, waiter, fetchedTokens, now));
+        });
+    }
+
+    private List<TrackingToken> fetchTokens(String processingGroup) {
+        return entityManager.createQuery(
+                        "SELECT t FROM TokenEntry t WHERE t.processorName = :processorName", TokenEntry.class)
+                .setParameter("processorName", processingGroup)
+                .getResultList()
+                .stream()
+                .map(tokenEntry -> tokenEntry.getToken(serializer))
+                .toList();
+    }
+
+    private static boolean complete(String processingGroup, Waiter waiter, List<TrackingToken> tokens, Instant now) {
+        // Completed on another thread, so the waiting queries do not run on the poller
+        if (tokens != null && covers(tokens, waiter.consistencyToken())) {
+            waiter.result().completeAsync(() -> null);
+            return true;
+        }
+
+        if (now.isAfter(waiter.deadline())) {
+            waiter.result().completeExceptionally(
+                    new ConsistencyTokenNotReachedException(processingGroup, waiter.consistencyToken()));
+            return true;
+        }
+
+        return false;
+    }
+
+    // Every segment has to be past the token, since any of them may be the one handling the event
+    private static boolean covers(List<TrackingToken> tokens, long consistencyToken) {
+        return !tokens.isEmpty() && tokens.stream()
+                .allMatch(token -> token != null && handled(WrappedToken.unwrapLowerBound(token), consistencyToken));
+    }
+
+    // Only the event at the index has to be handled, gaps below it are other appends, e.g. rolled back ones, which stay
+    // in the token until the gap cleaning timeout
+    private static boolean handled(TrackingToken token, long index) {
+        if (token instanceof GapAwareTrackingToken gapAwareToken) {
+            return gapAwareToken.getIndex() >= index && !gapAwareToken.getGaps().contains(index);
+        }
+        return token.position().orElse(-1) >= index;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdown();
+    }
+
+    private record Waiter(long consistencyToken, Instant deadline, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,421 @@
+package loyalty.service.query.services;
+
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Buffers the writes of the Mongo projections for the event batch a tracking processor is handling, and writes them
+ * with one ordered bulk operation per collection when the batch's unit of work commits, instead of one round trip per
+ * event. Documents written earlier in the batch are read back from the buffer, so handlers see their own writes.
+ * <p>
+ * Counters are changed with {@link #increment}, which sends one atomic {@code $inc} per document and batch instead of
+ * reading the document and replacing it, and documents only ever appended to are written with {@link #upsert}.
+ * <p>
+ * While a processor replays events after its tokens were reset, every document is rebuilt from its own events only, so
+ * the batch is written with unordered bulk operations that Mongo can apply in parallel.
+ * <p>
+ * Writes made outside a unit of work go straight to the database.
+ */
+@Component
+public class ProjectionBatch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectionBatch.class);
+    private static final String RESOURCE_KEY = ProjectionBatch.class.getName();
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProjectionBatch(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Returns the document written under the key earlier in the batch, or loads it when the batch has not touched it.
+     */
+    public <T> Optional<T> find(Class<T> type, Object key, Supplier<Optional<T>> loader) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            return loader.get();
+        }
+
+        PendingCollection<T> pending = pendingWrites.of(type);
+        Map<String, Integer> deltas = pending.increments.get(key);
+
+        if (deltas == null) {
+            return pending.find(key, loader);
+        }
+
+        // The document is read anyway, so its pending increments are applied to it and it is replaced instead
+        Optional<T> document = pending.find(key, loader);
+        document.ifPresent(found -> {
+            applyIncrements(type, found, deltas);
+            pending.save(key, found);
+        });
+        return document;
+    }
+
+    public <T> void save(Class<T> type, Object key, T document) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            mongoTemplate.save(document);
+            return;
+        }
+
+        pendingWrites.of(type).save(key, document);
+    }
+
+    public <T> void delete(Class<T> type, Object key, T document) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            mongoTemplate.remove(document);
+            return;
+        }
+
+        pendingWrites.of(type).delete(key, document);
+    }
+
+    /**
+     * Adds the deltas to the int fields of the document with the id, without reading it. Increments of one document
+     * are merged across the batch into a single {@code $inc}, written after the batch's other writes of the collection,
+     * and a document missing by then fails the batch with the exception created for its id.
+     */
+    public <T> void increment(Class<T> type, Object id, Map<String, Integer> deltas,
+                              Function<Object, ? extends RuntimeException> notFound) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            if (mongoTemplate.updateFirst(byId(id), toUpdate(deltas), type).getMatchedCount() == 0) {
+                throw notFound.apply(id);
+            }
+            return;
+        }
+
+        PendingCollection<T> pending = pendingWrites.of(type);
+
+        if (pending.deleted.containsKey(id)) {
+            throw notFound.apply(id);
+        }
+
+        if (pending.saved.containsKey(id)) {
+            applyIncrements(type, pending.saved.get(id), deltas);
+            return;
+        }
+
+        pending.increment(id, deltas, notFound);
+    }
+
+    /**
+     * Deletes every document matching the query. The predicate must match the same documents, so writes pending in
+     * the batch are dropped and documents loaded later in the batch are treated as deleted.
+     */
+    public <T> void deleteAll(Class<T> type, Query query, Predicate<T> matches) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            mongoTemplate.remove(query, type);
+            return;
+        }
+
+        pendingWrites.of(type).deleteAll(query, matches);
+    }
+
+    /**
+     * Applies the update to every document matching the query. The predicate must match the same documents and the
+     * change must do what the update does, so it is also applied to documents the batch holds or loads later. The
+     * update is written after the batch's other writes of the collection.
+     */
+    public <T> void updateAll(Class<T> type, Query query, Update update, Predicate<T> matches, Consumer<T> change) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            mongoTemplate.updateMulti(query, update, type);
+            return;
+        }
+
+        pendingWrites.of(type).updateAll(query, update, matches, change);
+    }
+
+    /**
+     * Applies the update to the document matching the query, and inserts it when there is none, without reading it.
+     * The document holds the fields an insert would get, so removals later in the batch drop the upserts they match.
+     * The upserts are written in the order they were made, after the batch's inserts and replacements of the
+     * collection, and the query should be on a unique index, so concurrent upserts of one document cannot insert it
+     * twice.
+     */
+    public <T> void upsert(Class<T> type, Query query, Update update, T document) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            mongoTemplate.upsert(query, update, type);
+            return;
+        }
+
+        pendingWrites.of(type).upsert(query, update, document);
+    }
+
+    /**
+     * Runs the action once the batch's writes are flushed and before the processor stores its token, e.g. to drop
+     * cached results of the documents the batch changed, or right away outside a unit of work. Actions run in the
+     * order they were added, and not at all when a write fails.
+     */
+    public void afterFlush(Runnable action) {
+        PendingWrites pendingWrites = currentPendingWrites();
+
+        if (pendingWrites == null) {
+            action.run();
+            return;
+        }
+
+        pendingWrites.afterFlush.add(action);
+    }
+
+    private PendingWrites currentPendingWrites() {
+        if (!CurrentUnitOfWork.isStarted()) {
+            return null;
+        }
+
+        UnitOfWork<?> root = CurrentUnitOfWork.get().root();
+        return root.getOrComputeResource(RESOURCE_KEY, key -> {
+            PendingWrites pendingWrites = new PendingWrites(ReplayToken.isReplay(CurrentUnitOfWork.get().getMessage()));
+            // Written before the processor stores its token, so a failed write makes the batch be handled again
+            root.onPrepareCommit(unitOfWork -> flush(pendingWrites));
+            return pendingWrites;
+        });
+    }
+
+    private void flush(PendingWrites pendingWrites) {
+        pendingWrites.collections.values().forEach(pending -> flush(pending, pendingWrites.replay));
+        pendingWrites.afterFlush.forEach(Runnable::run);
+    }
+
+    private <T> void flush(PendingCollection<T> pending, boolean replay) {
+        Class<T> type = pending.type;
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, type);
+        int operationCount = 0;
+
+        for (Query query : pending.removals) {
+            operations.remove(query);
+            operationCount++;
+        }
+
+        // Documents are written at most once per batch by id, so only the removals need to run before them
+        if (replay && operationCount > 0) {
+            operations.execute();
+            operationCount = 0;
+        }
+
+        if (replay) {
+            operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        }
+
+        for (T document : pending.deleted.values()) {
+            Object id = idOf(type, document);
+            if (id != null) {
+                operations.remove(byId(id));
+                operationCount++;
+            }
+        }
+
+        for (T document : pending.saved.values()) {
+            Object id = idOf(type, document);
+            if (id == null) {
+                operations.insert(document);
+            } else {
+                operations.replaceOne(byId(id), document, FindAndReplaceOptions.options().upsert());
+            }
+            operationCount++;
+        }
+
+        // Upserts of one document have to be applied in order, so during replay they get an ordered bulk of their own
+        if (replay && !pending.upserts.isEmpty()) {
+            if (operationCount > 0) {
+                operations.execute();
+                LOGGER.debug("Wrote {} batched operations for {} during replay", operationCount, type.getSimpleName());
+            }
+            operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, type);
+            operationCount = 0;
+        }
+
+        for (PendingUpsert<T> upsert : pending.upserts) {
+            operations.upsert(upsert.query(), upsert.update());
+            operationCount++;
+        }
+
+        if (operationCount > 0) {
+            operations.execute();
+            LOGGER.debug("Wrote {} batched operations for {}{}", operationCount, type.getSimpleName(), replay ? " during replay" : "");
+        }
+
+        if (!pending.updates.isEmpty()) {
+            BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, type);
+            pending.updates.forEach(update -> updates.updateMulti(update.getFirst(), update.getSecond()));
+            updates.execute();
+            LOGGER.debug("Wrote {} batched multi-document updates for {}", pending.updates.size(), type.getSimpleName());
+        }
+
+        if (!pending.increments.isEmpty()) {
+            flushIncrements(pending);
+        }
+    }
+
+    private <T> void flushIncrements(PendingCollection<T> pending) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, pending.type);
+        pending.increments.forEach((id, deltas) -> operations.updateOne(byId(id), toUpdate(deltas)));
+
+        int matched = operations.execute().getMatchedCount();
+        LOGGER.debug("Wrote {} batched increments for {}", pending.increments.size(), pending.type.getSimpleName());
+
+        if (matched < pending.increments.size()) {
+            Set<Object> missing = new LinkedHashSet<>(pending.increments.keySet());
+            Query existing = Query.query(Criteria.where("_id").in(missing));
+            existing.fields().include("_id");
+            mongoTemplate.find(existing, pending.type).forEach(document -> missing.remove(idOf(pending.type, document)));
+
+            if (!missing.isEmpty()) {
+                Object id = missing.iterator().next();
+                throw pending.notFound.get(id).apply(id);
+            }
+        }
+    }
+
+    private <T> void applyIncrements(Class<T> type, T document, Map<String, Integer> deltas) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(document);
+
+        deltas.forEach((field, delta) -> {
+            MongoPersistentProperty property = entity.getRequiredPersistentProperty(field);
+            accessor.setProperty(property, ((Number) accessor.getProperty(property)).intValue() + delta);
+        });
+    }
+
+    private static Update toUpdate(Map<String, Integer> deltas) {
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        return update;
+    }
+
+    private static Query byId(Object id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private <T> Object idOf(Class<T> type, T document) {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type)
+                .getIdentifierAccessor(document)
+                .getIdentifier();
+    }
+
+    private static final class PendingWrites {
+        private final Map<Class<?>, PendingCollection<?>> collections = new LinkedHashMap<>();
+        private final List<Runnable> afterFlush = new ArrayList<>();
+        private final boolean replay;
+
+        private PendingWrites(boolean replay) {
+            this.replay = replay;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> PendingCollection<T> of(Class<T> type) {
+            return (PendingCollection<T>) collections.computeIfAbsent(type, key -> new PendingCollection<>(type));
+        }
+    }
+
+    private static final class PendingCollection<T> {
+        private final Class<T> type;
+        private final Map<Object, T> saved = new LinkedHashMap<>();
+        private final Map<Object, T> deleted = new LinkedHashMap<>();
+        private final List<Query> removals = new ArrayList<>();
+        private final List<Predicate<T>> removalMatches = new ArrayList<>();
+        private final Map<Object, Map<String, Integer>> increments = new LinkedHashMap<>();
+        private final List<Pair<Query, Update>> updates = new ArrayList<>();
+        private final List<PendingUpsert<T>> upserts = new ArrayList<>();
+        private final List<PendingChange<T>> changes = new ArrayList<>();
+        private final Map<Object, Function<Object, ? extends RuntimeException>> notFound = new HashMap<>();
+
+        private PendingCollection(Class<T> type) {
+            this.type = type;
+        }
+
+        private Optional<T> find(Object key, Supplier<Optional<T>> loader) {
+            if (saved.containsKey(key)) {
+                return Optional.of(saved.get(key));
+            }
+
+            if (deleted.containsKey(key)) {
+                return Optional.empty();
+            }
+
+            Optional<T> document = loader.get()
+                    .filter(found -> removalMatches.stream().noneMatch(matches -> matches.test(found)));
+            document.ifPresent(found -> changes.stream()
+                    .filter(change -> change.matches().test(found))
+                    .forEach(change -> change.change().accept(found)));
+            return document;
+        }
+
+        private void save(Object key, T document) {
+            // A document saved without being read replaces whatever the earlier increments would have changed
+            increments.remove(key);
+            deleted.remove(key);
+            saved.put(key, document);
+        }
+
+        private void delete(Object key, T document) {
+            increments.remove(key);
+            saved.remove(key);
+            deleted.put(key, document);
+        }
+
+        private void deleteAll(Query query, Predicate<T> matches) {
+            saved.values().removeIf(matches);
+            deleted.values().removeIf(matches);
+            upserts.removeIf(upsert -> matches.test(upsert.document()));
+            removals.add(query);
+            removalMatches.add(matches);
+        }
+
+        private void updateAll(Query query, Update update, Predicate<T> matches, Consumer<T> change) {
+            saved.values().stream().filter(matches).forEach(change);
+            updates.add(Pair.of(query, update));
+            changes.add(new PendingChange<>(matches, change));
+        }
+
+        private void upsert(Query query, Update update, T document) {
+            upserts.add(new PendingUpsert<>(query, update, document));
+        }
+
+        private void increment(Object id, Map<String, Integer> deltas, Function<Object, ? extends RuntimeException> notFound) {
+            Map<String, Integer> merged = increments.computeIfAbsent(id, key -> new LinkedHashMap<>());
+            deltas.forEach((field, delta) -> merged.merge(field, delta, Integer::sum));
+            this.notFound.put(id, notFound);
+        }
+    }
+
+    private record PendingChange<T>(Predicate<T> matches, Consumer<T> change) {
+    }
+
+    private record PendingUpsert<T>(Query query, Update update, T document) {
+    }
+}
@@ -0,0 +1,66 @@
+package loyalty.service.query.services;
+
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells whether a processing group has handled the events appended before this instance started, so a read model
+ * added in a deploy is only read once its first replay has filled it. The group's tracking tokens are read at most
+ * once per check interval until it has caught up, and never after.
+ */
+@Component
+public class ProjectionCatchUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectionCatchUp.class);
+
+    private final ConsistencyTokenWaiter consistencyTokenWaiter;
+    private final long startupIndex;
+    private final Duration checkInterval;
+    private final Set<String> caughtUp = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> nextChecks = new ConcurrentHashMap<>();
+
+    public ProjectionCatchUp(EventStore eventStore,
+                             ConsistencyTokenWaiter consistencyTokenWaiter,
+                             @Value("${loyalty.query.catch-up.check-interval-millis:1000}") long checkIntervalMillis) {
+        this.consistencyTokenWaiter = consistencyTokenWaiter;
+        this.checkInterval = Duration.ofMillis(checkIntervalMillis);
+
+        TrackingToken headToken = eventStore.createHeadToken();
+        this.startupIndex = headToken == null ? -1 : headToken.position().orElse(-1);
+    }
+
+    public boolean isCaughtUp(String processingGroup) {
+        if (startupIndex < 0 || caughtUp.contains(processingGroup)) {
+            return true;
+        }
+
+        Instant now = Instant.now();
+        Instant nextCheck = nextChecks.get(processingGroup);
+        if (nextCheck != null && now.isBefore(nextCheck)) {
+            return false;
+        }
+        nextChecks.put(processingGroup, now.plus(checkInterval));
+
+        try {
+            if (consistencyTokenWaiter.isProcessed(processingGroup, startupIndex)) {
+                caughtUp.add(processingGroup);
+                LOGGER.info("{} caught up with the events appended before startup", processingGroup);
+                return true;
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to read the tracking tokens of {}", processingGroup, exception);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,225 @@
+package loyalty.service.query.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of the results of one query type, keyed by the id the query looks up and by the rest of
+ * its parameters, e.g. the page. The projections invalidate an id when they apply an event changing it, which drops
+ * the results of every page for that id.
+ * <p>
+ * The results of an id are kept together, and a query stores its result in the entry it found before reading the
+ * database. An invalidation replaces the entry, so a query that read the documents before the projection's writes
+ * cannot store its stale result where later queries find it.
+ * <p>
+ * A result can also depend on other documents, e.g. a page of loyalty banks embeds the names of their businesses. The
+ * ids of those documents are recorded with the entry, so a change to one of them only drops the entries showing it.
+ * <p>
+ * Invalidations are local to the instance, and an instance whose projections do not own the id's segment keeps its
+ * results until they expire. Requests that waited for a consistency token therefore bypass the cache, so they read
+ * their own writes on every instance.
+ */
+public class QueryResultCache<V> implements MeterBinder {
+
+    private static final String NO_PARAMETERS = "";
+
+    private final String name;
+    private final String resourceKey;
+    private final ProjectionBatch projectionBatch;
+    private final Cache<String, Entry<V>> results;
+    private final Map<String, Set<Entry<V>>> dependents = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public QueryResultCache(String name, long maxSize, Duration timeToLive, ProjectionBatch projectionBatch) {
+        this.name = name;
+        this.resourceKey = QueryResultCache.class.getName() + "." + name;
+        this.projectionBatch = projectionBatch;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .<String, Entry<V>>removalListener((id, entry, cause) -> {
+                    if (entry != null) {
+                        entry.dependencies.forEach(dependency -> removeDependent(dependency, entry));
+                    }
+                })
+                .build();
+    }
+
+    public V get(String id, boolean bypass, Supplier<V> query) {
+        return get(id, NO_PARAMETERS, bypass, query);
+    }
+
+    /**
+     * Returns the cached result of the query, or runs it and caches the result. A bypassing query always runs and
+     * replaces the cached result. Exceptions, e.g. for a missing document, are not cached.
+     */
+    public V get(String id, Object parameters, boolean bypass, Supplier<V> query) {
+        return get(id, parameters, bypass, query, result -> List.of());
+    }
+
+    /**
+     * Like {@link #get(String, Object, boolean, Supplier)}, and records the ids of the other documents the result
+     * depends on, so {@link #invalidateDependents(String)} drops it when one of them changes.
+     */
+    public V get(String id, Object parameters, boolean bypass, Supplier<V> query,
+                 Function<V, Collection<String>> dependencies) {
+        Entry<V> entry = results.get(id, Entry::new);
+        V result = bypass ? null : entry.results.get(parameters);
+
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = query.get();
+        entry.results.put(parameters, result);
+        dependencies.apply(result).forEach(dependency -> addDependent(dependency, entry));
+        return result;
+    }
+
+    /**
+     * Drops the results of the id once the current batch's writes are flushed, before the tracking token is stored.
+     */
+    public void invalidate(String id) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            evict(id);
+            return;
+        }
+
+        currentInvalidations().ids.add(id);
+    }
+
+    /**
+     * Drops the results depending on the document with the given id once the current batch's writes are flushed,
+     * e.g. the pages of the accounts with a loyalty bank at a renamed business.
+     */
+    public void invalidateDependents(String dependency) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            evictDependents(dependency);
+            return;
+        }
+
+        currentInvalidations().dependencies.add(dependency);
+    }
+
+    public void evict(String id) {
+        results.invalidate(id);
+    }
+
+    public void evict(Collection<String> ids) {
+        results.invalidateAll(ids);
+    }
+
+    public void evictAll() {
+        results.invalidateAll();
+    }
+
+    // Removes the entries found, not their ids, so an entry replaced in the meantime keeps its results
+    public void evictDependents(String dependency) {
+        Set<Entry<V>> entries = dependents.remove(dependency);
+        if (entries != null) {
+            entries.forEach(entry -> results.asMap().remove(entry.id, entry));
+        }
+    }
+
+    public boolean isEmpty() {
+        return results.estimatedSize() == 0;
+    }
+
+    // The sets are only read and changed inside the map's atomic operations
+    private void addDependent(String dependency, Entry<V> entry) {
+        if (entry.dependencies.add(dependency)) {
+            dependents.compute(dependency, (key, entries) -> {
+                Set<Entry<V>> dependentEntries = entries == null ? new HashSet<>() : entries;
+                dependentEntries.add(entry);
+                return dependentEntries;
+            });
+        }
+    }
+
+    private void removeDependent(String dependency, Entry<V> entry) {
+        dependents.computeIfPresent(dependency, (key, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private Invalidations currentInvalidations() {
+        UnitOfWork<?> root = CurrentUnitOfWork.get().root();
+        return root.getOrComputeResource(resourceKey, key -> {
+            Invalidations invalidations = new Invalidations();
+            projectionBatch.afterFlush(() -> invalidations.apply(this));
+            return invalidations;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("loyalty.query.cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("loyalty.query.cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("loyalty.query.cache.hit.ratio", this, QueryResultCache::hitRatio)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("loyalty.query.cache.evictions", results, cache -> cache.stats().evictionCount())
+                .tag("cache", name)
+                .description("Ids evicted for size or age, invalidations are not counted")
+                .register(registry);
+        Gauge.builder("loyalty.query.cache.size", results, Cache::estimatedSize)
+                .tag("cache", name)
+                .description("Ids with cached results")
+                .register(registry);
+    }
+
+    private double hitRatio() {
+        double lookups = hits.doubleValue() + misses.doubleValue();
+        return lookups == 0 ? 0 : hits.doubleValue() / lookups;
+    }
+
+    private static class Entry<V> {
+
+        private final String id;
+        private final Map<Object, V> results = new ConcurrentHashMap<>();
+        private final Set<String> dependencies = ConcurrentHashMap.newKeySet();
+
+        private Entry(String id) {
+            this.id = id;
+        }
+    }
+
+    private static class Invalidations {
+
+        private final Set<String> ids = new HashSet<>();
+        private final Set<String> dependencies = new HashSet<>();
+
+        private void apply(QueryResultCache<?> cache) {
+            cache.evict(ids);
+            dependencies.forEach(cache::evictDependents);
+        }
+    }
+}
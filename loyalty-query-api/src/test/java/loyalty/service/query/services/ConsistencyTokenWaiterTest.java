@@ -0,0 +1,119 @@
+package loyalty.service.query.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import loyalty.service.core.exceptions.ConsistencyTokenNotReachedException;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.tokenstore.jpa.TokenEntry;
+import org.axonframework.serialization.Serializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static loyalty.service.core.constants.DomainConstants.LOYALTY_BANK_GROUP;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsistencyTokenWaiterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Serializer serializer;
+
+    @Mock
+    private TypedQuery<TokenEntry> tokenQuery;
+
+    private ConsistencyTokenWaiter consistencyTokenWaiter;
+
+    @BeforeEach
+    void setup() {
+        consistencyTokenWaiter = new ConsistencyTokenWaiter(entityManager, serializer, 500, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consistencyTokenWaiter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Completes once every segment has handled the index, despite gaps below it")
+    void testAwait_whenTokensHaveGapsBelowIndex_shouldComplete() {
+        // Arrange
+        segmentTokens(
+                GapAwareTrackingToken.newInstance(12, Set.of(5L)),
+                GapAwareTrackingToken.newInstance(10, Set.of(3L, 7L))
+        );
+
+        // Act & Assert
+        assertDoesNotThrow(() -> consistencyTokenWaiter.await(LOYALTY_BANK_GROUP, 10L).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Waits while the index is one of a segment's gaps")
+    void testAwait_whenIndexIsGap_shouldTimeOut() {
+        // Arrange
+        segmentTokens(
+                GapAwareTrackingToken.newInstance(12, Set.of(10L)),
+                GapAwareTrackingToken.newInstance(12, Set.of())
+        );
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> consistencyTokenWaiter.await(LOYALTY_BANK_GROUP, 10L).join());
+
+        // Assert
+        assertInstanceOf(ConsistencyTokenNotReachedException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Waits while a segment is behind the index")
+    void testAwait_whenSegmentBehindIndex_shouldTimeOut() {
+        // Arrange
+        segmentTokens(
+                GapAwareTrackingToken.newInstance(12, Set.of()),
+                GapAwareTrackingToken.newInstance(9, Set.of())
+        );
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> consistencyTokenWaiter.await(LOYALTY_BANK_GROUP, 10L).join());
+
+        // Assert
+        assertInstanceOf(ConsistencyTokenNotReachedException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Completes right away without a consistency token")
+    void testAwait_whenNoConsistencyToken_shouldCompleteWithoutReadingTokens() {
+        // Act & Assert
+        assertTrue(consistencyTokenWaiter.await(LOYALTY_BANK_GROUP, null).isDone());
+        verifyNoInteractions(entityManager);
+    }
+
+    private void segmentTokens(TrackingToken... tokens) {
+        List<TokenEntry> tokenEntries = Arrays.stream(tokens).map(token -> {
+            TokenEntry tokenEntry = mock(TokenEntry.class);
+            when(tokenEntry.getToken(serializer)).thenReturn(token);
+            return tokenEntry;
+        }).toList();
+
+        when(entityManager.createQuery(anyString(), eq(TokenEntry.class))).thenReturn(tokenQuery);
+        when(tokenQuery.setParameter(anyString(), any())).thenReturn(tokenQuery);
+        when(tokenQuery.getResultList()).thenReturn(tokenEntries);
+    }
+}
@@ -0,0 +1,243 @@
+package loyalty.service.query.services;
+
+import com.mongodb.bulk.BulkWriteResult;
+import loyalty.service.query.data.entities.ActivityLogEntryEntity;
+import loyalty.service.query.data.entities.LoyaltyBankEntity;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectionBatchTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private ProjectionBatch projectionBatch;
+
+    private static final String TEST_LOYALTY_BANK_ID = UUID.randomUUID().toString();
+    private static final String TEST_REQUEST_ID = UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        lenient().when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class)))
+                .thenReturn(bulkOperations);
+        lenient().when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        projectionBatch = new ProjectionBatch(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    @DisplayName("Returns a document saved earlier in the batch without loading it")
+    void testFind_whenDocumentSavedEarlierInBatch_shouldReturnSavedDocument() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(GenericEventMessage.asEventMessage("event"));
+        LoyaltyBankEntity loyaltyBankEntity = loyaltyBank(10);
+
+        // Act
+        projectionBatch.save(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, loyaltyBankEntity);
+        Optional<LoyaltyBankEntity> result = projectionBatch.find(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID,
+                () -> fail("Document saved in the batch should not be loaded"));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertSame(loyaltyBankEntity, result.get());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+
+        unitOfWork.commit();
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.ORDERED, LoyaltyBankEntity.class);
+        verify(bulkOperations, times(1)).replaceOne(
+                eq(byId(TEST_LOYALTY_BANK_ID)), eq(loyaltyBankEntity), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    @Test
+    @DisplayName("Deleting a document saved earlier in the batch only removes it")
+    void testDelete_whenDocumentSavedEarlierInBatch_shouldOnlyRemoveDocument() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(GenericEventMessage.asEventMessage("event"));
+        LoyaltyBankEntity loyaltyBankEntity = loyaltyBank(10);
+
+        // Act
+        projectionBatch.save(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, loyaltyBankEntity);
+        projectionBatch.delete(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, loyaltyBankEntity);
+        Optional<LoyaltyBankEntity> result = projectionBatch.find(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID,
+                () -> fail("Document deleted in the batch should not be loaded"));
+        unitOfWork.commit();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(bulkOperations, times(1)).remove(byId(TEST_LOYALTY_BANK_ID));
+        verify(bulkOperations, never()).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, never()).insert(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Merges the increments of a document into one $inc")
+    void testIncrement_whenDocumentIncrementedTwice_shouldWriteOneMergedIncrement() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(GenericEventMessage.asEventMessage("event"));
+        when(bulkWriteResult.getMatchedCount()).thenReturn(1);
+
+        // Act
+        projectionBatch.increment(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, Map.of("pending", 10, "version", 1),
+                id -> new IllegalStateException("Missing " + id));
+        projectionBatch.increment(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, Map.of("pending", -10, "earned", 10, "version", 1),
+                id -> new IllegalStateException("Missing " + id));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+        unitOfWork.commit();
+
+        // Assert
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, LoyaltyBankEntity.class);
+        verify(bulkOperations, times(1)).updateOne(eq(byId(TEST_LOYALTY_BANK_ID)), update.capture());
+
+        Document increments = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(0, increments.get("pending"));
+        assertEquals(10, increments.get("earned"));
+        assertEquals(2, increments.get("version"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), any(Class.class));
+    }
+
+    @Test
+    @DisplayName("Fails the batch when an incremented document is missing at prepare commit")
+    void testIncrement_whenDocumentMissingAtPrepareCommit_shouldThrowNotFoundException() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(GenericEventMessage.asEventMessage("event"));
+        when(bulkWriteResult.getMatchedCount()).thenReturn(0);
+        when(mongoTemplate.find(any(Query.class), eq(LoyaltyBankEntity.class))).thenReturn(List.of());
+
+        projectionBatch.increment(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, Map.of("earned", 10),
+                id -> new IllegalStateException("Missing " + id));
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class, unitOfWork::commit);
+
+        // Assert
+        assertEquals("Missing " + TEST_LOYALTY_BANK_ID, exception.getMessage());
+        verify(bulkOperations, times(1)).updateOne(eq(byId(TEST_LOYALTY_BANK_ID)), any(Update.class));
+    }
+
+    @Test
+    @DisplayName("Writes upserts with their $push, and drops those matched by a later removal")
+    void testUpsert_whenUpsertedInBatch_shouldWriteUpdateWithPush() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(GenericEventMessage.asEventMessage("event"));
+        Query kept = Query.query(Criteria.where("requestId").is(TEST_REQUEST_ID));
+        Query removed = Query.query(Criteria.where("requestId").is("removed"));
+
+        // Act
+        projectionBatch.upsert(ActivityLogEntryEntity.class, kept,
+                new Update().push("messages", "Account created"), activityLogEntry("kept"));
+        projectionBatch.upsert(ActivityLogEntryEntity.class, removed,
+                new Update().push("messages", "Loyalty Bank created"), activityLogEntry("removed"));
+        projectionBatch.deleteAll(ActivityLogEntryEntity.class, Query.query(Criteria.where("activityLogId").is("removed")),
+                activityLogEntry -> "removed".equals(activityLogEntry.getActivityLogId()));
+        unitOfWork.commit();
+
+        // Assert
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(1)).upsert(eq(kept), update.capture());
+        verify(bulkOperations, never()).upsert(eq(removed), any(Update.class));
+        assertEquals("Account created", update.getValue().getUpdateObject().get("$push", Document.class).get("messages"));
+    }
+
+    @Test
+    @DisplayName("Writes documents with an unordered bulk and upserts with an ordered one during replay")
+    void testFlush_whenReplaying_shouldWriteDocumentsUnordered() {
+        // Arrange
+        UnitOfWork<?> unitOfWork = startUnitOfWork(new GenericTrackedEventMessage<>(
+                ReplayToken.createReplayToken(new GlobalSequenceTrackingToken(10), new GlobalSequenceTrackingToken(5)),
+                GenericEventMessage.asEventMessage("event")
+        ));
+        LoyaltyBankEntity loyaltyBankEntity = loyaltyBank(10);
+        Query upserted = Query.query(Criteria.where("requestId").is(TEST_REQUEST_ID));
+
+        // Act
+        projectionBatch.save(LoyaltyBankEntity.class, TEST_LOYALTY_BANK_ID, loyaltyBankEntity);
+        projectionBatch.upsert(ActivityLogEntryEntity.class, upserted,
+                new Update().push("messages", "Account created"), activityLogEntry("kept"));
+        unitOfWork.commit();
+
+        // Assert
+        // Every collection starts with an ordered bulk, which is swapped for an unordered one, and the upserts get
+        // an ordered bulk of their own
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, LoyaltyBankEntity.class);
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityLogEntryEntity.class);
+        verify(mongoTemplate, times(2)).bulkOps(BulkOperations.BulkMode.ORDERED, ActivityLogEntryEntity.class);
+        verify(bulkOperations, times(1)).replaceOne(
+                eq(byId(TEST_LOYALTY_BANK_ID)), eq(loyaltyBankEntity), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).upsert(eq(upserted), any(Update.class));
+    }
+
+    private static UnitOfWork<?> startUnitOfWork(Message<?> message) {
+        return DefaultUnitOfWork.startAndGet(message);
+    }
+
+    private static LoyaltyBankEntity loyaltyBank(int earned) {
+        LoyaltyBankEntity loyaltyBankEntity = new LoyaltyBankEntity();
+        loyaltyBankEntity.setLoyaltyBankId(TEST_LOYALTY_BANK_ID);
+        loyaltyBankEntity.setEarned(earned);
+        return loyaltyBankEntity;
+    }
+
+    private static ActivityLogEntryEntity activityLogEntry(String activityLogId) {
+        ActivityLogEntryEntity activityLogEntry = new ActivityLogEntryEntity();
+        activityLogEntry.setRequestId(TEST_REQUEST_ID);
+        activityLogEntry.setActivityLogId(activityLogId);
+        return activityLogEntry;
+    }
+
+    private static Query byId(Object id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,71 @@
+package loyalty.service.query.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class QueryResultCacheTest {
+
+    @Mock
+    private ProjectionBatch projectionBatch;
+
+    private QueryResultCache<String> queryResultCache;
+
+    private static final String TEST_ACCOUNT_ID = "account";
+    private static final String TEST_OTHER_ACCOUNT_ID = "otherAccount";
+    private static final String TEST_BUSINESS_ID = "business";
+    private static final String TEST_OTHER_BUSINESS_ID = "otherBusiness";
+
+    @BeforeEach
+    void setup() {
+        queryResultCache = new QueryResultCache<>("test", 100, Duration.ofMinutes(1), projectionBatch);
+    }
+
+    @Test
+    @DisplayName("Drops only the results depending on the changed document")
+    void testInvalidateDependents_whenDependencyChanged_shouldDropDependentResults() {
+        // Arrange
+        AtomicInteger queries = new AtomicInteger();
+        get(TEST_ACCOUNT_ID, TEST_BUSINESS_ID, queries);
+        get(TEST_OTHER_ACCOUNT_ID, TEST_OTHER_BUSINESS_ID, queries);
+
+        // Act
+        queryResultCache.invalidateDependents(TEST_BUSINESS_ID);
+        get(TEST_ACCOUNT_ID, TEST_BUSINESS_ID, queries);
+        get(TEST_OTHER_ACCOUNT_ID, TEST_OTHER_BUSINESS_ID, queries);
+
+        // Assert
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    @DisplayName("Forgets the dependencies of evicted results")
+    void testInvalidateDependents_whenResultEvicted_shouldKeepResultCachedAfterwards() {
+        // Arrange
+        AtomicInteger queries = new AtomicInteger();
+        get(TEST_ACCOUNT_ID, TEST_BUSINESS_ID, queries);
+        queryResultCache.evict(TEST_ACCOUNT_ID);
+        get(TEST_ACCOUNT_ID, TEST_OTHER_BUSINESS_ID, queries);
+
+        // Act
+        queryResultCache.invalidateDependents(TEST_BUSINESS_ID);
+        get(TEST_ACCOUNT_ID, TEST_OTHER_BUSINESS_ID, queries);
+
+        // Assert
+        assertEquals(2, queries.get());
+    }
+
+    private void get(String id, String dependency, AtomicInteger queries) {
+        queryResultCache.get(id, "page", false, () -> id + queries.incrementAndGet(), result -> List.of(dependency));
+    }
+}
@@ -38,12 +38,18 @@ public class DomainConstants {
     public static final String COMMAND_PROJECTION_GROUP = "command-projection-group";
     public static final String EXPIRATION_TRACKER_GROUP = "expiration-tracker-group";
     public static final String REDEMPTION_TRACKER_GROUP = "redemption-tracker-group";
+    public static final String ACCOUNT_EMAIL_FILTER_GROUP = "account-email-filter-group";
 
    // Processing groups for query api
     public static final String ACCOUNT_GROUP = "account-group";
     public static final String BUSINESS_GROUP = "business-group";
 	public static final String LOYALTY_BANK_GROUP = "loyalty-bank-group";
     public static final String ACTIVITY_LOG_GROUP = "activity-log-group";
+    public static final String ENRICHED_LOYALTY_BANK_GROUP = "enriched-loyalty-bank-group";
+    public static final String LOYALTY_BANK_SUBSCRIPTION_GROUP = "loyalty-bank-subscription-group";
+
+    // Global index of the newest event once a command's events are appended, see ConsistencyTokens
+    public static final String CONSISTENCY_TOKEN_HEADER = "Consistency-Token";
 
     public static final String DEFAULT_PAGE = "0";
     public static final String DEFAULT_PAGE_SIZE = "20";
@@ -23,7 +23,9 @@ public class ExceptionMessages {
     public static final String REQUEST_ID_CANNOT_BE_EMPTY = String.format(PARAMETER_CANNOT_BE_EMPTY, "requestId");
     public static final String PAYMENT_ID_CANNOT_BE_EMPTY = String.format(PARAMETER_CANNOT_BE_EMPTY, "paymentId");
     public static final String TARGET_TRANSACTION_ID_CANNOT_BE_EMPTY = String.format(PARAMETER_CANNOT_BE_EMPTY, "targetTransactionId");
+    public static final String TARGET_TRANSACTIONS_CANNOT_BE_EMPTY = String.format(PARAMETER_CANNOT_BE_EMPTY, "targetTransactions");
     public static final String POINTS_CANNOT_BE_LTE_ZERO = "points cannot be less than or equal to zero";
+    public static final String POINTS_MUST_MATCH_TARGET_TRANSACTIONS = "points must equal the sum of the target transaction points";
 
     public static final String INVALID_EMAIL_FORMAT = "%s is not a valid email";
 
@@ -44,6 +46,8 @@ public class ExceptionMessages {
     public static final String ACCOUNT_ID_ALREADY_HAS_LOYALTY_BANK = "AccountId %s already has a loyalty bank with %s";
     public static final String LOYALTY_BANK_PROPERTY_BALANCE_CANNOT_BE_NEGATIVE = "%s balance cannot be negative";
     public static final String FAILED_TO_EXPIRE_LOYALTY_POINTS = "Failed to expire points in loyalty bank %s";
+    public static final String FAILED_TO_PROCESS_TRANSACTION = "Failed to process transaction for loyalty bank %s";
+    public static final String CONSISTENCY_TOKEN_NOT_REACHED = "%s has not processed events up to consistency token %s yet";
 
     public static final String CANNOT_VOID_MORE_POINTS_THAN_AVAILABLE = "Cannot void more points than available";
     public static final String CANNOT_CAPTURE_MORE_POINTS_THAN_AVAILABLE = "Cannot capture more points than available";
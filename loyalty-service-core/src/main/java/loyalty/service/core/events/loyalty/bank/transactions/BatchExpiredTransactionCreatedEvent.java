@@ -0,0 +1,13 @@
+package loyalty.service.core.events.loyalty.bank.transactions;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+@Getter
+@SuperBuilder
+public class BatchExpiredTransactionCreatedEvent extends AbstractTransactionEvent {
+    // Points expired per target transaction id, in the order the transactions were earned
+    private Map<String, Integer> targetTransactions;
+}
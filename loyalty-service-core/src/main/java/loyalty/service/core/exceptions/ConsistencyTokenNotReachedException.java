@@ -0,0 +1,9 @@
+package loyalty.service.core.exceptions;
+
+import static loyalty.service.core.constants.ExceptionMessages.CONSISTENCY_TOKEN_NOT_REACHED;
+
+public class ConsistencyTokenNotReachedException extends RuntimeException {
+    public ConsistencyTokenNotReachedException(String processingGroup, long consistencyToken) {
+        super(String.format(CONSISTENCY_TOKEN_NOT_REACHED, processingGroup, consistencyToken));
+    }
+}
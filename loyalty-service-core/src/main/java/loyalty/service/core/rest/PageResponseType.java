@@ -4,13 +4,15 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.axonframework.common.ReflectionUtils;
 import org.axonframework.messaging.responsetypes.AbstractResponseType;
-import org.springframework.data.domain.Page;
 
 import java.beans.ConstructorProperties;
 import java.lang.reflect.Type;
 import java.util.concurrent.Future;
 
-public class PageResponseType<R> extends AbstractResponseType<Page<R>> {
+/**
+ * Response type of queries answered with one keyset page, see {@link PaginationResponse}.
+ */
+public class PageResponseType<R> extends AbstractResponseType<PaginationResponse<R>> {
 
     @JsonCreator
     @ConstructorProperties({"expectedResponseType"})
@@ -20,13 +22,13 @@ public class PageResponseType<R> extends AbstractResponseType<Page<R>> {
 
     @Override
     public boolean matches(Type responseType) {
-        Type unwrapped = ReflectionUtils.unwrapIfType(responseType, Future.class, Page.class);
+        Type unwrapped = ReflectionUtils.unwrapIfType(responseType, Future.class, PaginationResponse.class);
         return isGenericAssignableFrom(unwrapped) || isAssignableFrom(unwrapped);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Class responseMessagePayloadType() {
-        return Page.class;
+        return PaginationResponse.class;
     }
 }
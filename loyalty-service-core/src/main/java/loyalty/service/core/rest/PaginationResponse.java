@@ -1,15 +1,22 @@
 package loyalty.service.core.rest;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
 
 
+/**
+ * One keyset page of a query. The next page is requested with the opaque nextPageToken, so a page costs the same
+ * however deep it is, and the total is only estimated on request instead of counted for every page.
+ */
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationResponse<T>
 {
-    private long totalItems;
+    private Long totalItems; // Approximate, and only present when requested
     private List<T> content;
+    private String nextPageToken; // Passed back as pageToken for the next keyset page, absent on the last page
 }
@@ -0,0 +1,44 @@
+package loyalty.service.core.utils;
+
+import loyalty.service.core.events.account.AbstractAccountEvent;
+import loyalty.service.core.events.business.AbstractBusinessEvent;
+import loyalty.service.core.events.loyalty.bank.AbstractLoyaltyBankEvent;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.async.SequencingPolicy;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
+
+/**
+ * Sequences events by the id of the loyalty bank, account or business they belong to, so a segmented processor
+ * handles the events of one aggregate in order while events of different aggregates are handled in parallel.
+ * Events without one of those ids fall back to the aggregate identifier of the message.
+ */
+public class AggregateIdSequencingPolicy implements SequencingPolicy<EventMessage<?>> {
+
+    private static final AggregateIdSequencingPolicy INSTANCE = new AggregateIdSequencingPolicy();
+
+    public static AggregateIdSequencingPolicy instance() {
+        return INSTANCE;
+    }
+
+    private AggregateIdSequencingPolicy() {
+    }
+
+    @Override
+    public Object getSequenceIdentifierFor(EventMessage<?> event) {
+        Object payload = event.getPayload();
+
+        if (payload instanceof AbstractLoyaltyBankEvent loyaltyBankEvent && loyaltyBankEvent.getLoyaltyBankId() != null) {
+            return loyaltyBankEvent.getLoyaltyBankId();
+        }
+
+        if (payload instanceof AbstractAccountEvent accountEvent && accountEvent.getAccountId() != null) {
+            return accountEvent.getAccountId();
+        }
+
+        if (payload instanceof AbstractBusinessEvent businessEvent && businessEvent.getBusinessId() != null) {
+            return businessEvent.getBusinessId();
+        }
+
+        return SequentialPerAggregatePolicy.instance().getSequenceIdentifierFor(event);
+    }
+}
@@ -4,13 +4,19 @@ import net.logstash.logback.marker.Markers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
+import org.slf4j.event.Level;
 
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MarkerGenerator {
 
@@ -23,44 +29,91 @@ public class MarkerGenerator {
     private static final DateTimeFormatter TIMESTAMP_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS Z").withZone(ZoneId.systemDefault());
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    // Getters are resolved once per class and reused for every marker generated for that class. A class whose getters
+    // cannot be resolved is not cached, since ClassValue only stores values that were computed without throwing
+    private static final ClassValue<PropertyAccessor[]> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected PropertyAccessor[] computeValue(Class<?> type) {
+            return resolveAccessors(type);
+        }
+    };
+
     public static Marker generateMarker(Object object) {
         Marker marker = null;
 
         try {
-            // Traverse the class hierarchy, starting from the given object's class
-            Class<?> currentClass = object.getClass();
-
-            while (currentClass != null && !currentClass.equals(Object.class)) {
-                // Use JavaBeans Introspector to get property descriptors for the current class
-                for (PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(currentClass, Object.class).getPropertyDescriptors()) {
-                    Method getter = propertyDescriptor.getReadMethod(); // Get the getter method
-                    if (getter != null) {
-                        Object value = getter.invoke(object); // Invoke the getter method to get the value
-                        String fieldName = propertyDescriptor.getName(); // Get the field name
-
-                        // Check if the field is 'timestamp' and format the Instant value
-                        if ("timestamp".equals(fieldName) && value instanceof Instant) {
-                            value = TIMESTAMP_FORMATTER.format((Instant) value); // Format the Instant to the desired string format
-                        }
-
-                        if (marker == null) {
-                            marker = Markers.append(fieldName, value);
-                        } else {
-                            marker.add(Markers.append(fieldName, value));
-                        }
-                    }
+            for (PropertyAccessor accessor : ACCESSORS.get(object.getClass())) {
+                Object value = accessor.getter().invokeExact(object);
+
+                // Check if the field is 'timestamp' and format the Instant value
+                if (accessor.isTimestamp() && value instanceof Instant instant) {
+                    value = TIMESTAMP_FORMATTER.format(instant);
+                }
+
+                if (marker == null) {
+                    marker = Markers.append(accessor.name(), value);
+                } else {
+                    marker.add(Markers.append(accessor.name(), value));
                 }
-                currentClass = currentClass.getSuperclass(); // Move to the superclass
             }
-        } catch (Exception e) {
-            LOGGER.error(
-                    String.format("Failed to generate marker for %s. Reason: %s",
-                            object.getClass().getSimpleName(),  // Correct class name
-                            e.getLocalizedMessage()
-                    )
-            );
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // invokeExact declares Throwable, so everything but Errors, including failures to resolve the getters, is
+            // logged as a failed marker
+            logFailure(object.getClass(), e);
         }
 
         return marker;
     }
+
+    /**
+     * Generates a marker for the object only when the logger would actually emit a message at the given level,
+     * otherwise returns an empty marker without reading any properties.
+     */
+    public static Marker generateMarker(Logger logger, Level level, Object object) {
+        if (!logger.isEnabledForLevel(level)) {
+            return Markers.empty();
+        }
+
+        return generateMarker(object);
+    }
+
+    private static PropertyAccessor[] resolveAccessors(Class<?> type) {
+        List<PropertyAccessor> accessors = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            // Bean info with Object as the stop class already includes the properties of every superclass
+            for (PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors()) {
+                Method getter = propertyDescriptor.getReadMethod();
+                if (getter != null) {
+                    String fieldName = propertyDescriptor.getName();
+                    accessors.add(new PropertyAccessor(
+                            fieldName,
+                            "timestamp".equals(fieldName),
+                            lookup.unreflect(getter).asType(GETTER_TYPE)
+                    ));
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getLocalizedMessage(), e);
+        }
+
+        return accessors.toArray(new PropertyAccessor[0]);
+    }
+
+    private static void logFailure(Class<?> type, Throwable e) {
+        LOGGER.error(
+                String.format("Failed to generate marker for %s. Reason: %s",
+                        type.getSimpleName(),
+                        e.getLocalizedMessage()
+                )
+        );
+    }
+
+    private record PropertyAccessor(String name, boolean isTimestamp, MethodHandle getter) {
+    }
 }
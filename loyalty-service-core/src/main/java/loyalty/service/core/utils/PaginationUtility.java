@@ -1,8 +1,14 @@
 package loyalty.service.core.utils;
 
 import loyalty.service.core.rest.PaginationResponse;
-import org.springframework.data.domain.Page;
+import org.bson.Document;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 public class PaginationUtility {
 
@@ -10,14 +16,46 @@ public class PaginationUtility {
 		throw new IllegalStateException("Utility class");
 	}
 
-	public static <T> PaginationResponse<T> toPageResponse(final Page<T> page) {
+	public static <T> PaginationResponse<T> toPageResponse(final Window<T> window) {
+		return toPageResponse(window, null);
+	}
+
+	public static <T> PaginationResponse<T> toPageResponse(final Window<T> window, final Long totalItems) {
 		return PaginationResponse.<T> builder()
-				.content(page.getContent())
-				.totalItems(page.getTotalElements())
+				.content(window.getContent())
+				.nextPageToken(nextPageToken(window))
+				.totalItems(totalItems)
 				.build();
 	}
 
 	public static PageRequest buildPageable(final int page, final int pageSize) {
 		return PageRequest.of(page, pageSize);
 	}
+
+	/**
+	 * Returns the keyset position encoded in the page token, or the position before the first page when there is none.
+	 */
+	public static KeysetScrollPosition buildScrollPosition(final String pageToken) {
+		if (pageToken == null || pageToken.isBlank()) {
+			return ScrollPosition.keyset();
+		}
+
+		try {
+			String json = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+			return ScrollPosition.forward(Document.parse(json));
+		} catch (RuntimeException exception) {
+			throw new IllegalArgumentException("Invalid page token");
+		}
+	}
+
+	public static <T> String nextPageToken(final Window<T> window) {
+		if (!window.hasNext() || window.isEmpty()) {
+			return null;
+		}
+
+		// Keys are written as extended json so ids and dates keep their types when the token is read back
+		KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+		String json = new Document(position.getKeys()).toJson();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
 }
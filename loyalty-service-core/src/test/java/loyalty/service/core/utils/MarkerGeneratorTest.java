@@ -0,0 +1,97 @@
+package loyalty.service.core.utils;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import loyalty.service.core.events.loyalty.bank.transactions.EarnedTransactionCreatedEvent;
+import loyalty.service.core.utils.fixtures.InaccessibleCommands;
+import net.logstash.logback.marker.SingleFieldAppendingMarker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MarkerGeneratorTest {
+
+    private static final String TEST_REQUEST_ID = UUID.randomUUID().toString();
+    private static final String TEST_LOYALTY_BANK_ID = UUID.randomUUID().toString();
+    private static final int TEST_POINTS = 100;
+
+    @Test
+    @DisplayName("Appends every property of the message, including inherited ones")
+    void testGenerateMarker_whenTransactionEvent_shouldAppendEveryProperty() {
+        // Arrange
+        EarnedTransactionCreatedEvent event = EarnedTransactionCreatedEvent.builder()
+                .requestId(TEST_REQUEST_ID)
+                .loyaltyBankId(TEST_LOYALTY_BANK_ID)
+                .points(TEST_POINTS)
+                .build();
+
+        // Act
+        Marker marker = MarkerGenerator.generateMarker(event);
+
+        // Assert
+        assertEquals(List.of(
+                "loyaltyBankId=" + TEST_LOYALTY_BANK_ID,
+                "points=" + TEST_POINTS,
+                "requestId=" + TEST_REQUEST_ID
+        ), fields(marker));
+    }
+
+    @Test
+    @DisplayName("Logs and retries resolving the getters of a class that failed instead of caching no properties")
+    void testGenerateMarker_whenGettersInaccessible_shouldLogFailureEveryTime() {
+        // Arrange
+        Object command = InaccessibleCommands.command(TEST_LOYALTY_BANK_ID);
+        ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(MarkerGenerator.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        try {
+            // Act
+            Marker first = MarkerGenerator.generateMarker(command);
+            Marker second = MarkerGenerator.generateMarker(command);
+
+            // Assert
+            assertNull(first);
+            assertNull(second);
+            assertEquals(2, appender.list.size(), "Each marker should retry and log the failure");
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    @DisplayName("Does not read any property when the level is disabled")
+    void testGenerateMarker_whenLevelDisabled_shouldReturnEmptyMarker() {
+        // Arrange
+        Logger logger = mock(Logger.class);
+        when(logger.isEnabledForLevel(Level.DEBUG)).thenReturn(false);
+        Object command = spy(EarnedTransactionCreatedEvent.builder().loyaltyBankId(TEST_LOYALTY_BANK_ID).build());
+
+        // Act
+        Marker marker = MarkerGenerator.generateMarker(logger, Level.DEBUG, command);
+
+        // Assert
+        assertTrue(fields(marker).isEmpty());
+        verifyNoInteractions(command);
+    }
+
+    private static List<String> fields(Marker marker) {
+        List<String> fields = new ArrayList<>();
+        if (marker instanceof SingleFieldAppendingMarker field) {
+            fields.add(field.toStringSelf());
+        }
+        marker.iterator().forEachRemaining(reference -> fields.add(((SingleFieldAppendingMarker) reference).toStringSelf()));
+        return fields;
+    }
+}
@@ -0,0 +1,25 @@
+package loyalty.service.core.utils.fixtures;
+
+// Commands whose class cannot be accessed from the marker generator's package
+public class InaccessibleCommands {
+
+    private InaccessibleCommands() {
+    }
+
+    public static Object command(String loyaltyBankId) {
+        return new InaccessibleCommand(loyaltyBankId);
+    }
+
+    private static class InaccessibleCommand {
+
+        private final String loyaltyBankId;
+
+        private InaccessibleCommand(String loyaltyBankId) {
+            this.loyaltyBankId = loyaltyBankId;
+        }
+
+        public String getLoyaltyBankId() {
+            return loyaltyBankId;
+        }
+    }
+}